@@ -7,9 +7,11 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import java.util.Arrays;
 import java.util.ResourceBundle;
 
 @SpringBootApplication
@@ -20,11 +22,20 @@ import java.util.ResourceBundle;
 })
 public class Kpok2Application extends Application {
 
+    /**
+     * Property that enables the JavaFX controllers; false in headless mode
+     */
+    public static final String UI_ENABLED_PROPERTY = "app.ui.enabled";
+    private static final String HEADLESS_ARG = "--headless";
+    private static final String HEADLESS_ENV = "KPOK2_HEADLESS";
+    // Enough for every bean and phase of a cold start
+    private static final int STARTUP_STEP_CAPACITY = 10_000;
+
     private ConfigurableApplicationContext springContext;
 
     @Override
     public void init() {
-        springContext = new SpringApplicationBuilder(Kpok2Application.class).run();
+        springContext = springApplication().run();
     }
 
     @Override
@@ -52,6 +63,37 @@ public class Kpok2Application extends Application {
     }
 
     public static void main(String[] args) {
-        launch(args);
+        if (isHeadless(args)) {
+            runHeadless(args);
+        } else {
+            launch(args);
+        }
+    }
+
+    /**
+     * Start only the Spring context, without the JavaFX toolkit.
+     * The application is then driven entirely through the REST API.
+     */
+    private static void runHeadless(String[] args) {
+        String[] springArgs = Arrays.stream(args)
+                .filter(arg -> !HEADLESS_ARG.equals(arg))
+                .toArray(String[]::new);
+        springApplication()
+                .headless(true)
+                .properties(UI_ENABLED_PROPERTY + "=false", "app.webdriver.headless=true")
+                .run(springArgs);
+    }
+
+    /**
+     * Spring application that records the duration of every startup step for the startup report
+     */
+    private static SpringApplicationBuilder springApplication() {
+        return new SpringApplicationBuilder(Kpok2Application.class)
+                .applicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+    }
+
+    private static boolean isHeadless(String[] args) {
+        return Arrays.asList(args).contains(HEADLESS_ARG)
+                || Boolean.parseBoolean(System.getenv(HEADLESS_ENV));
     }
 }
@@ -0,0 +1,16 @@
+package com.myprojects.kpok2;
+
+/**
+ * Entry point for starting the application from a plain classpath. The JVM refuses to launch a
+ * main class that extends {@link javafx.application.Application} unless JavaFX is on the module
+ * path, so this class starts {@link Kpok2Application} instead.
+ */
+public final class Kpok2Launcher {
+
+    private Kpok2Launcher() {
+    }
+
+    public static void main(String[] args) {
+        Kpok2Application.main(args);
+    }
+}
@@ -32,6 +32,31 @@ public class DebugProperties {
      */
     private String screenshotsDir = "screenshots";
     
+    /**
+     * Share of parsed pages whose HTML is saved (0.0 - 1.0)
+     */
+    private double htmlSampleRate = 1.0;
+    
+    /**
+     * Share of parsed pages for which a screenshot is taken and saved (0.0 - 1.0)
+     */
+    private double screenshotSampleRate = 0.1;
+    
+    /**
+     * Name HTML files by the SHA-256 of their content, so identical pages are stored once
+     */
+    private boolean contentAddressed = true;
+    
+    /**
+     * Disk budget for debug files in megabytes; the oldest files are deleted beyond it
+     */
+    private long maxDiskMb = 500;
+    
+    /**
+     * Captures waiting for the background writer; further captures are dropped
+     */
+    private int queueCapacity = 64;
+    
     /**
      * Get full path to HTML directory
      */
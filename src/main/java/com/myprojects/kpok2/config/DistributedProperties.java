@@ -0,0 +1,39 @@
+package com.myprojects.kpok2.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class for running several nodes against one database
+ */
+@Component
+@ConfigurationProperties(prefix = "app.distributed")
+@Data
+public class DistributedProperties {
+
+    /**
+     * Whether accounts and the iteration target are coordinated through the database
+     */
+    private boolean enabled = false;
+
+    /**
+     * Unique name of this node; defaults to host name and process id
+     */
+    private String nodeId = "";
+
+    /**
+     * Shared run that the nodes contribute iterations to
+     */
+    private String runId = "default";
+
+    /**
+     * How long an account lease stays valid without a heartbeat
+     */
+    private int leaseSeconds = 120;
+
+    /**
+     * How often this node extends the leases it holds
+     */
+    private int heartbeatSeconds = 30;
+}
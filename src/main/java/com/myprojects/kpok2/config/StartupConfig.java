@@ -0,0 +1,29 @@
+package com.myprojects.kpok2.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Moves slow, non-critical initialization off the startup path
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Build the JPA EntityManagerFactory (including Hibernate's schema update) on a background
+     * thread. Together with deferred repository bootstrapping, the rest of the context starts
+     * in parallel and only the first repository call waits for it.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.startup.background-jpa", havingValue = "true", matchIfMissing = true)
+    public EntityManagerFactoryBuilderCustomizer backgroundJpaBootstrap() {
+        return builder -> {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("jpa-bootstrap-");
+            executor.setDaemon(true);
+            builder.setBootstrapExecutor(executor);
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package com.myprojects.kpok2.config;
+
+import com.myprojects.kpok2.Kpok2Application;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Logs startup time and memory footprint once the application is ready,
+ * so the UI and headless modes can be compared, followed by the slowest startup
+ * phases and beans recorded by {@link BufferingApplicationStartup}
+ */
+@Slf4j
+@Component
+public class StartupMetricsLogger {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    private final Environment environment;
+    private final int reportSize;
+
+    public StartupMetricsLogger(Environment environment,
+                                @Value("${app.startup.report-size:15}") int reportSize) {
+        this.environment = environment;
+        this.reportSize = reportSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logStartupMetrics(ApplicationReadyEvent event) {
+        boolean uiEnabled = environment.getProperty(Kpok2Application.UI_ENABLED_PROPERTY, Boolean.class, true);
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        OptionalLong rssMb = readResidentSetMb();
+
+        log.info("Started in {} mode: {} ms since JVM start ({} ms for Spring context), heap used {} MB, RSS {}",
+                uiEnabled ? "UI" : "headless",
+                uptimeMillis,
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                heapUsedMb,
+                rssMb.isPresent() ? rssMb.getAsLong() + " MB" : "n/a");
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (reportSize > 0 && startup instanceof BufferingApplicationStartup buffering) {
+            logStartupReport(buffering.getBufferedTimeline().getEvents());
+        }
+    }
+
+    /**
+     * Log the slowest startup phases and bean instantiations.
+     * Bean times include the beans they depend on.
+     */
+    private void logStartupReport(List<TimelineEvent> events) {
+        StringBuilder report = new StringBuilder("Startup report (").append(events.size()).append(" steps)");
+
+        report.append(System.lineSeparator()).append("  Slowest phases:");
+        events.stream()
+                .filter(event -> !BEAN_INSTANTIATE_STEP.equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(reportSize)
+                .forEach(event -> appendLine(report, describe(event.getStartupStep()), event));
+
+        report.append(System.lineSeparator()).append("  Slowest beans:");
+        events.stream()
+                .filter(event -> BEAN_INSTANTIATE_STEP.equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(reportSize)
+                .forEach(event -> appendLine(report, tagValue(event.getStartupStep(), "beanName"), event));
+
+        log.info(report.toString());
+    }
+
+    private static void appendLine(StringBuilder report, String name, TimelineEvent event) {
+        report.append(System.lineSeparator())
+                .append(String.format("    %6d ms  %s", event.getDuration().toMillis(), name));
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder name = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            name.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return name.toString();
+    }
+
+    private static String tagValue(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    /**
+     * Resident set size from /proc; only available on Linux
+     */
+    private OptionalLong readResidentSetMb() {
+        if (!Files.isReadable(PROC_STATUS)) {
+            return OptionalLong.empty();
+        }
+        try {
+            return Files.readAllLines(PROC_STATUS).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")) / 1024)
+                    .findFirst();
+        } catch (IOException | NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -51,6 +51,27 @@ public class TestCenterProperties {
         
         // Whether to reuse browser sessions between iterations
         private boolean reuseSession = false;
+
+        // Yield-based auto-stop policy
+        private AutoStopProperties autoStop = new AutoStopProperties();
+    }
+
+    /**
+     * Settings for stopping a run once new questions become rare
+     */
+    @Data
+    public static class AutoStopProperties {
+        // Whether the yield-based stop policy is active
+        private boolean enabled = false;
+
+        // Number of most recent iterations used to estimate the discovery rate
+        private int windowSize = 20;
+
+        // Stop when fewer new questions than this are expected per iteration
+        private double minNewQuestionsPerIteration = 0.5;
+
+        // Stop when estimated coverage reaches this fraction (0 disables the check)
+        private double targetCoverage = 0.0;
     }
     
     /**
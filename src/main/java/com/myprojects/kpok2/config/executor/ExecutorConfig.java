@@ -0,0 +1,49 @@
+package com.myprojects.kpok2.config.executor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One executor per workload, so a burst of one kind of work cannot starve the others.
+ * Inject them with {@code @Qualifier} and the constants below.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String PARSING_EXECUTOR = "parsingExecutor";
+    public static final String PERSISTENCE_EXECUTOR = "persistenceExecutor";
+    public static final String FETCHING_EXECUTOR = "fetchingExecutor";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+    public static final String BACKFILL_EXECUTOR = "backfillExecutor";
+    public static final String NAVIGATION_EXECUTOR = "navigationExecutor";
+
+    @Bean(name = PARSING_EXECUTOR, destroyMethod = "drain")
+    public InstrumentedExecutor parsingExecutor(ExecutorProperties properties) {
+        return new InstrumentedExecutor("ParseWorker", properties.getParsing());
+    }
+
+    @Bean(name = PERSISTENCE_EXECUTOR, destroyMethod = "drain")
+    public InstrumentedExecutor persistenceExecutor(ExecutorProperties properties) {
+        return new InstrumentedExecutor("Persistence", properties.getPersistence());
+    }
+
+    @Bean(name = FETCHING_EXECUTOR, destroyMethod = "drain")
+    public InstrumentedExecutor fetchingExecutor(ExecutorProperties properties) {
+        return new InstrumentedExecutor("Fetcher", properties.getFetching());
+    }
+
+    @Bean(name = STREAMING_EXECUTOR, destroyMethod = "drain")
+    public InstrumentedExecutor streamingExecutor(ExecutorProperties properties) {
+        return new InstrumentedExecutor("StreamSender", properties.getStreaming());
+    }
+
+    @Bean(name = BACKFILL_EXECUTOR, destroyMethod = "drain")
+    public InstrumentedExecutor backfillExecutor(ExecutorProperties properties) {
+        return new InstrumentedExecutor("BackfillSaver", properties.getBackfill());
+    }
+
+    @Bean(name = NAVIGATION_EXECUTOR, destroyMethod = "drain")
+    public InstrumentedExecutor navigationExecutor(ExecutorProperties properties) {
+        return new InstrumentedExecutor("NavigationControl", properties.getNavigation());
+    }
+}
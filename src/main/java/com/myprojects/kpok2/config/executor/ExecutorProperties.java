@@ -0,0 +1,88 @@
+package com.myprojects.kpok2.config.executor;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the thread pools for background work, one per kind of workload
+ */
+@Component
+@ConfigurationProperties(prefix = "app.executor")
+@Data
+public class ExecutorProperties {
+
+    /**
+     * Parse job workers; each worker holds a browser session, so this bounds parallel browsers.
+     * Jobs are submitted from HTTP request threads, so a full queue rejects the job instead of blocking
+     */
+    private PoolProperties parsing = new PoolProperties(2, 2, 100, Backpressure.REJECT, 10);
+
+    /**
+     * Database work that runs off the calling thread
+     */
+    private PoolProperties persistence = new PoolProperties(1, 2, 1000, Backpressure.CALLER_RUNS, 30);
+
+    /**
+     * Network calls other than browser sessions: the update check started by the main window
+     */
+    private PoolProperties fetching = new PoolProperties(1, 1, 10, Backpressure.CALLER_RUNS, 5);
+
+    /**
+     * Writes to Server-Sent Events clients, so a slow client holds up only one sender thread
+     */
+    private PoolProperties streaming = new PoolProperties(1, 4, 200, Backpressure.CALLER_RUNS, 2);
+
+    /**
+     * Batches of backfilled questions; a full queue makes the page parsers wait, so a backfill
+     * cannot fill the persistence queue or hold more parsed batches than it can save
+     */
+    private PoolProperties backfill = new PoolProperties(1, 2, 4, Backpressure.BLOCK, 30);
+
+    /**
+     * Watching and stopping crawls started from the UI; a stop waits up to 30 s for the navigation
+     * workers, so it must not hold a thread that other work needs. Two core threads, because the
+     * watcher of a running crawl keeps one
+     */
+    private PoolProperties navigation = new PoolProperties(2, 2, 10, Backpressure.CALLER_RUNS, 30);
+
+    /**
+     * What a submitting thread experiences when the pool and its queue are full
+     */
+    public enum Backpressure {
+        // Wait until the queue has room
+        BLOCK,
+        // Run the task on the submitting thread
+        CALLER_RUNS,
+        // Refuse the task with a RejectedExecutionException, so the submitter can report that it is busy
+        REJECT
+    }
+
+    @Data
+    public static class PoolProperties {
+        private int coreSize;
+        private int maxSize;
+
+        // Tasks waiting for a thread; the pool grows beyond the core size only when the queue is full
+        private int queueCapacity;
+
+        private Backpressure backpressure;
+
+        // How long running and queued tasks may take to finish on shutdown before they are interrupted
+        private int awaitTerminationSeconds;
+
+        private int keepAliveSeconds = 60;
+
+        public PoolProperties() {
+        }
+
+        PoolProperties(int coreSize, int maxSize, int queueCapacity, Backpressure backpressure,
+                       int awaitTerminationSeconds) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.backpressure = backpressure;
+            this.awaitTerminationSeconds = awaitTerminationSeconds;
+        }
+    }
+}
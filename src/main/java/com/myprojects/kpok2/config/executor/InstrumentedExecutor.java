@@ -0,0 +1,188 @@
+package com.myprojects.kpok2.config.executor;
+
+import com.myprojects.kpok2.config.executor.ExecutorProperties.Backpressure;
+import com.myprojects.kpok2.config.executor.ExecutorProperties.PoolProperties;
+import com.myprojects.kpok2.model.dto.ExecutorStatsDto;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread pool with bounded queue and configurable backpressure, which records
+ * how long tasks wait in the queue and run, and drains gracefully on shutdown
+ */
+@Slf4j
+public class InstrumentedExecutor extends ThreadPoolExecutor {
+
+    @Getter
+    private final String name;
+    private final int queueCapacity;
+    private final int awaitTerminationSeconds;
+
+    private final LongAdder backpressureEvents = new LongAdder();
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final Latency queueWait = new Latency();
+    private final Latency runTime = new Latency();
+
+    public InstrumentedExecutor(String name, PoolProperties properties) {
+        super(Math.max(1, properties.getCoreSize()),
+                Math.max(Math.max(1, properties.getCoreSize()), properties.getMaxSize()),
+                properties.getKeepAliveSeconds(), TimeUnit.SECONDS,
+                createQueue(properties.getQueueCapacity()),
+                new NamedThreadFactory(name));
+        this.name = name;
+        this.queueCapacity = Math.max(0, properties.getQueueCapacity());
+        this.awaitTerminationSeconds = properties.getAwaitTerminationSeconds();
+        setRejectedExecutionHandler(new BackpressureHandler(properties.getBackpressure()));
+    }
+
+    private static BlockingQueue<Runnable> createQueue(int capacity) {
+        return capacity > 0 ? new LinkedBlockingQueue<>(capacity) : new SynchronousQueue<>();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command));
+    }
+
+    /**
+     * Stop accepting tasks, let running and queued tasks finish within the configured time,
+     * then interrupt whatever is left
+     */
+    public void drain() {
+        shutdown();
+        try {
+            if (!awaitTermination(awaitTerminationSeconds, TimeUnit.SECONDS)) {
+                List<Runnable> dropped = shutdownNow();
+                log.warn("Executor {} did not drain within {}s; interrupted running tasks and dropped {} queued tasks",
+                        name, awaitTerminationSeconds, dropped.size());
+            } else {
+                log.info("Executor {} drained", name);
+            }
+        } catch (InterruptedException e) {
+            shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public ExecutorStatsDto getStats() {
+        return ExecutorStatsDto.builder()
+                .name(name)
+                .poolSize(getPoolSize())
+                .activeThreads(getActiveCount())
+                .queueDepth(getQueue().size())
+                .queueCapacity(queueCapacity)
+                .completedTasks(getCompletedTaskCount())
+                .backpressureEvents(backpressureEvents.sum())
+                .rejectedTasks(rejectedTasks.sum())
+                .averageQueueWaitMs(queueWait.averageMs())
+                .maxQueueWaitMs(queueWait.maxMs())
+                .averageRunMs(runTime.averageMs())
+                .maxRunMs(runTime.maxMs())
+                .build();
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable task;
+        private final long submittedAt = System.nanoTime();
+
+        private TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            queueWait.record(startedAt - submittedAt);
+            try {
+                task.run();
+            } finally {
+                runTime.record(System.nanoTime() - startedAt);
+            }
+        }
+    }
+
+    /**
+     * Applies the configured backpressure when all threads are busy and the queue is full.
+     * Tasks are rejected when the executor is shutting down or its backpressure is REJECT.
+     */
+    private final class BackpressureHandler implements RejectedExecutionHandler {
+        private final Backpressure backpressure;
+
+        private BackpressureHandler(Backpressure backpressure) {
+            this.backpressure = backpressure != null ? backpressure : Backpressure.CALLER_RUNS;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                rejectedTasks.increment();
+                throw new RejectedExecutionException("Executor " + name + " is shutting down");
+            }
+            if (backpressure == Backpressure.REJECT) {
+                rejectedTasks.increment();
+                throw new RejectedExecutionException("Executor " + name + " is full");
+            }
+            backpressureEvents.increment();
+            if (backpressure == Backpressure.CALLER_RUNS) {
+                task.run();
+                return;
+            }
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedTasks.increment();
+                throw new RejectedExecutionException("Interrupted while waiting for room in executor " + name, e);
+            }
+        }
+    }
+
+    private static final class Latency {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        double averageMs() {
+            long samples = count.sum();
+            return samples == 0 ? 0.0 : totalNanos.sum() / (samples * 1_000_000.0);
+        }
+
+        double maxMs() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+
+    private static final class NamedThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.myprojects.kpok2.config.logging;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
+import com.myprojects.kpok2.Kpok2Application;
 import com.myprojects.kpok2.controller.LogConfigController;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
@@ -13,6 +17,7 @@ import java.util.prefs.Preferences;
 /**
  * Configuration for setting up UI logging appender programmatically
  */
+@ConditionalOnProperty(name = Kpok2Application.UI_ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
 @Configuration
 public class LoggingConfig {
     
@@ -20,6 +25,14 @@ public class LoggingConfig {
     private static final String PREF_CLEAR_ON_STARTUP = "clear_logs_on_startup";
     private UiLogAppender uiLogAppender;
     
+    /**
+     * Ring buffer of the most recent log lines shown in the main window
+     */
+    @Bean
+    public UiLogBuffer uiLogBuffer(@Value("${app.ui.log.buffer-size:20000}") int bufferSize) {
+        return new UiLogBuffer(bufferSize);
+    }
+    
     /**
      * Configure and attach the UI log appender after Spring context is initialized
      */
@@ -35,7 +48,7 @@ public class LoggingConfig {
         Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
         
         // Create and configure the UI log appender
-        uiLogAppender = new UiLogAppender();
+        uiLogAppender = new UiLogAppender(event.getApplicationContext().getBean(UiLogBuffer.class));
         uiLogAppender.setContext(loggerContext);
         uiLogAppender.setName("uiLogAppender");
         
@@ -3,29 +3,26 @@ package com.myprojects.kpok2.config.logging;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.AppenderBase;
-import com.myprojects.kpok2.controller.MainWindowController;
 
 /**
- * Logback appender that redirects logs to JavaFX UI
+ * Logback appender that captures logs for the JavaFX UI. It only stores the event in a
+ * lock-free ring buffer; the main window drains the buffer in batches at a fixed frame
+ * rate, so logging threads never post to the FX thread.
  */
 public class UiLogAppender extends AppenderBase<ILoggingEvent> {
     
-    private static MainWindowController mainWindowController;
-    private static Level minimumLevel = Level.INFO; // Default to INFO level
+    private static volatile Level minimumLevel = Level.INFO; // Default to INFO level
     
-    /**
-     * Set the MainWindowController instance for log redirection
-     * 
-     * @param controller the MainWindowController instance
-     */
-    public static void setMainWindowController(MainWindowController controller) {
-        mainWindowController = controller;
+    private final UiLogBuffer buffer;
+    
+    public UiLogAppender(UiLogBuffer buffer) {
+        this.buffer = buffer;
     }
     
     /**
-     * Set the minimum level of logs to display in UI
+     * Set the minimum level of logs to capture for the UI
      * 
-     * @param level the minimum log level to display
+     * @param level the minimum log level to capture
      */
     public static void setMinimumLevel(Level level) {
         minimumLevel = level;
@@ -47,36 +44,8 @@ public class UiLogAppender extends AppenderBase<ILoggingEvent> {
             return;
         }
         
-        if (mainWindowController != null) {
-            String formattedMessage = formatLogMessage(event);
-            mainWindowController.appendLog(formattedMessage);
-        }
-    }
-    
-    /**
-     * Format the log message with level, logger name, and message
-     * 
-     * @param event the logging event
-     * @return formatted log message
-     */
-    private String formatLogMessage(ILoggingEvent event) {
-        StringBuilder sb = new StringBuilder();
-        
-        // Add log level
-        sb.append('[').append(event.getLevel()).append(']');
-        
-        // Add logger name (simplified)
         String loggerName = event.getLoggerName();
-        if (loggerName != null && !loggerName.isEmpty()) {
-            String simpleName = loggerName.substring(loggerName.lastIndexOf('.') + 1);
-            sb.append(' ').append(simpleName).append(": ");
-        } else {
-            sb.append(' ');
-        }
-        
-        // Add message
-        sb.append(event.getFormattedMessage());
-        
-        return sb.toString();
+        buffer.add(new UiLogEntry(event.getTimeStamp(), event.getLevel(),
+                loggerName != null ? loggerName : "", event.getFormattedMessage()));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.myprojects.kpok2.config.logging;
+
+import com.myprojects.kpok2.util.SessionHistoryBuffer;
+
+/**
+ * Lock-free ring of the most recent log lines for the UI. Logging threads add lines; the UI
+ * reads the lines added since its last read with {@link #readSince} in one batch per frame.
+ */
+public class UiLogBuffer extends SessionHistoryBuffer<UiLogEntry> {
+
+    public UiLogBuffer(int capacity) {
+        super(capacity);
+    }
+}
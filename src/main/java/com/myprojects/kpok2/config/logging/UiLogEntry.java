@@ -0,0 +1,27 @@
+package com.myprojects.kpok2.config.logging;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * One captured log line for the UI; formatted only when it is displayed or saved
+ */
+public record UiLogEntry(long timestamp, Level level, String loggerName, String message) {
+
+    public String simpleLoggerName() {
+        return loggerName.substring(loggerName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Line as shown in the UI, e.g. {@code [INFO] NavigationService: Iteration completed}
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder(message.length() + 40);
+        sb.append('[').append(level).append(']');
+        if (!loggerName.isEmpty()) {
+            sb.append(' ').append(simpleLoggerName()).append(": ");
+        } else {
+            sb.append(' ');
+        }
+        return sb.append(message).toString();
+    }
+}
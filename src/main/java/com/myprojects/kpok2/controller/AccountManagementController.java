@@ -1,10 +1,13 @@
 package com.myprojects.kpok2.controller;
 
+import com.myprojects.kpok2.Kpok2Application;
 import com.myprojects.kpok2.service.AccountConfigurationService;
 import com.myprojects.kpok2.service.AccountConfigurationService.AccountDTO;
 import com.myprojects.kpok2.service.navigation.AccountManager;
 import com.myprojects.kpok2.service.navigation.NavigationSessionFactory;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -19,6 +22,7 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Callback;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
@@ -31,6 +35,7 @@ import java.util.ResourceBundle;
  * Controller for the account management screen
  */
 @Slf4j
+@ConditionalOnProperty(name = Kpok2Application.UI_ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
 @Component
 public class AccountManagementController implements Initializable {
 
@@ -55,6 +60,9 @@ public class AccountManagementController implements Initializable {
     @FXML
     private Button addAccountButton;
     
+    // Table model; reloaded from the account service after every change
+    private final ObservableList<AccountDTO> accountItems = FXCollections.observableArrayList();
+    
     private final AccountConfigurationService accountService;
     private final ApplicationContext applicationContext;
     private final NavigationSessionFactory navigationSessionFactory;
@@ -206,7 +214,8 @@ public class AccountManagementController implements Initializable {
      * Bind table data to the accounts list
      */
     private void bindTableData() {
-        accountsTable.setItems(accountService.getAccounts());
+        accountItems.setAll(accountService.getAccounts());
+        accountsTable.setItems(accountItems);
         
         // Enabled column no longer has editable cells
         // Editing must now happen through the Edit dialog
@@ -297,6 +306,7 @@ public class AccountManagementController implements Initializable {
      */
     private void refreshAccountPool() {
         log.info("Refreshing account pool after account changes");
+        accountItems.setAll(accountService.getAccounts());
         
         // Clear existing account pool
         accountManager.clearAccounts();
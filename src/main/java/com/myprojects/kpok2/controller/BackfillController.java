@@ -0,0 +1,61 @@
+package com.myprojects.kpok2.controller;
+
+import com.myprojects.kpok2.model.dto.BackfillStatusDto;
+import com.myprojects.kpok2.service.backfill.HtmlBackfillService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for re-parsing captured review pages
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/backfill")
+public class BackfillController {
+
+    private final HtmlBackfillService backfillService;
+
+    @Autowired
+    public BackfillController(HtmlBackfillService backfillService) {
+        this.backfillService = backfillService;
+    }
+
+    @GetMapping
+    public ResponseEntity<BackfillStatusDto> getStatus() {
+        return backfillService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Start re-parsing a directory or zip archive of pages, by default the debug HTML directory
+     */
+    @PostMapping("/start")
+    public ResponseEntity<BackfillStatusDto> start(@RequestParam(required = false) String path) {
+        return ResponseEntity.accepted().body(backfillService.start(path));
+    }
+
+    @PostMapping("/cancel")
+    public ResponseEntity<BackfillStatusDto> cancel() {
+        return ResponseEntity.ok(backfillService.cancel());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleIllegalState(IllegalStateException e) {
+        log.warn("Backfill request failed: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
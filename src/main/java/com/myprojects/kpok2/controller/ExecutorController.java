@@ -0,0 +1,33 @@
+package com.myprojects.kpok2.controller;
+
+import com.myprojects.kpok2.config.executor.InstrumentedExecutor;
+import com.myprojects.kpok2.model.dto.ExecutorStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for the load of the background executors
+ */
+@RestController
+@RequestMapping("/api/executors")
+public class ExecutorController {
+
+    private final List<InstrumentedExecutor> executors;
+
+    @Autowired
+    public ExecutorController(List<InstrumentedExecutor> executors) {
+        this.executors = executors;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ExecutorStatsDto>> getExecutorStats() {
+        return ResponseEntity.ok(executors.stream()
+                .map(InstrumentedExecutor::getStats)
+                .toList());
+    }
+}
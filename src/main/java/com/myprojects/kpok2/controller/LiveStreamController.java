@@ -0,0 +1,33 @@
+package com.myprojects.kpok2.controller;
+
+import com.myprojects.kpok2.service.stream.LiveUpdateBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller for the Server-Sent Events stream of live statistics and new questions
+ */
+@RestController
+@RequestMapping("/api/stream")
+public class LiveStreamController {
+
+    private final LiveUpdateBroadcaster broadcaster;
+
+    @Autowired
+    public LiveStreamController(LiveUpdateBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        return broadcaster.connect()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
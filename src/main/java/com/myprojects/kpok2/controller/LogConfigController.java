@@ -1,6 +1,7 @@
 package com.myprojects.kpok2.controller;
 
 import ch.qos.logback.classic.Level;
+import com.myprojects.kpok2.Kpok2Application;
 import com.myprojects.kpok2.config.logging.UiLogAppender;
 import com.myprojects.kpok2.service.LogConfigService;
 import javafx.fxml.FXML;
@@ -12,6 +13,7 @@ import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import javafx.application.Platform;
 import javafx.scene.control.ToggleGroup;
@@ -26,6 +28,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.prefs.Preferences;
 
+@ConditionalOnProperty(name = Kpok2Application.UI_ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
 @Component
 public class LogConfigController {
 
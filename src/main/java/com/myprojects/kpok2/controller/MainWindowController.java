@@ -1,28 +1,42 @@
 package com.myprojects.kpok2.controller;
 
-import com.myprojects.kpok2.config.logging.UiLogAppender;
+import com.myprojects.kpok2.Kpok2Application;
+import ch.qos.logback.classic.Level;
+import com.myprojects.kpok2.config.logging.UiLogBuffer;
+import com.myprojects.kpok2.config.logging.UiLogEntry;
+import com.myprojects.kpok2.model.dto.RecordingStatusDto;
+import com.myprojects.kpok2.service.NewQuestionsExportService;
+import com.myprojects.kpok2.service.metrics.jfr.FlightRecordingService;
 import com.myprojects.kpok2.service.navigation.NavigationManager;
+import com.myprojects.kpok2.service.parser.StopReason;
 import com.myprojects.kpok2.service.parser.TestParsingStatistics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import java.util.stream.Collectors;
 
 import java.io.File;
@@ -31,6 +45,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -40,12 +55,17 @@ import com.myprojects.kpok2.model.TestQuestion;
 import java.util.concurrent.ScheduledFuture;
 import java.util.prefs.Preferences;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.nio.file.Files;
 import com.myprojects.kpok2.util.JsonConverter;
+import com.myprojects.kpok2.service.update.UpdateChecker;
 import javafx.scene.control.CheckBox;
 
+@ConditionalOnProperty(name = Kpok2Application.UI_ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
 @Component
-public class MainWindowController implements TestQuestionService.TestQuestionListener {
+public class MainWindowController {
     
     private static final Logger log = LoggerFactory.getLogger(MainWindowController.class);
     
@@ -64,6 +84,21 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
     @Autowired
     private JsonConverter jsonConverter;
     
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+    
+    @Autowired
+    private UiLogBuffer uiLogBuffer;
+    
+    @Autowired
+    private NewQuestionsExportService newQuestionsExportService;
+    
+    @Autowired
+    private UpdateChecker updateChecker;
+    
+    @Value("${app.update.check-on-startup:true}")
+    private boolean checkForUpdatesOnStartup;
+    
     @FXML
     private Button startStopButton;
     
@@ -74,10 +109,16 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
     private Label iterationLabel;
     
     @FXML
-    private TextArea logsArea;
+    private ListView<UiLogEntry> logsList;
     
     @FXML
-    private TextArea newTestsArea;
+    private ComboBox<String> logLevelFilter;
+    
+    @FXML
+    private TextField loggerFilterField;
+    
+    @FXML
+    private ListView<TestQuestion> newTestsList;
     
     @FXML
     private Label statusBarLabel;
@@ -88,6 +129,32 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
     @Value("${ui.window.height}")
     private double windowHeight;
     
+    @Value("${app.ui.log.max-lines:5000}")
+    private int maxLogLines;
+    
+    @Value("${app.ui.log.refresh-interval-ms:100}")
+    private long logRefreshIntervalMs;
+    
+    private static final String LOG_LEVEL_ALL = "ALL";
+    
+    // Drains the log buffer on the FX thread once per frame
+    private Timeline logRefreshTimeline;
+    
+    // Buffer sequence the next drain continues from; only touched on the FX thread
+    private long logReadSequence;
+    
+    // Current level/logger filter; read by the autosave thread when saving logs
+    private volatile Predicate<UiLogEntry> logFilter = entry -> true;
+    
+    @Value("${app.ui.new-tests.max-items:2000}")
+    private int maxNewTests;
+    
+    // Questions committed from this position on are shown in the panel; moved forward when the panel is cleared
+    private volatile int newTestsBaseline;
+    
+    // Position of the next question to load into the panel; only touched on the UI update scheduler
+    private int newTestsShown;
+    
     private static final String PREF_AUTOSAVE_NEW_TESTS_ENABLED = "autosave_new_tests_enabled";
     private static final String PREF_AUTOSAVE_NEW_TESTS_INTERVAL = "autosave_new_tests_interval";
     private static ScheduledFuture<?> newTestsScheduledTask;
@@ -106,29 +173,13 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
         mainWindowController = this;
     }
     
-    @PostConstruct
-    public void init() {
-        testQuestionService.addListener(this);
-    }
-    
-    @PreDestroy
-    public void cleanup() {
-        testQuestionService.removeListener(this);
-    }
-    
-    @Override
-    public void onNewQuestion(TestQuestion question, List<String> answers) {
-        appendNewTest(question.getQuestionText() + "\n" +
-                     "Answer Options:\n" +
-                     answers.stream().map(answer -> "  " + answer).collect(Collectors.joining("\n")) + "\n" +
-                     "Correct Answer: " + question.getCorrectAnswer() + "\n" +
-                     "---\n");
-    }
-    
     @FXML
     public void initialize() {
-        // Register controller with UiLogAppender
-        UiLogAppender.setMainWindowController(this);
+        // Show buffered log lines in the virtualized list
+        setupLogView();
+        
+        // Show questions saved during this run in the virtualized list
+        setupNewTestsView();
         
         // Register with LogConfigController
         LogConfigController.setMainWindowController(this);
@@ -145,6 +196,89 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
         
         // Log application startup
         log.info("Application started");
+        
+        if (checkForUpdatesOnStartup) {
+            checkForUpdates();
+        }
+    }
+    
+    /**
+     * Look for a newer release in the background and mention it in the status bar
+     */
+    private void checkForUpdates() {
+        updateChecker.checkForUpdatesAsync().thenAccept(release -> release.ifPresent(info -> {
+            log.info("Update available: version {} at {}", info.version(), info.releaseUrl());
+            Platform.runLater(() -> statusBarLabel.setText("Update available: version " + info.version()));
+        }));
+    }
+    
+    private void setupLogView() {
+        logsList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(UiLogEntry entry, boolean empty) {
+                super.updateItem(entry, empty);
+                setText(empty || entry == null ? null : entry.format());
+            }
+        });
+        
+        logLevelFilter.getItems().setAll(LOG_LEVEL_ALL, "DEBUG", "INFO", "WARN", "ERROR");
+        logLevelFilter.setValue(LOG_LEVEL_ALL);
+        logLevelFilter.valueProperty().addListener((obs, oldValue, newValue) -> applyLogFilter());
+        loggerFilterField.textProperty().addListener((obs, oldValue, newValue) -> applyLogFilter());
+        
+        applyLogFilter();
+        
+        if (logRefreshTimeline != null) {
+            logRefreshTimeline.stop();
+        }
+        logRefreshTimeline = new Timeline(new KeyFrame(Duration.millis(logRefreshIntervalMs), e -> drainLogs()));
+        logRefreshTimeline.setCycleCount(Animation.INDEFINITE);
+        logRefreshTimeline.play();
+    }
+    
+    /**
+     * Move the lines logged since the last frame into the list in one batch,
+     * dropping the oldest lines above the configured cap
+     */
+    private void drainLogs() {
+        List<UiLogEntry> batch = new ArrayList<>();
+        logReadSequence = uiLogBuffer.readSince(logReadSequence, logFilter, batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        ObservableList<UiLogEntry> items = logsList.getItems();
+        if (batch.size() >= maxLogLines) {
+            items.setAll(batch.subList(batch.size() - maxLogLines, batch.size()));
+        } else {
+            int overflow = items.size() + batch.size() - maxLogLines;
+            if (overflow > 0) {
+                items.remove(0, overflow);
+            }
+            items.addAll(batch);
+        }
+        logsList.scrollTo(items.size() - 1); // Auto-scroll to bottom
+    }
+    
+    /**
+     * Rebuild the list from the buffer using the level and logger selected in the filter bar
+     */
+    private void applyLogFilter() {
+        String levelName = logLevelFilter.getValue();
+        Level minLevel = levelName == null || LOG_LEVEL_ALL.equals(levelName) ? Level.ALL : Level.toLevel(levelName);
+        String loggerText = loggerFilterField.getText() == null ? "" : loggerFilterField.getText().trim().toLowerCase();
+        
+        logFilter = entry -> entry.level().isGreaterOrEqual(minLevel)
+                && (loggerText.isEmpty() || entry.loggerName().toLowerCase().contains(loggerText));
+        
+        List<UiLogEntry> entries = new ArrayList<>();
+        logReadSequence = uiLogBuffer.readSince(0, logFilter, entries);
+        logsList.getItems().setAll(entries.size() > maxLogLines
+                ? entries.subList(entries.size() - maxLogLines, entries.size())
+                : entries);
+        if (!entries.isEmpty()) {
+            logsList.scrollTo(logsList.getItems().size() - 1);
+        }
     }
     
     private void startUiUpdateScheduler() {
@@ -154,18 +288,76 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
         
         uiUpdateScheduler = Executors.newSingleThreadScheduledExecutor();
         uiUpdateScheduler.scheduleAtFixedRate(this::updateIterationCount, 1, 1, TimeUnit.SECONDS);
+        uiUpdateScheduler.scheduleWithFixedDelay(this::refreshNewTests, 0, 1, TimeUnit.SECONDS);
+    }
+    
+    private void setupNewTestsView() {
+        newTestsList.setCellFactory(list -> new ListCell<>() {
+            {
+                setWrapText(true);
+                setPrefWidth(0); // Wrap to the list width instead of scrolling horizontally
+            }
+            
+            @Override
+            protected void updateItem(TestQuestion question, boolean empty) {
+                super.updateItem(question, empty);
+                setText(empty || question == null ? null : newQuestionsExportService.format(question));
+            }
+        });
+    }
+    
+    /**
+     * Load the questions committed since the last refresh page by page and append them to the panel.
+     * Runs on the UI update scheduler, so database reads stay off the FX thread.
+     */
+    private void refreshNewTests() {
+        try {
+            if (newTestsShown < newTestsBaseline) {
+                newTestsShown = newTestsBaseline;
+            }
+            while (newTestsShown < newQuestionsExportService.getCommittedCount()) {
+                NewQuestionsExportService.Page page = newQuestionsExportService.getPageFrom(newTestsShown);
+                newTestsShown = page.nextPosition();
+                if (!page.questions().isEmpty()) {
+                    Platform.runLater(() -> appendNewTests(page.questions()));
+                }
+            }
+        } catch (Exception e) {
+            // Retried from the same position on the next tick
+            log.warn("Error loading new tests: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Append a page of questions to the panel, dropping the oldest above the configured cap
+     */
+    private void appendNewTests(List<TestQuestion> questions) {
+        ObservableList<TestQuestion> items = newTestsList.getItems();
+        int overflow = items.size() + questions.size() - maxNewTests;
+        if (overflow >= items.size()) {
+            items.setAll(questions.subList(Math.min(overflow - items.size(), questions.size()), questions.size()));
+        } else {
+            if (overflow > 0) {
+                items.remove(0, overflow);
+            }
+            items.addAll(questions);
+        }
+        newTestsList.scrollTo(items.size() - 1); // Auto-scroll to bottom
     }
     
     private void updateIterationCount() {
         int completed = parsingStatistics.getCompletedIterationsCount();
         int total = parsingStatistics.getTotalIterationsNeeded();
+        StopReason stopReason = parsingStatistics.getStopReason();
         
         Platform.runLater(() -> {
-            if (total <= 0) {
-                iterationLabel.setText("Iterations: " + completed + "/∞");
-            } else {
-                iterationLabel.setText("Iterations: " + completed + "/" + total);
+            String text = total <= 0
+                    ? "Iterations: " + completed + "/∞"
+                    : "Iterations: " + completed + "/" + total;
+            if (stopReason != null) {
+                text += " (stopped: " + stopReason.getDescription() + ")";
             }
+            iterationLabel.setText(text);
         });
     }
     
@@ -237,6 +429,11 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
             uiUpdateScheduler = null;
         }
         
+        if (logRefreshTimeline != null) {
+            logRefreshTimeline.stop();
+            logRefreshTimeline = null;
+        }
+        
         Platform.exit();
     }
     
@@ -326,8 +523,9 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
     
     @FXML
     public void onClearLogsClick() {
+        uiLogBuffer.clear();
         Platform.runLater(() -> {
-            logsArea.clear();
+            logsList.getItems().clear();
             log.info("Logs cleared");
         });
     }
@@ -344,7 +542,7 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + 
                     ".txt");
             
-            File file = fileChooser.showSaveDialog(logsArea.getScene().getWindow());
+            File file = fileChooser.showSaveDialog(logsList.getScene().getWindow());
             
             if (file != null) {
                 saveLogsToFile(file);
@@ -354,15 +552,54 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
         }
     }
     
+    @FXML
+    public void onStartRecordingClick() {
+        runRecordingAction(flightRecordingService::start);
+    }
+    
+    @FXML
+    public void onDumpRecordingClick() {
+        runRecordingAction(flightRecordingService::dump);
+    }
+    
+    @FXML
+    public void onStopRecordingClick() {
+        runRecordingAction(flightRecordingService::stop);
+    }
+    
+    /**
+     * Run a flight recording action off the FX thread, since dumping writes the recording to disk,
+     * and show the result in the status bar
+     */
+    private void runRecordingAction(Supplier<RecordingStatusDto> action) {
+        CompletableFuture.supplyAsync(action).whenComplete((status, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                log.warn("Flight recording: {}", cause.getMessage());
+                statusBarLabel.setText(cause.getMessage());
+            } else if (status.isRecording()) {
+                statusBarLabel.setText(status.getLastDumpPath() != null
+                        ? "Flight recording running, dumped to " + status.getLastDumpPath()
+                        : "Flight recording running");
+            } else {
+                statusBarLabel.setText("Flight recording saved to " + status.getLastDumpPath());
+            }
+        }));
+    }
+    
     /**
-     * Save logs to a file
+     * Save the buffered log lines matching the current filter to a file.
+     * Reads the buffer rather than the list, so it is safe to call from the autosave thread.
      * 
      * @param file file to save logs to
      * @return true if saved successfully
      */
     public boolean saveLogsToFile(File file) {
         try (FileWriter fileWriter = new FileWriter(file)) {
-            fileWriter.write(logsArea.getText());
+            for (UiLogEntry entry : uiLogBuffer.snapshot(logFilter)) {
+                fileWriter.write(entry.format());
+                fileWriter.write('\n');
+            }
             log.info("Logs saved to file: {}", file.getAbsolutePath());
             return true;
         } catch (Exception e) {
@@ -372,33 +609,29 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
     }
     
     /**
-     * Clear logs in the UI text area
+     * Clear the log buffer and the log list
      */
     public void clearLogs() {
+        uiLogBuffer.clear();
         Platform.runLater(() -> {
-            logsArea.clear();
+            logsList.getItems().clear();
             log.info("Logs cleared programmatically");
         });
     }
     
-    /**
-     * Append log message to UI text area.
-     * This method is called by UiLogAppender.
-     * 
-     * @param message log message to append
-     */
-    public void appendLog(String message) {
-        Platform.runLater(() -> {
-            logsArea.appendText(message + "\n");
-            logsArea.setScrollTop(Double.MAX_VALUE); // Auto-scroll to bottom
-        });
-    }
-    
     @FXML
     public void onClearNewTestsClick() {
-        Platform.runLater(() -> {
-            newTestsArea.clear();
-            log.info("New tests cleared");
+        if (uiUpdateScheduler == null) {
+            Platform.runLater(() -> newTestsList.getItems().clear());
+            return;
+        }
+        // Ordered with the refresh on the scheduler, so no page queued before the clear reappears
+        uiUpdateScheduler.execute(() -> {
+            newTestsBaseline = newTestsShown;
+            Platform.runLater(() -> {
+                newTestsList.getItems().clear();
+                log.info("New tests cleared");
+            });
         });
     }
     
@@ -414,10 +647,11 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + 
                     ".txt");
             
-            File file = fileChooser.showSaveDialog(newTestsArea.getScene().getWindow());
+            File file = fileChooser.showSaveDialog(newTestsList.getScene().getWindow());
             
             if (file != null) {
-                saveNewTestsToFile(file);
+                boolean numbered = numberTestsCheckBox.isSelected();
+                CompletableFuture.runAsync(() -> saveNewTestsToFile(file, numbered));
             }
         } catch (Exception e) {
             log.error("Error saving new tests: {}", e.getMessage(), e);
@@ -425,30 +659,13 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
     }
     
     /**
-     * Save new tests to a file
+     * Save the questions shown since the panel was last cleared to a file, paging through the database
      */
-    public boolean saveNewTestsToFile(File file) {
+    public boolean saveNewTestsToFile(File file, boolean numbered) {
         try {
-            String content = newTestsArea.getText();
-            if (numberTestsCheckBox.isSelected()) {
-                // Split content by test separator
-                String[] tests = content.split("---\n");
-                StringBuilder numberedContent = new StringBuilder();
-                int testNumber = 1;
-                
-                for (String test : tests) {
-                    if (!test.trim().isEmpty()) {
-                        numberedContent.append(testNumber++).append(". ").append(test.trim()).append("\n---\n");
-                    }
-                }
-                content = numberedContent.toString();
-            }
-            
-            try (FileWriter fileWriter = new FileWriter(file)) {
-                fileWriter.write(content);
-                log.info("New tests saved to file: {}", file.getAbsolutePath());
-                return true;
-            }
+            newQuestionsExportService.writeQuestionsFrom(file, newTestsBaseline, numbered);
+            log.info("New tests saved to file: {}", file.getAbsolutePath());
+            return true;
         } catch (Exception e) {
             log.error("Error saving new tests to file: {}", e.getMessage(), e);
             return false;
@@ -456,13 +673,16 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
     }
     
     /**
-     * Append new test to UI text area
+     * Append the questions saved since the previous auto-save to the run's auto-save file
      */
-    public void appendNewTest(String testText) {
-        Platform.runLater(() -> {
-            newTestsArea.appendText(testText + "\n");
-            newTestsArea.setScrollTop(Double.MAX_VALUE); // Auto-scroll to bottom
-        });
+    private void autoSaveNewTests() {
+        try {
+            File testFile = newQuestionsExportService.appendSinceLastSave(new File("new_tests"),
+                    numberTestsCheckBox.isSelected());
+            log.info("New tests auto-saved to: {}", testFile.getAbsolutePath());
+        } catch (Exception e) {
+            log.error("Error in new tests auto-save: {}", e.getMessage(), e);
+        }
     }
     
     private String getMessage(String key) {
@@ -488,25 +708,9 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
             scheduler = Executors.newSingleThreadScheduledExecutor();
         }
         
-        // Create new_tests directory if it doesn't exist
-        File dir = new File("new_tests");
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-        
         // Schedule periodic saving
-        newTestsScheduledTask = scheduler.scheduleAtFixedRate(() -> {
-            try {
-                String timestamp = LocalDateTime.now()
-                        .format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-                File testFile = new File("new_tests", "new_tests_" + timestamp + ".txt");
-                
-                saveNewTestsToFile(testFile);
-                log.info("New tests auto-saved to: {}", testFile.getAbsolutePath());
-            } catch (Exception e) {
-                log.error("Error in new tests auto-save: {}", e.getMessage(), e);
-            }
-        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        newTestsScheduledTask = scheduler.scheduleAtFixedRate(this::autoSaveNewTests,
+                intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
     }
     
     /**
@@ -527,25 +731,9 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
                 scheduler = Executors.newSingleThreadScheduledExecutor();
             }
             
-            // Create new_tests directory
-            File dir = new File("new_tests");
-            if (!dir.exists()) {
-                dir.mkdirs();
-            }
-            
             // Schedule periodic saving
-            newTestsScheduledTask = scheduler.scheduleAtFixedRate(() -> {
-                try {
-                    String timestamp = LocalDateTime.now()
-                            .format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-                    File testFile = new File("new_tests", "new_tests_" + timestamp + ".txt");
-                    
-                    mainWindowController.saveNewTestsToFile(testFile);
-                    log.info("New tests auto-saved to: {}", testFile.getAbsolutePath());
-                } catch (Exception e) {
-                    log.error("Error in new tests auto-save: {}", e.getMessage(), e);
-                }
-            }, interval, interval, TimeUnit.MINUTES);
+            newTestsScheduledTask = scheduler.scheduleAtFixedRate(mainWindowController::autoSaveNewTests,
+                    interval, interval, TimeUnit.MINUTES);
         }
     }
     
@@ -607,7 +795,7 @@ public class MainWindowController implements TestQuestionService.TestQuestionLis
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + 
                     ".txt");
             
-            File file = fileChooser.showSaveDialog(newTestsArea.getScene().getWindow());
+            File file = fileChooser.showSaveDialog(newTestsList.getScene().getWindow());
             
             if (file != null) {
                 List<TestQuestion> allQuestions = testQuestionService.getAllQuestions();
@@ -0,0 +1,60 @@
+package com.myprojects.kpok2.controller;
+
+import com.myprojects.kpok2.model.dto.RehashStatusDto;
+import com.myprojects.kpok2.service.migration.QuestionRehashMigration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for migrating stored questions to the current normalization and hash rules
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/migration")
+public class MigrationController {
+
+    private final QuestionRehashMigration rehashMigration;
+
+    @Autowired
+    public MigrationController(QuestionRehashMigration rehashMigration) {
+        this.rehashMigration = rehashMigration;
+    }
+
+    @GetMapping("/rehash")
+    public ResponseEntity<RehashStatusDto> getRehashStatus() {
+        return ResponseEntity.ok(rehashMigration.getStatus());
+    }
+
+    @PostMapping("/rehash/start")
+    public ResponseEntity<RehashStatusDto> startRehash() {
+        return ResponseEntity.accepted().body(rehashMigration.start());
+    }
+
+    @PostMapping("/rehash/cancel")
+    public ResponseEntity<RehashStatusDto> cancelRehash() {
+        return ResponseEntity.ok(rehashMigration.cancel());
+    }
+
+    /**
+     * Change the pause between chunks, and the pause used while a crawl is running
+     */
+    @PostMapping("/rehash/throttle")
+    public ResponseEntity<RehashStatusDto> throttleRehash(@RequestParam(required = false) Long delayMs,
+                                                         @RequestParam(required = false) Long crawlDelayMs) {
+        return ResponseEntity.ok(rehashMigration.throttle(delayMs, crawlDelayMs));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleIllegalState(IllegalStateException e) {
+        log.warn("Migration request failed: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -1,5 +1,6 @@
 package com.myprojects.kpok2.controller;
 
+import com.myprojects.kpok2.Kpok2Application;
 import com.myprojects.kpok2.service.AccountConfigurationService;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -9,6 +10,7 @@ import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.control.Tooltip;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -16,6 +18,7 @@ import org.springframework.stereotype.Component;
  * Controller for navigation configuration dialog
  */
 @Slf4j
+@ConditionalOnProperty(name = Kpok2Application.UI_ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
 @Component
 public class NavigationConfigController {
 
@@ -117,9 +120,7 @@ public class NavigationConfigController {
             }
             
             // Save to service
-            accountService.setMaxThreads(maxThreads);
-            accountService.setIterationCount(iterationCount);
-            accountService.setReuseSession(reuseSession);
+            accountService.updateNavigationSettings(maxThreads, iterationCount, reuseSession);
             
             log.info("Navigation settings saved: maxThreads={}, iterationCount={}, reuseSession={}", 
                      maxThreads, iterationCount, reuseSession);
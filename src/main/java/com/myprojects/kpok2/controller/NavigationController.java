@@ -1,6 +1,10 @@
 package com.myprojects.kpok2.controller;
 
+import com.myprojects.kpok2.model.dto.NavigationStatusDto;
 import com.myprojects.kpok2.service.navigation.NavigationService;
+import com.myprojects.kpok2.service.parser.StopReason;
+import com.myprojects.kpok2.service.parser.TestParsingStatistics;
+import com.myprojects.kpok2.service.parser.TestParsingStatistics.StatisticsData;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,10 +24,12 @@ import jakarta.annotation.PreDestroy;
 public class NavigationController {
 
     private final NavigationService navigationService;
+    private final TestParsingStatistics parsingStatistics;
     
     @Autowired
-    public NavigationController(NavigationService navigationService) {
+    public NavigationController(NavigationService navigationService, TestParsingStatistics parsingStatistics) {
         this.navigationService = navigationService;
+        this.parsingStatistics = parsingStatistics;
     }
     
     /**
@@ -61,7 +67,7 @@ public class NavigationController {
         log.info("Received request to stop navigation");
         
         try {
-            navigationService.shutdown();
+            navigationService.shutdown("Stopped by user");
             return ResponseEntity.ok("Navigation processes stopped");
         } catch (Exception e) {
             log.error("Error stopping navigation: {}", e.getMessage(), e);
@@ -72,12 +78,26 @@ public class NavigationController {
     
     /**
      * Check the status of the navigation system.
+     * Includes iteration progress, the current discovery rate and, once the run
+     * has ended on its own, the reason it stopped.
      * 
      * @return Response with system status information
      */
     @GetMapping("/status")
-    public ResponseEntity<String> getStatus() {
-        return ResponseEntity.ok("Navigation system is running");
+    public ResponseEntity<NavigationStatusDto> getStatus() {
+        StatisticsData stats = parsingStatistics.getCurrentStats();
+        StopReason stopReason = stats.getStopReason();
+        
+        return ResponseEntity.ok(NavigationStatusDto.builder()
+                .moreIterationsNeeded(stopReason == null)
+                .completedIterations(stats.getCompletedIterations())
+                .totalIterationsNeeded(stats.getTotalIterationsNeeded())
+                .newQuestions(stats.getNewQuestionsCount())
+                .discoveryRate(stats.getDiscoveryRate())
+                .estimatedCoverage(stats.getEstimatedCoverage())
+                .stopReason(stopReason != null ? stopReason.name() : null)
+                .stopReasonDescription(stopReason != null ? stopReason.getDescription() : null)
+                .build());
     }
     
     /**
@@ -86,6 +106,6 @@ public class NavigationController {
     @PreDestroy
     public void cleanup() {
         log.info("Application shutting down, cleaning up navigation resources");
-        navigationService.shutdown();
+        navigationService.shutdown("Application shut down");
     }
 } 
\ No newline at end of file
@@ -1,14 +1,30 @@
 package com.myprojects.kpok2.controller;
 
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
 import com.myprojects.kpok2.model.TestQuestion;
+import com.myprojects.kpok2.model.dto.NearDuplicateClusterDto;
+import com.myprojects.kpok2.model.dto.NearDuplicateStatusDto;
+import com.myprojects.kpok2.model.dto.ParseJobDto;
+import com.myprojects.kpok2.model.dto.PoolEstimateDto;
+import com.myprojects.kpok2.model.dto.RetryStatsDto;
 import com.myprojects.kpok2.model.dto.TestParsingResultDto;
 import com.myprojects.kpok2.service.TestQuestionService;
+import com.myprojects.kpok2.service.dedup.NearDuplicateService;
+import com.myprojects.kpok2.service.estimation.QuestionPoolEstimator;
+import com.myprojects.kpok2.service.parser.ParseJob;
 import com.myprojects.kpok2.service.parser.TestParser;
+import com.myprojects.kpok2.service.retry.RetryMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
@@ -16,11 +32,42 @@ import java.util.List;
 public class ParserController {
     private final TestParser testParser;
     private final TestQuestionService questionService;
+    private final QuestionPoolEstimator poolEstimator;
+    private final RetryMetrics retryMetrics;
+    private final NearDuplicateService nearDuplicateService;
 
+    /**
+     * Submit test URLs for parsing, either as repeated {@code url} parameters or as a JSON array body
+     */
     @PostMapping("/parse")
-    public ResponseEntity<Void> parseTest(@RequestParam String url) {
-        testParser.parseTest(url);
-        return ResponseEntity.accepted().build();
+    public ResponseEntity<ParseJobDto> parseTests(@RequestParam(name = "url", required = false) List<String> urls,
+                                                  @RequestBody(required = false) List<String> bodyUrls) {
+        List<String> allUrls = new ArrayList<>();
+        if (urls != null) {
+            allUrls.addAll(urls);
+        }
+        if (bodyUrls != null) {
+            allUrls.addAll(bodyUrls);
+        }
+
+        try {
+            ParseJob job = testParser.parseTests(allUrls);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/parse/jobs/" + job.getId()))
+                    .body(job.toDto());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            // Parse workers are all busy and their queue is full
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+    }
+
+    @GetMapping("/parse/jobs/{id}")
+    public ResponseEntity<ParseJobDto> getParseJob(@PathVariable String id) {
+        return testParser.getJob(id)
+                .map(job -> ResponseEntity.ok(job.toDto()))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/parse/results")
@@ -29,6 +76,11 @@ public class ParserController {
         return ResponseEntity.ok(results);
     }
 
+    @GetMapping("/retries")
+    public ResponseEntity<Map<ParsingErrorType, RetryStatsDto>> getRetryStats() {
+        return ResponseEntity.ok(retryMetrics.snapshot());
+    }
+
     @GetMapping("/questions")
     public ResponseEntity<List<TestQuestion>> getAllQuestions() {
         return ResponseEntity.ok(questionService.getAllQuestions());
@@ -38,4 +90,34 @@ public class ParserController {
     public ResponseEntity<List<TestQuestion>> searchQuestions(@RequestParam String query) {
         return ResponseEntity.ok(questionService.searchQuestions(query));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/questions/pool-estimate")
+    public ResponseEntity<PoolEstimateDto> getPoolEstimate(
+            @RequestParam(defaultValue = "" + QuestionPoolEstimator.DEFAULT_TARGET_COVERAGE) double targetCoverage) {
+        if (targetCoverage <= 0 || targetCoverage > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(poolEstimator.getEstimate(targetCoverage));
+    }
+
+    @GetMapping("/questions/near-duplicates")
+    public ResponseEntity<List<NearDuplicateClusterDto>> getNearDuplicates() {
+        return ResponseEntity.ok(nearDuplicateService.getClusters());
+    }
+
+    @GetMapping("/questions/near-duplicates/status")
+    public ResponseEntity<NearDuplicateStatusDto> getNearDuplicateStatus() {
+        return ResponseEntity.ok(nearDuplicateService.getStatus());
+    }
+
+    /**
+     * Re-cluster all stored questions, e.g. after changing the similarity threshold
+     */
+    @PostMapping("/questions/near-duplicates/cluster")
+    public ResponseEntity<NearDuplicateStatusDto> clusterNearDuplicates() {
+        if (!nearDuplicateService.startClustering()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(nearDuplicateService.getStatus());
+        }
+        return ResponseEntity.accepted().body(nearDuplicateService.getStatus());
+    }
+}
@@ -1,9 +1,16 @@
 package com.myprojects.kpok2.controller;
 
+import com.myprojects.kpok2.Kpok2Application;
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
+import com.myprojects.kpok2.model.dto.PoolEstimateDto;
+import com.myprojects.kpok2.service.estimation.QuestionPoolEstimator;
 import com.myprojects.kpok2.service.parser.TestParsingStatistics;
 import com.myprojects.kpok2.service.parser.TestParsingStatistics.ParsingSessionInfo;
+import com.myprojects.kpok2.service.parser.TestParsingStatistics.RateData;
 import com.myprojects.kpok2.service.parser.TestParsingStatistics.StatisticsData;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -11,18 +18,23 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
  * Controller for parsing statistics dialog
  */
 @Slf4j
+@ConditionalOnProperty(name = Kpok2Application.UI_ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
 @Component
 public class ParsingStatisticsController {
 
@@ -44,6 +56,36 @@ public class ParsingStatisticsController {
     @FXML
     private Label sinceLabel;
     
+    @FXML
+    private Label discoveryRateLabel;
+    
+    @FXML
+    private Label coverageLabel;
+    
+    @FXML
+    private Label stopReasonLabel;
+    
+    @FXML
+    private Label newQuestionRateLabel;
+    
+    @FXML
+    private Label pageRateLabel;
+    
+    @FXML
+    private Label iterationRateLabel;
+    
+    @FXML
+    private Label poolSizeLabel;
+    
+    @FXML
+    private Label poolObservedLabel;
+    
+    @FXML
+    private Label poolCoverageLabel;
+    
+    @FXML
+    private Label poolIterationsLabel;
+    
     @FXML
     private TableView<ParsingSessionInfo> sessionTable;
     
@@ -66,15 +108,22 @@ public class ParsingStatisticsController {
     private TableColumn<AccountStat, String> accountNameColumn;
     
     @FXML
-    private TableColumn<AccountStat, Integer> pagesParsedColumn;
+    private TableColumn<AccountStat, Long> pagesParsedColumn;
     
     private final TestParsingStatistics statisticsService;
+    private final QuestionPoolEstimator poolEstimator;
     private Stage stage;
     
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
-    public ParsingStatisticsController(TestParsingStatistics statisticsService) {
+    private final Executor persistenceExecutor;
+    
+    public ParsingStatisticsController(TestParsingStatistics statisticsService,
+                                       QuestionPoolEstimator poolEstimator,
+                                       @Qualifier(ExecutorConfig.PERSISTENCE_EXECUTOR) Executor persistenceExecutor) {
         this.statisticsService = statisticsService;
+        this.poolEstimator = poolEstimator;
+        this.persistenceExecutor = persistenceExecutor;
     }
     
     public void setStage(Stage stage) {
@@ -103,7 +152,7 @@ public class ParsingStatisticsController {
         accountNameColumn.setCellValueFactory(data -> new SimpleStringProperty(
                 data.getValue().getUsername()));
         
-        pagesParsedColumn.setCellValueFactory(data -> new SimpleIntegerProperty(
+        pagesParsedColumn.setCellValueFactory(data -> new SimpleLongProperty(
                 data.getValue().getPagesParsed()).asObject());
         
         refreshData();
@@ -134,18 +183,52 @@ public class ParsingStatisticsController {
         // Update "since" info
         sinceLabel.setText(stats.getSince().format(DATE_TIME_FORMATTER));
         
+        // Update auto-stop info
+        discoveryRateLabel.setText(stats.getDiscoveryRate() != null
+                ? String.format("%.2f", stats.getDiscoveryRate()) : "-");
+        coverageLabel.setText(stats.getEstimatedCoverage() != null
+                ? String.format("%.1f%%", stats.getEstimatedCoverage() * 100) : "-");
+        stopReasonLabel.setText(stats.getStopReason() != null
+                ? stats.getStopReason().getDescription() : "-");
+        
+        // Update rates
+        newQuestionRateLabel.setText(formatRate(stats.getNewQuestionRate()));
+        pageRateLabel.setText(formatRate(stats.getPageRate()));
+        iterationRateLabel.setText(formatRate(stats.getIterationRate()));
+        
+        // Update question pool estimate; the first estimate loads the sightings from the database,
+        // so it is computed in the background and shown when ready
+        CompletableFuture.supplyAsync(poolEstimator::getEstimate, persistenceExecutor)
+                .thenAccept(estimate -> Platform.runLater(() -> showPoolEstimate(estimate)))
+                .exceptionally(e -> {
+                    log.warn("Failed to compute question pool estimate: {}", e.getMessage());
+                    return null;
+                });
+        
         // Update session history table
         List<ParsingSessionInfo> sessionHistory = statisticsService.getSessionHistory();
         sessionTable.setItems(FXCollections.observableArrayList(sessionHistory));
         
         // Update account stats table
         List<AccountStat> accountStats = new ArrayList<>();
-        for (Map.Entry<String, Integer> entry : stats.getAccountsUsed().entrySet()) {
+        for (Map.Entry<String, Long> entry : stats.getAccountsUsed().entrySet()) {
             accountStats.add(new AccountStat(entry.getKey(), entry.getValue()));
         }
         accountTable.setItems(FXCollections.observableArrayList(accountStats));
     }
     
+    private void showPoolEstimate(PoolEstimateDto estimate) {
+        poolSizeLabel.setText(String.format("%.0f", estimate.getEstimatedPoolSize()));
+        poolObservedLabel.setText(String.valueOf(estimate.getObservedQuestions()));
+        poolCoverageLabel.setText(String.format("%.1f%%", estimate.getPoolCoverage() * 100));
+        poolIterationsLabel.setText(estimate.getAdditionalIterationsToTarget() != null
+                ? String.valueOf(estimate.getAdditionalIterationsToTarget()) : "-");
+    }
+    
+    private static String formatRate(RateData rate) {
+        return String.format("%.1f / %.1f / %.1f", rate.getLastMinute(), rate.getLast15Minutes(), rate.getWholeRun());
+    }
+    
     @FXML
     public void onResetClick() {
         // Show confirmation dialog
@@ -179,9 +262,9 @@ public class ParsingStatisticsController {
      */
     private static class AccountStat {
         private final String username;
-        private final int pagesParsed;
+        private final long pagesParsed;
         
-        public AccountStat(String username, int pagesParsed) {
+        public AccountStat(String username, long pagesParsed) {
             this.username = username;
             this.pagesParsed = pagesParsed;
         }
@@ -190,7 +273,7 @@ public class ParsingStatisticsController {
             return username;
         }
         
-        public int getPagesParsed() {
+        public long getPagesParsed() {
             return pagesParsed;
         }
     }
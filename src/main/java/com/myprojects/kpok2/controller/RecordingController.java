@@ -0,0 +1,58 @@
+package com.myprojects.kpok2.controller;
+
+import com.myprojects.kpok2.model.dto.RecordingStatusDto;
+import com.myprojects.kpok2.service.metrics.jfr.FlightRecordingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the Java Flight Recorder recording
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/recording")
+public class RecordingController {
+
+    private final FlightRecordingService recordingService;
+
+    @Autowired
+    public RecordingController(FlightRecordingService recordingService) {
+        this.recordingService = recordingService;
+    }
+
+    @GetMapping
+    public ResponseEntity<RecordingStatusDto> getStatus() {
+        return ResponseEntity.ok(recordingService.getStatus());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<RecordingStatusDto> start() {
+        return ResponseEntity.ok(recordingService.start());
+    }
+
+    /**
+     * Write the data recorded so far to a file without stopping the recording
+     */
+    @PostMapping("/dump")
+    public ResponseEntity<RecordingStatusDto> dump() {
+        return ResponseEntity.ok(recordingService.dump());
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<RecordingStatusDto> stop() {
+        return ResponseEntity.ok(recordingService.stop());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleIllegalState(IllegalStateException e) {
+        log.warn("Flight recording request failed: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,50 @@
+package com.myprojects.kpok2.controller;
+
+import com.myprojects.kpok2.model.IterationRollup.Granularity;
+import com.myprojects.kpok2.model.dto.TrendPointDto;
+import com.myprojects.kpok2.service.statistics.IterationStatisticsSink;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for persisted iteration statistics
+ */
+@RestController
+@RequestMapping("/api/statistics")
+public class StatisticsController {
+
+    private static final int MAX_BUCKETS = 1000;
+
+    private final IterationStatisticsSink statisticsSink;
+
+    @Autowired
+    public StatisticsController(IterationStatisticsSink statisticsSink) {
+        this.statisticsSink = statisticsSink;
+    }
+
+    /**
+     * Iteration totals per minute, hour or day; buckets without iterations are left out
+     * @param granularity MINUTE, HOUR or DAY
+     * @param buckets number of most recent buckets to cover, counting the current one
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<List<TrendPointDto>> getTrends(@RequestParam(defaultValue = "HOUR") String granularity,
+                                                         @RequestParam(defaultValue = "48") int buckets) {
+        Granularity parsedGranularity;
+        try {
+            parsedGranularity = Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (buckets <= 0 || buckets > MAX_BUCKETS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(statisticsSink.getTrend(parsedGranularity, buckets));
+    }
+}
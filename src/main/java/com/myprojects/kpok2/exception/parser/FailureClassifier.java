@@ -0,0 +1,83 @@
+package com.myprojects.kpok2.exception.parser;
+
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Maps exceptions and error pages to {@link ParsingErrorType}
+ */
+public final class FailureClassifier {
+
+    // Status lines such as "502 Bad Gateway" or "HTTP ERROR 503", not any title that contains a number like 500
+    private static final Pattern SERVER_ERROR_TITLE = Pattern.compile(
+            "\\b(?:internal server error|bad gateway|service unavailable|gateway timeout)\\b"
+                    + "|\\b(?:http\\s+)?error\\s+50[0234]\\b"
+                    + "|^\\s*50[0234]\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final List<String> CONNECTION_ERROR_MARKERS = List.of(
+            "net::err_", "err_connection", "err_name_not_resolved", "err_internet_disconnected");
+
+    private FailureClassifier() {
+    }
+
+    /**
+     * Classify an exception thrown by a parsing or navigation step
+     */
+    public static ParsingErrorType classify(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ParsingException parsingException) {
+                return parsingException.getErrorType();
+            }
+            if (cause instanceof org.openqa.selenium.TimeoutException
+                    || cause instanceof java.util.concurrent.TimeoutException
+                    || cause instanceof SocketTimeoutException) {
+                return ParsingErrorType.TIMEOUT_ERROR;
+            }
+            if (cause instanceof NoSuchElementException
+                    || cause instanceof StaleElementReferenceException
+                    || cause instanceof ElementNotInteractableException) {
+                return ParsingErrorType.MISSING_ELEMENT;
+            }
+            if (cause instanceof IOException) {
+                return ParsingErrorType.CONNECTION_ERROR;
+            }
+            if (cause instanceof WebDriverException && containsAny(cause.getMessage(), CONNECTION_ERROR_MARKERS)) {
+                return ParsingErrorType.CONNECTION_ERROR;
+            }
+        }
+        return ParsingErrorType.UNEXPECTED_ERROR;
+    }
+
+    /**
+     * Classify the page the browser ended up on after a step failed
+     * @param currentUrl URL of the current page
+     * @param title title of the current page
+     * @param fallback type to use when the page shows neither a login form nor a server error
+     */
+    public static ParsingErrorType classifyPage(String currentUrl, String title, ParsingErrorType fallback) {
+        if (currentUrl != null && currentUrl.contains("/login/")) {
+            return ParsingErrorType.ACCESS_DENIED;
+        }
+        if (title != null && SERVER_ERROR_TITLE.matcher(title).find()) {
+            return ParsingErrorType.SERVER_ERROR;
+        }
+        return fallback;
+    }
+
+    private static boolean containsAny(String text, List<String> markers) {
+        if (text == null) {
+            return false;
+        }
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        return markers.stream().anyMatch(lowerCase::contains);
+    }
+}
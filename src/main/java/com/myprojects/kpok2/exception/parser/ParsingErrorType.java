@@ -1,18 +1,41 @@
 package com.myprojects.kpok2.exception.parser;
 
+/**
+ * Failure classes of parsing and navigation steps.
+ * {@code retryable} tells whether trying again can help at all, {@code sessionSafe} whether the
+ * browser session is still usable afterwards, so the failed step can be retried in place
+ * instead of starting over from login.
+ */
 public enum ParsingErrorType {
     // Access errors
-    CONNECTION_ERROR,
-    TIMEOUT_ERROR,
-    ACCESS_DENIED,
+    CONNECTION_ERROR(true, true),
+    TIMEOUT_ERROR(true, true),
+    ACCESS_DENIED(true, false),
+    SERVER_ERROR(true, true),
 
     // Structure errors
-    INVALID_PAGE_STRUCTURE,
-    MISSING_ELEMENT,
-    INVALID_CONTENT,
-    NO_QUESTIONS,
+    INVALID_PAGE_STRUCTURE(false, true),
+    MISSING_ELEMENT(true, true),
+    INVALID_CONTENT(false, true),
+    NO_QUESTIONS(true, true),
 
     // General errors
-    UNEXPECTED_ERROR,
-    PROCESSING_ERROR
-}
\ No newline at end of file
+    UNEXPECTED_ERROR(true, false),
+    PROCESSING_ERROR(true, false);
+
+    private final boolean retryable;
+    private final boolean sessionSafe;
+
+    ParsingErrorType(boolean retryable, boolean sessionSafe) {
+        this.retryable = retryable;
+        this.sessionSafe = sessionSafe;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public boolean isSessionSafe() {
+        return sessionSafe;
+    }
+}
@@ -0,0 +1,30 @@
+package com.myprojects.kpok2.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease of a TestCenter account by one node in distributed mode.
+ * An account is free when it has no owner or its lease has expired.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_leases")
+public class AccountLease {
+    @Id
+    private String username;
+
+    private String owner;
+
+    private LocalDateTime leasedUntil;
+
+    private LocalDateTime heartbeatAt;
+}
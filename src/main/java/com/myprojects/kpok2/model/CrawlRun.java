@@ -0,0 +1,29 @@
+package com.myprojects.kpok2.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Iteration target and progress of a run shared by all nodes in distributed mode
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "crawl_runs")
+public class CrawlRun {
+    @Id
+    private String id;
+
+    private Integer iterationTarget;
+
+    private Integer completedIterations;
+
+    private LocalDateTime updatedAt;
+}
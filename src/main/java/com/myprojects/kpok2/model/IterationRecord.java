@@ -0,0 +1,42 @@
+package com.myprojects.kpok2.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one navigation iteration, kept across restarts and statistics resets
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "iteration_records", indexes = @Index(columnList = "startedAt"))
+public class IterationRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String account;
+
+    private LocalDateTime startedAt;
+
+    private long durationMs;
+
+    private int pages;
+
+    private int newQuestions;
+
+    private boolean success;
+
+    // Step the iteration failed in, null for successful iterations
+    private String failureStep;
+
+    // Whether review pages of an interrupted run were harvested instead of starting an attempt
+    private boolean resumed;
+}
@@ -0,0 +1,63 @@
+package com.myprojects.kpok2.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Iteration totals of one minute, hour or day
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "iteration_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucketStart"}))
+public class IterationRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private Granularity granularity;
+
+    private LocalDateTime bucketStart;
+
+    private long iterations;
+
+    private long failedIterations;
+
+    private long pages;
+
+    private long newQuestions;
+
+    private long totalDurationMs;
+
+    private long maxDurationMs;
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime bucketOf(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        public LocalDateTime minus(LocalDateTime time, long buckets) {
+            return time.minus(buckets, unit);
+        }
+    }
+}
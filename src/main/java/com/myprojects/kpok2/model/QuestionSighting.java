@@ -0,0 +1,33 @@
+package com.myprojects.kpok2.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sighting of a question in one test attempt.
+ * Used as capture-recapture data for estimating the size of the question pool.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "question_sightings",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"attemptId", "questionHash"}),
+        indexes = @Index(columnList = "questionHash"))
+public class QuestionSighting {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String attemptId;
+
+    private String questionHash;
+
+    private LocalDateTime sightedAt;
+}
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "test_questions")
+@Table(name = "test_questions", indexes = @Index(columnList = "normalizedText"))
 public class TestQuestion {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +24,7 @@ public class TestQuestion {
     @Column(columnDefinition = "TEXT")
     private String questionText;
 
+    // Indexed: every new question looks up stored variants of its text for answer conflicts
     @Column(columnDefinition = "TEXT")
     private String normalizedText;
 
@@ -38,4 +39,26 @@ public class TestQuestion {
     private String questionHash;
 
     private LocalDateTime parsedAt;
+
+    // Number of times this question was seen, including the first time
+    @Column(columnDefinition = "bigint default 1")
+    private Long seenCount;
+
+    private LocalDateTime firstSeen;
+
+    private LocalDateTime lastSeen;
+
+    // Set when the same normalized text was seen with a different correct answer
+    @Column(columnDefinition = "boolean default false")
+    private Boolean answerConflict;
+
+    // Versions of the normalizer and hash rules the normalized fields and hash were built with
+    @Column(columnDefinition = "integer default 1")
+    private Integer normalizerVersion;
+
+    @Column(columnDefinition = "integer default 1")
+    private Integer hashVersion;
+
+    // Id of the earliest question of the near-duplicate cluster this question belongs to, null if it has none
+    private Long nearDuplicateOf;
 }
\ No newline at end of file
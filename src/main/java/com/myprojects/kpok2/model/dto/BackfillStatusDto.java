@@ -0,0 +1,26 @@
+package com.myprojects.kpok2.model.dto;
+
+import com.myprojects.kpok2.service.backfill.BackfillJob;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BackfillStatusDto {
+    private String id;
+    // Directory or zip archive the pages are read from
+    private String source;
+    private BackfillJob.Status status;
+    private long startedAt;
+    private Long finishedAt;
+    private int totalPages;
+    private long pagesParsed;
+    private long pagesFailed;
+    private long questionsParsed;
+    private long newQuestions;
+    private long failedBatches;
+    // Pages per second over the whole job and over the last minute
+    private double pagesPerSecond;
+    private double pagesPerSecondLastMinute;
+    private String errorMessage;
+}
@@ -0,0 +1,21 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ExecutorStatsDto {
+    private String name;
+    private int poolSize;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completedTasks;
+    private long backpressureEvents;
+    private long rejectedTasks;
+    private double averageQueueWaitMs;
+    private double maxQueueWaitMs;
+    private double averageRunMs;
+    private double maxRunMs;
+}
@@ -0,0 +1,17 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NavigationStatusDto {
+    private boolean moreIterationsNeeded;
+    private int completedIterations;
+    private int totalIterationsNeeded;
+    private long newQuestions;
+    private Double discoveryRate;
+    private Double estimatedCoverage;
+    private String stopReason;
+    private String stopReasonDescription;
+}
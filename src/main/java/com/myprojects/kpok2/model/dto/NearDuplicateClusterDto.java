@@ -0,0 +1,15 @@
+package com.myprojects.kpok2.model.dto;
+
+import com.myprojects.kpok2.model.TestQuestion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class NearDuplicateClusterDto {
+    // Id of the earliest question of the cluster
+    private long clusterId;
+    private List<TestQuestion> questions;
+}
@@ -0,0 +1,20 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NearDuplicateStatusDto {
+    // False until the first clustering pass has built the index
+    private boolean loaded;
+    private boolean clustering;
+    private long indexedQuestions;
+    // Result of the last clustering pass
+    private long clusters;
+    private long nearDuplicates;
+    private long updatedQuestions;
+    private Long lastClusteredAt;
+    private Long lastDurationMs;
+    private String errorMessage;
+}
@@ -0,0 +1,23 @@
+package com.myprojects.kpok2.model.dto;
+
+import com.myprojects.kpok2.service.parser.ParseJob;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ParseJobDto {
+    private String id;
+    private ParseJob.Status status;
+    private long submittedAt;
+    private Long finishedAt;
+    private int totalUrls;
+    private int finishedUrls;
+    private int succeededUrls;
+    private int failedUrls;
+    // Questions parsed beyond the job's limit, which are saved but not included in the results
+    private int omittedQuestions;
+    private List<TestParsingResultDto> results;
+}
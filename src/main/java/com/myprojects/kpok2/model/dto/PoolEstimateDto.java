@@ -0,0 +1,19 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PoolEstimateDto {
+    private long attempts;
+    private long sightings;
+    private long observedQuestions;
+    private long singletons;
+    private long doubletons;
+    private double estimatedPoolSize;
+    private double poolCoverage;
+    private double sampleCoverage;
+    private double targetCoverage;
+    private Long additionalIterationsToTarget;
+}
@@ -0,0 +1,16 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class QuestionEventDto {
+    private Long id;
+    private String questionText;
+    private List<String> answers;
+    private String correctAnswer;
+    private boolean answerConflict;
+}
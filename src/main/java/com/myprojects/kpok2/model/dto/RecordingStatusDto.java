@@ -0,0 +1,17 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RecordingStatusDto {
+    private boolean recording;
+    private String settings;
+    // Epoch millis, 0 when no recording is running
+    private long startedAt;
+    private long durationMs;
+    private long sizeBytes;
+    // File written by the last dump or stop, null before the first one
+    private String lastDumpPath;
+}
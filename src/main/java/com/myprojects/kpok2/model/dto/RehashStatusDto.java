@@ -0,0 +1,30 @@
+package com.myprojects.kpok2.model.dto;
+
+import com.myprojects.kpok2.service.migration.QuestionRehashMigration;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RehashStatusDto {
+    private QuestionRehashMigration.Status status;
+    private int normalizerVersion;
+    private int hashVersion;
+    // Questions built with other versions when the migration started
+    private long staleAtStart;
+    private long processed;
+    // Questions whose hash changed without colliding, and questions merged into another one
+    private long rehashed;
+    private long merged;
+    private long chunks;
+    // Id of the last question processed; the next chunk starts after it
+    private long lastId;
+    private long startedAt;
+    private Long finishedAt;
+    private double questionsPerSecond;
+    // Pause between chunks, and the pause used instead while a crawl is running
+    private long delayMs;
+    private long crawlDelayMs;
+    private boolean throttledByCrawl;
+    private String errorMessage;
+}
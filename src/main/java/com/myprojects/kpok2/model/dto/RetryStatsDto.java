@@ -0,0 +1,13 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RetryStatsDto {
+    private long failures;
+    private long retries;
+    private long recovered;
+    private long exhausted;
+}
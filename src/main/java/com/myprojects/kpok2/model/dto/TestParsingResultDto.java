@@ -6,7 +6,7 @@ import lombok.Builder;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class TestParsingResultDto {
     private String testUrl;
     private ParsingStatus status;
@@ -0,0 +1,18 @@
+package com.myprojects.kpok2.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TrendPointDto {
+    // Start of the minute, hour or day, epoch millis
+    private long bucketStart;
+    private long iterations;
+    private long failedIterations;
+    private long pages;
+    private long newQuestions;
+    private double averageDurationMs;
+    private long maxDurationMs;
+    private double newQuestionsPerIteration;
+}
@@ -0,0 +1,61 @@
+package com.myprojects.kpok2.repository;
+
+import com.myprojects.kpok2.model.AccountLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AccountLeaseRepository extends JpaRepository<AccountLease, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO account_leases (username) VALUES (:username) " +
+            "ON CONFLICT (username) DO NOTHING", nativeQuery = true)
+    int registerAccount(@Param("username") String username);
+
+    /**
+     * Lease the account if it is free. A row locked by another node's lease attempt
+     * is skipped instead of waited for.
+     * @return 1 if this node now holds the lease, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE account_leases SET owner = :owner, leased_until = :leasedUntil, heartbeat_at = :now " +
+            "WHERE username = (SELECT username FROM account_leases " +
+            "    WHERE username = :username AND (owner IS NULL OR leased_until < :now) " +
+            "    FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int tryLease(@Param("username") String username,
+                 @Param("owner") String owner,
+                 @Param("now") LocalDateTime now,
+                 @Param("leasedUntil") LocalDateTime leasedUntil);
+
+    /**
+     * Extend all leases held by the node
+     * @return number of leases extended
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE account_leases SET leased_until = :leasedUntil, heartbeat_at = :now " +
+            "WHERE owner = :owner", nativeQuery = true)
+    int heartbeat(@Param("owner") String owner,
+                  @Param("now") LocalDateTime now,
+                  @Param("leasedUntil") LocalDateTime leasedUntil);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE account_leases SET owner = NULL, leased_until = NULL " +
+            "WHERE username = :username AND owner = :owner", nativeQuery = true)
+    int release(@Param("username") String username, @Param("owner") String owner);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE account_leases SET owner = NULL, leased_until = NULL " +
+            "WHERE owner = :owner", nativeQuery = true)
+    int releaseAll(@Param("owner") String owner);
+}
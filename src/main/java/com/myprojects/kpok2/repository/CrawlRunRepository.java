@@ -0,0 +1,43 @@
+package com.myprojects.kpok2.repository;
+
+import com.myprojects.kpok2.model.CrawlRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CrawlRunRepository extends JpaRepository<CrawlRun, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO crawl_runs (id, iteration_target, completed_iterations, updated_at) " +
+            "VALUES (:id, :target, 0, :now) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("id") String id, @Param("target") int target, @Param("now") LocalDateTime now);
+
+    /**
+     * Start the run over if it already reached its target
+     * @return 1 if the run was reset
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE crawl_runs SET iteration_target = :target, completed_iterations = 0, updated_at = :now " +
+            "WHERE id = :id AND iteration_target > 0 AND completed_iterations >= iteration_target", nativeQuery = true)
+    int resetIfComplete(@Param("id") String id, @Param("target") int target, @Param("now") LocalDateTime now);
+
+    /**
+     * Count one completed iteration in a single statement, so concurrent nodes each see their own count
+     * @return completed iterations including this one, or null if the run does not exist
+     */
+    @Transactional
+    @Query(value = "UPDATE crawl_runs SET completed_iterations = completed_iterations + 1, updated_at = :now " +
+            "WHERE id = :id RETURNING completed_iterations", nativeQuery = true)
+    Integer incrementCompletedIterations(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.completedIterations FROM CrawlRun r WHERE r.id = :id")
+    Integer findCompletedIterations(@Param("id") String id);
+}
@@ -0,0 +1,25 @@
+package com.myprojects.kpok2.repository;
+
+import com.myprojects.kpok2.model.IterationRollup;
+import com.myprojects.kpok2.model.IterationRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IterationRollupRepository extends JpaRepository<IterationRollup, Long> {
+
+    List<IterationRollup> findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStart(
+            Granularity granularity, LocalDateTime from);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IterationRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") Granularity granularity, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,55 @@
+package com.myprojects.kpok2.repository;
+
+import com.myprojects.kpok2.model.QuestionSighting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuestionSightingRepository extends JpaRepository<QuestionSighting, Long> {
+
+    /**
+     * Insert the sightings of one attempt in a single statement, skipping questions already
+     * recorded for the attempt. Hashes are taken from test_questions, so questions saved
+     * earlier in the same transaction are included.
+     * @return hashes of the sightings inserted
+     */
+    @Transactional
+    @Query(value = "INSERT INTO question_sightings (attempt_id, question_hash, sighted_at) " +
+            "SELECT :attemptId, q.question_hash, :sightedAt FROM test_questions q " +
+            "WHERE q.question_hash IN (:questionHashes) " +
+            "ON CONFLICT (attempt_id, question_hash) DO NOTHING RETURNING question_hash", nativeQuery = true)
+    List<String> insertAbsent(@Param("attemptId") String attemptId,
+                              @Param("questionHashes") Collection<String> questionHashes,
+                              @Param("sightedAt") LocalDateTime sightedAt);
+
+    /**
+     * Number of sightings per question hash, as [questionHash, count] rows
+     */
+    @Query("SELECT s.questionHash, COUNT(s) FROM QuestionSighting s GROUP BY s.questionHash")
+    List<Object[]> countSightingsByHash();
+
+    @Query("SELECT DISTINCT s.attemptId FROM QuestionSighting s")
+    List<String> findDistinctAttemptIds();
+
+    /**
+     * Move the sightings of a question to its new hash, dropping those whose attempt
+     * already has a sighting under the new hash
+     * @return number of sightings moved
+     */
+    @Modifying
+    @Query(value = "WITH dropped AS (DELETE FROM question_sightings s WHERE s.question_hash = :oldHash " +
+            "AND EXISTS (SELECT 1 FROM question_sightings t WHERE t.attempt_id = s.attempt_id " +
+            "AND t.question_hash = :newHash)) " +
+            "UPDATE question_sightings u SET question_hash = :newHash WHERE u.question_hash = :oldHash " +
+            "AND NOT EXISTS (SELECT 1 FROM question_sightings t WHERE t.attempt_id = u.attempt_id " +
+            "AND t.question_hash = :newHash)", nativeQuery = true)
+    int rehash(@Param("oldHash") String oldHash, @Param("newHash") String newHash);
+}
@@ -1,11 +1,14 @@
 package com.myprojects.kpok2.repository;
 
 import com.myprojects.kpok2.model.TestQuestion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +17,58 @@ public interface TestQuestionRepository extends JpaRepository<TestQuestion, Long
     boolean existsByQuestionHash(String hash);
     Optional<TestQuestion> findByQuestionHash(String hash);
 
+    boolean existsByNormalizedTextAndNormalizedCorrectAnswerNot(String normalizedText, String normalizedCorrectAnswer);
+
+    @Modifying
+    @Query("UPDATE TestQuestion q SET q.answerConflict = true " +
+            "WHERE q.normalizedText = :normalizedText AND q.normalizedCorrectAnswer <> :normalizedCorrectAnswer")
+    int flagAnswerConflicts(@Param("normalizedText") String normalizedText,
+                            @Param("normalizedCorrectAnswer") String normalizedCorrectAnswer);
+
     @Query("SELECT DISTINCT q FROM TestQuestion q " +
             "WHERE LOWER(q.questionText) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
             "OR LOWER(q.correctAnswer) LIKE LOWER(CONCAT('%', :searchText, '%'))")
     List<TestQuestion> searchByAnyFragment(@Param("searchText") String searchText);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of questions built with other normalizer or hash versions than the given ones
+     */
+    @Query("SELECT q FROM TestQuestion q WHERE q.id > :afterId " +
+            "AND (q.normalizerVersion IS NULL OR q.normalizerVersion <> :normalizerVersion " +
+            "OR q.hashVersion IS NULL OR q.hashVersion <> :hashVersion) ORDER BY q.id")
+    List<TestQuestion> findStaleAfter(@Param("afterId") long afterId,
+                                      @Param("normalizerVersion") int normalizerVersion,
+                                      @Param("hashVersion") int hashVersion,
+                                      Pageable pageable);
+
+    @Query("SELECT COUNT(q) FROM TestQuestion q " +
+            "WHERE q.normalizerVersion IS NULL OR q.normalizerVersion <> :normalizerVersion " +
+            "OR q.hashVersion IS NULL OR q.hashVersion <> :hashVersion")
+    long countStale(@Param("normalizerVersion") int normalizerVersion, @Param("hashVersion") int hashVersion);
+
+    /**
+     * Keyset page of id, normalized text and near-duplicate cluster of questions saved after the given id
+     */
+    @Query("SELECT q.id, q.normalizedText, q.nearDuplicateOf FROM TestQuestion q WHERE q.id > :afterId ORDER BY q.id")
+    List<Object[]> findNormalizedTextsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE TestQuestion q SET q.nearDuplicateOf = :clusterId WHERE q.id IN :ids")
+    int updateNearDuplicateOf(@Param("clusterId") Long clusterId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE TestQuestion q SET q.nearDuplicateOf = :clusterId " +
+            "WHERE q.nearDuplicateOf = :deletedId AND q.id <> :clusterId")
+    int repointNearDuplicateOf(@Param("deletedId") Long deletedId, @Param("clusterId") Long clusterId);
+
+    @Modifying
+    @Query("UPDATE TestQuestion q SET q.nearDuplicateOf = NULL WHERE q.id IN :ids")
+    int clearNearDuplicateOf(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Questions in a near-duplicate cluster, cluster by cluster
+     */
+    @Query("SELECT q FROM TestQuestion q WHERE q.nearDuplicateOf IS NOT NULL " +
+            "OR q.id IN (SELECT d.nearDuplicateOf FROM TestQuestion d) ORDER BY COALESCE(q.nearDuplicateOf, q.id), q.id")
+    List<TestQuestion> findNearDuplicateClusters();
+}
@@ -20,7 +20,12 @@ import java.util.Base64;
 
 /**
  * Utility class for encrypting and decrypting sensitive data
- * Uses AES-GCM encryption with a randomly generated salt and IV for each encryption
+ * Uses AES-GCM encryption with a random IV for each encryption.
+ * <p>
+ * Current values use the versioned envelope {@code v2:<base64(iv | ciphertext)>}, encrypted with a
+ * master key that is derived from the key seed once per process. Legacy values
+ * ({@code base64(salt | iv | ciphertext)}, one PBKDF2 derivation per value) can still be decrypted
+ * and are recognized by {@link #isCurrentFormat(String)} so callers can re-encrypt them.
  */
 @Slf4j
 @Component
@@ -31,13 +36,34 @@ public class PasswordEncryptor {
     private static final int IV_LENGTH_BYTE = 12;
     private static final int SALT_LENGTH_BYTE = 16;
     private static final int KEY_LENGTH_BIT = 256;
+    private static final int PBKDF2_ITERATIONS = 10000;
+    
+    private static final String V2_PREFIX = "v2:";
+    // Fixed salt for the master key; the seed itself is 32 random bytes
+    private static final byte[] MASTER_KEY_SALT = "kpok2-master-key-v2".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] V2_AAD = V2_PREFIX.getBytes(StandardCharsets.UTF_8);
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
     
     private final String keySeed;
+    private volatile SecretKey masterKey;
     
     /**
      * Constructor that initializes or loads the key seed
      */
     public PasswordEncryptor() {
+        this(loadOrCreateKeySeed());
+    }
+    
+    /**
+     * Constructor with a known key seed
+     * @param keySeed Base64 encoded key seed
+     */
+    PasswordEncryptor(String keySeed) {
+        this.keySeed = keySeed;
+    }
+    
+    private static String loadOrCreateKeySeed() {
         // Get the user home directory
         String userHome = System.getProperty("user.home");
         Path keyFilePath = Paths.get(userHome, ".kpok2", "encryption.key");
@@ -55,9 +81,8 @@ public class PasswordEncryptor {
         if (!Files.exists(keyFilePath)) {
             try {
                 // Generate a random key seed
-                SecureRandom random = new SecureRandom();
                 byte[] seed = new byte[32];
-                random.nextBytes(seed);
+                RANDOM.nextBytes(seed);
                 
                 // Encode as Base64 for storage
                 String encodedSeed = Base64.getEncoder().encodeToString(seed);
@@ -66,7 +91,7 @@ public class PasswordEncryptor {
                 Files.write(keyFilePath, encodedSeed.getBytes(StandardCharsets.UTF_8));
                 log.info("Generated new encryption key seed");
                 
-                keySeed = encodedSeed;
+                return encodedSeed;
             } catch (Exception e) {
                 log.error("Failed to create encryption key", e);
                 throw new RuntimeException("Failed to create encryption key", e);
@@ -74,8 +99,9 @@ public class PasswordEncryptor {
         } else {
             try {
                 // Read existing key
-                keySeed = new String(Files.readAllBytes(keyFilePath), StandardCharsets.UTF_8);
+                String seed = new String(Files.readAllBytes(keyFilePath), StandardCharsets.UTF_8);
                 log.info("Loaded existing encryption key seed");
+                return seed;
             } catch (Exception e) {
                 log.error("Failed to load encryption key", e);
                 throw new RuntimeException("Failed to load encryption key", e);
@@ -84,39 +110,27 @@ public class PasswordEncryptor {
     }
     
     /**
-     * Encrypts a password
+     * Encrypts a password in the current envelope format
      * 
      * @param password The password to encrypt
-     * @return Base64 encoded encrypted password
+     * @return "v2:" followed by the Base64 encoded IV and ciphertext
      */
     public String encryptPassword(String password) {
         try {
-            // Generate salt and IV
-            SecureRandom random = new SecureRandom();
-            byte[] salt = new byte[SALT_LENGTH_BYTE];
             byte[] iv = new byte[IV_LENGTH_BYTE];
-            random.nextBytes(salt);
-            random.nextBytes(iv);
-            
-            // Derive key from seed and salt
-            SecretKey key = getKeyFromSeed(salt);
+            RANDOM.nextBytes(iv);
             
-            // Initialize cipher
             Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, key, parameterSpec);
-            
-            // Encrypt
+            cipher.init(Cipher.ENCRYPT_MODE, getMasterKey(), new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+            cipher.updateAAD(V2_AAD);
             byte[] encryptedData = cipher.doFinal(password.getBytes(StandardCharsets.UTF_8));
             
-            // Combine salt, IV, and encrypted data
-            ByteBuffer byteBuffer = ByteBuffer.allocate(salt.length + iv.length + encryptedData.length);
-            byteBuffer.put(salt);
+            // Combine IV and encrypted data
+            ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + encryptedData.length);
             byteBuffer.put(iv);
             byteBuffer.put(encryptedData);
             
-            // Return as Base64 string
-            return Base64.getEncoder().encodeToString(byteBuffer.array());
+            return V2_PREFIX + Base64.getEncoder().encodeToString(byteBuffer.array());
         } catch (Exception e) {
             log.error("Failed to encrypt password", e);
             throw new RuntimeException("Failed to encrypt password", e);
@@ -124,57 +138,122 @@ public class PasswordEncryptor {
     }
     
     /**
-     * Decrypts an encrypted password
+     * Decrypts an encrypted password in either the current or the legacy format
      * 
-     * @param encryptedPassword Base64 encoded encrypted password
+     * @param encryptedPassword value produced by {@link #encryptPassword(String)} or a legacy value
      * @return Decrypted password
      */
     public String decryptPassword(String encryptedPassword) {
         try {
-            // Decode Base64 string
-            byte[] encryptedData = Base64.getDecoder().decode(encryptedPassword);
-            
-            // Extract salt, IV, and encrypted password
-            ByteBuffer byteBuffer = ByteBuffer.wrap(encryptedData);
-            byte[] salt = new byte[SALT_LENGTH_BYTE];
-            byte[] iv = new byte[IV_LENGTH_BYTE];
-            byte[] ciphertext = new byte[encryptedData.length - salt.length - iv.length];
-            
-            byteBuffer.get(salt);
-            byteBuffer.get(iv);
-            byteBuffer.get(ciphertext);
-            
-            // Derive key from seed and salt
-            SecretKey key = getKeyFromSeed(salt);
-            
-            // Initialize cipher
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
-            cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
-            
-            // Decrypt
-            byte[] decryptedData = cipher.doFinal(ciphertext);
-            
-            return new String(decryptedData, StandardCharsets.UTF_8);
+            if (isCurrentFormat(encryptedPassword)) {
+                return decryptV2(encryptedPassword.substring(V2_PREFIX.length()));
+            }
+            return decryptLegacy(encryptedPassword);
         } catch (Exception e) {
             log.error("Failed to decrypt password", e);
             throw new RuntimeException("Failed to decrypt password", e);
         }
     }
     
+    /**
+     * Whether a value is in the current envelope format; legacy values should be re-encrypted
+     */
+    public boolean isCurrentFormat(String encryptedPassword) {
+        return encryptedPassword != null && encryptedPassword.startsWith(V2_PREFIX);
+    }
+    
+    private String decryptV2(String encoded) throws Exception {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+        byte[] iv = new byte[IV_LENGTH_BYTE];
+        byteBuffer.get(iv);
+        byte[] ciphertext = new byte[byteBuffer.remaining()];
+        byteBuffer.get(ciphertext);
+        
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.DECRYPT_MODE, getMasterKey(), new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+        cipher.updateAAD(V2_AAD);
+        return new String(cipher.doFinal(ciphertext), StandardCharsets.UTF_8);
+    }
+    
+    private String decryptLegacy(String encryptedPassword) throws Exception {
+        // Decode Base64 string
+        byte[] encryptedData = Base64.getDecoder().decode(encryptedPassword);
+        
+        // Extract salt, IV, and encrypted password
+        ByteBuffer byteBuffer = ByteBuffer.wrap(encryptedData);
+        byte[] salt = new byte[SALT_LENGTH_BYTE];
+        byte[] iv = new byte[IV_LENGTH_BYTE];
+        byte[] ciphertext = new byte[encryptedData.length - salt.length - iv.length];
+        
+        byteBuffer.get(salt);
+        byteBuffer.get(iv);
+        byteBuffer.get(ciphertext);
+        
+        // Derive key from seed and salt
+        SecretKey key = deriveKey(salt);
+        
+        // Initialize cipher
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        GCMParameterSpec parameterSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
+        cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+        
+        // Decrypt
+        byte[] decryptedData = cipher.doFinal(ciphertext);
+        
+        return new String(decryptedData, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Encrypts a password in the legacy format, with a key derived per value.
+     * Only used to produce legacy values in tests and benchmarks.
+     */
+    String encryptPasswordLegacy(String password) throws Exception {
+        byte[] salt = new byte[SALT_LENGTH_BYTE];
+        byte[] iv = new byte[IV_LENGTH_BYTE];
+        RANDOM.nextBytes(salt);
+        RANDOM.nextBytes(iv);
+        
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.ENCRYPT_MODE, deriveKey(salt), new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+        byte[] encryptedData = cipher.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        
+        ByteBuffer byteBuffer = ByteBuffer.allocate(salt.length + iv.length + encryptedData.length);
+        byteBuffer.put(salt);
+        byteBuffer.put(iv);
+        byteBuffer.put(encryptedData);
+        return Base64.getEncoder().encodeToString(byteBuffer.array());
+    }
+    
+    /**
+     * Master key for the current format, derived on first use
+     */
+    private SecretKey getMasterKey() throws Exception {
+        SecretKey key = masterKey;
+        if (key == null) {
+            synchronized (this) {
+                key = masterKey;
+                if (key == null) {
+                    key = deriveKey(MASTER_KEY_SALT);
+                    masterKey = key;
+                }
+            }
+        }
+        return key;
+    }
+    
     /**
      * Derives a secret key from the key seed and salt
      */
-    private SecretKey getKeyFromSeed(byte[] salt) throws Exception {
+    private SecretKey deriveKey(byte[] salt) throws Exception {
         // Use PBKDF2 to derive a key from the seed
         SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
         KeySpec spec = new PBEKeySpec(
                 keySeed.toCharArray(),
                 salt,
-                10000, // Iteration count
+                PBKDF2_ITERATIONS,
                 KEY_LENGTH_BIT
         );
         SecretKey secretKey = factory.generateSecret(spec);
         return new SecretKeySpec(secretKey.getEncoded(), "AES");
     }
-} 
\ No newline at end of file
+}
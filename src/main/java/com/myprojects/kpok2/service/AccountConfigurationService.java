@@ -3,20 +3,33 @@ package com.myprojects.kpok2.service;
 import com.myprojects.kpok2.config.TestCenterProperties;
 import com.myprojects.kpok2.config.TestCenterProperties.AccountProperties;
 import com.myprojects.kpok2.security.PasswordEncryptor;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service for managing account configurations
@@ -30,7 +43,25 @@ public class AccountConfigurationService {
     private final Properties properties;
     private final Environment environment;
     private final String propertiesPath;
-    private final ObservableList<AccountDTO> accounts = FXCollections.observableArrayList();
+    private final List<AccountDTO> accounts = new CopyOnWriteArrayList<>();
+    // Held by every change of the accounts list, so a check and its change, and a snapshot, see one state
+    private final Object accountsLock = new Object();
+    private final CompletableFuture<Void> accountsLoaded;
+    
+    // Stored form of each (username, password) pair, so unchanged passwords are not re-encrypted on save
+    private final Map<String, String> encryptedPasswords = new ConcurrentHashMap<>();
+    
+    // Changes are written after a short delay so that bursts of edits end up in a single write
+    private static final long SAVE_DELAY_MS = 500;
+    private final ScheduledExecutorService saveScheduler;
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private boolean backupCreated;
+    
+    // Changes to the configuration file made outside the application are picked up by a watcher
+    private static final long CONFIG_SETTLE_MS = 200;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile WatchService configWatchService;
+    private FileTime lastKnownModifiedTime;
     private static final String ACCOUNT_PREFIX = "testcenter.accounts";
     private static final String USERNAME_SUFFIX = ".username";
     private static final String PASSWORD_SUFFIX = ".password";
@@ -47,20 +78,27 @@ public class AccountConfigurationService {
     private static final int DEFAULT_THREAD_TIMEOUT = 2;
     private static final int DEFAULT_ITERATION_COUNT = 10; // Default 10 iterations
     private static final boolean DEFAULT_REUSE_SESSION = false;
+    // Same ranges as the navigation settings dialog offers
+    private static final int MIN_THREADS = 1;
+    private static final int MAX_THREADS = 10;
+    private static final int MIN_ITERATIONS = 1;
+    private static final int MAX_ITERATIONS = 10000;
     
     // Current navigation settings
-    private int maxThreads = DEFAULT_MAX_THREADS;
+    private volatile int maxThreads = DEFAULT_MAX_THREADS;
     private int threadTimeout = DEFAULT_THREAD_TIMEOUT;
-    private int iterationCount = DEFAULT_ITERATION_COUNT;
-    private boolean reuseSession = DEFAULT_REUSE_SESSION;
+    private volatile int iterationCount = DEFAULT_ITERATION_COUNT;
+    private volatile boolean reuseSession = DEFAULT_REUSE_SESSION;
 
     @Autowired
     public AccountConfigurationService(
             PasswordEncryptor passwordEncryptor,
             Environment environment,
+            ApplicationEventPublisher eventPublisher,
             @Value("${spring.config.additional-location:}") String configLocation) {
         this.passwordEncryptor = passwordEncryptor;
         this.environment = environment;
+        this.eventPublisher = eventPublisher;
         this.properties = new Properties();
         
         // Determine the properties file path
@@ -78,9 +116,26 @@ public class AccountConfigurationService {
         }
         
         this.propertiesPath = appConfigPath + "application-local.properties";
+        this.saveScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AccountStoreWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
         
-        // Load accounts
-        loadAccounts();
+        // Load accounts in the background: decrypting every password is slow and
+        // should not hold up startup. Accessors wait until loading has finished.
+        this.accountsLoaded = CompletableFuture.runAsync(this::loadAccounts, runnable -> {
+            Thread thread = new Thread(runnable, "AccountLoader");
+            thread.setDaemon(true);
+            thread.start();
+        }).thenRun(this::startConfigWatcher);
+    }
+    
+    /**
+     * Block until the accounts have been loaded from the configuration file
+     */
+    private void awaitLoaded() {
+        accountsLoaded.join();
     }
 
     /**
@@ -93,6 +148,7 @@ public class AccountConfigurationService {
                 try (FileInputStream fis = new FileInputStream(propsFile)) {
                     properties.load(fis);
                 }
+                lastKnownModifiedTime = Files.getLastModifiedTime(propsFile.toPath());
             } else {
                 // If the file doesn't exist, try to load from the application context
                 // and create the file
@@ -101,10 +157,9 @@ public class AccountConfigurationService {
             }
             
             // Clear accounts and load from properties
-            accounts.clear();
             
             // Find all account indices
-            Set<Integer> indices = new HashSet<>();
+            Set<Integer> indices = new TreeSet<>();
             for (Object key : properties.keySet()) {
                 String keyStr = (String) key;
                 if (keyStr.startsWith(ACCOUNT_PREFIX) && keyStr.contains(USERNAME_SUFFIX)) {
@@ -120,38 +175,55 @@ public class AccountConfigurationService {
                 }
             }
             
-            // Load each account
-            for (Integer index : indices) {
-                String usernameKey = ACCOUNT_PREFIX + "[" + index + "]" + USERNAME_SUFFIX;
-                String passwordKey = ACCOUNT_PREFIX + "[" + index + "]" + PASSWORD_SUFFIX;
-                String enabledKey = ACCOUNT_PREFIX + "[" + index + "]" + ENABLED_SUFFIX;
-                
-                String username = properties.getProperty(usernameKey);
-                String encPassword = properties.getProperty(passwordKey);
-                String enabled = properties.getProperty(enabledKey, "false");
-                
-                if (username != null && encPassword != null) {
-                    // Decrypt password if it's encrypted
-                    String password = decryptPasswordIfNeeded(encPassword);
-                    
-                    AccountDTO account = new AccountDTO(
-                            username,
-                            password,
-                            Boolean.parseBoolean(enabled)
-                    );
-                    accounts.add(account);
-                }
+            // Load each account; decryption is independent per account, so it runs in parallel
+            List<Integer> accountIndices = indices.stream()
+                    .filter(index -> properties.getProperty(ACCOUNT_PREFIX + "[" + index + "]" + USERNAME_SUFFIX) != null
+                            && properties.getProperty(ACCOUNT_PREFIX + "[" + index + "]" + PASSWORD_SUFFIX) != null)
+                    .toList();
+            List<AccountDTO> loadedAccounts = accountIndices.parallelStream()
+                    .map(this::loadAccount)
+                    .toList();
+            synchronized (accountsLock) {
+                accounts.clear();
+                accounts.addAll(loadedAccounts);
             }
             
             // Load navigation settings
             loadNavigationSettings();
             
             log.info("Loaded {} accounts from configuration", accounts.size());
+            
+            // Re-encrypt passwords stored in the legacy format
+            long legacyCount = accountIndices.stream()
+                    .map(index -> properties.getProperty(ACCOUNT_PREFIX + "[" + index + "]" + PASSWORD_SUFFIX))
+                    .filter(this::isLegacyEncrypted)
+                    .count();
+            if (legacyCount > 0) {
+                log.info("Migrating {} passwords to the current encryption format", legacyCount);
+                writeAccounts();
+            }
         } catch (Exception e) {
             log.error("Failed to load accounts", e);
         }
     }
 
+    /**
+     * Load and decrypt the account stored at the given index
+     */
+    private AccountDTO loadAccount(int index) {
+        String storedPassword = properties.getProperty(ACCOUNT_PREFIX + "[" + index + "]" + PASSWORD_SUFFIX);
+        AccountDTO account = new AccountDTO(
+                properties.getProperty(ACCOUNT_PREFIX + "[" + index + "]" + USERNAME_SUFFIX),
+                decryptPasswordIfNeeded(storedPassword),
+                Boolean.parseBoolean(properties.getProperty(ACCOUNT_PREFIX + "[" + index + "]" + ENABLED_SUFFIX, "false")));
+        
+        // Remember the stored value unless it has to be migrated to the current format
+        if (storedPassword != null && storedPassword.startsWith(ENCRYPTED_PREFIX) && !isLegacyEncrypted(storedPassword)) {
+            encryptedPasswords.put(passwordCacheKey(account), storedPassword);
+        }
+        return account;
+    }
+    
     /**
      * Load navigation settings from properties
      */
@@ -164,7 +236,7 @@ public class AccountConfigurationService {
         try {
             String maxThreadsStr = properties.getProperty(maxThreadsKey);
             if (maxThreadsStr != null && !maxThreadsStr.isEmpty()) {
-                maxThreads = Integer.parseInt(maxThreadsStr);
+                maxThreads = clamp(maxThreadsKey, Integer.parseInt(maxThreadsStr), MIN_THREADS, MAX_THREADS);
             } else {
                 maxThreads = DEFAULT_MAX_THREADS;
             }
@@ -178,7 +250,8 @@ public class AccountConfigurationService {
             
             String iterationCountStr = properties.getProperty(iterationCountKey);
             if (iterationCountStr != null && !iterationCountStr.isEmpty()) {
-                iterationCount = Integer.parseInt(iterationCountStr);
+                iterationCount = clamp(iterationCountKey, Integer.parseInt(iterationCountStr),
+                        MIN_ITERATIONS, MAX_ITERATIONS);
             } else {
                 iterationCount = DEFAULT_ITERATION_COUNT;
             }
@@ -202,6 +275,17 @@ public class AccountConfigurationService {
         }
     }
     
+    /**
+     * Bring a setting from the configuration file, which may have been edited by hand, into its valid range
+     */
+    private static int clamp(String key, int value, int min, int max) {
+        int clamped = Math.max(min, Math.min(max, value));
+        if (clamped != value) {
+            log.warn("{}={} is outside {}..{}, using {}", key, value, min, max, clamped);
+        }
+        return clamped;
+    }
+    
     /**
      * Load accounts from Spring environment
      */
@@ -254,12 +338,57 @@ public class AccountConfigurationService {
     }
     
     /**
-     * Save properties to file
+     * Save properties to file immediately, including any change waiting to be written
      */
     public void saveAccounts() {
+        awaitLoaded();
+        savePending.set(false);
+        writeAccounts();
+    }
+    
+    /**
+     * Stop watching the configuration file and write pending changes before the application exits
+     */
+    @PreDestroy
+    public void shutdown() {
+        WatchService watchService = configWatchService;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close configuration watcher: {}", e.getMessage());
+            }
+        }
+        saveScheduler.shutdown();
+        writePendingSave();
+    }
+    
+    /**
+     * Schedule a write of the current state; changes made before it runs are written together
+     */
+    private void scheduleSave() {
+        if (savePending.compareAndSet(false, true)) {
+            saveScheduler.schedule(this::writePendingSave, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void writePendingSave() {
+        if (savePending.compareAndSet(true, false)) {
+            try {
+                writeAccounts();
+            } catch (RuntimeException e) {
+                // Already logged by writeAccounts; the next change schedules another attempt
+            }
+        }
+    }
+    
+    /**
+     * Write accounts and navigation settings to the properties file
+     */
+    private synchronized void writeAccounts() {
         try {
             // Update properties with current accounts
-            updatePropertiesFromAccounts();
+            int accountCount = updatePropertiesFromAccounts();
             
             // Add navigation settings to properties
             properties.setProperty(NAVIGATION_PREFIX + MAX_THREADS_SUFFIX, String.valueOf(maxThreads));
@@ -271,7 +400,7 @@ public class AccountConfigurationService {
             saveProperties();
             
             log.info("Saved {} accounts to configuration with navigation settings: maxThreads={}, threadTimeout={}, iterationCount={}, reuseSession={}", 
-                    accounts.size(), maxThreads, DEFAULT_THREAD_TIMEOUT, iterationCount, reuseSession);
+                    accountCount, maxThreads, DEFAULT_THREAD_TIMEOUT, iterationCount, reuseSession);
         } catch (Exception e) {
             log.error("Failed to save accounts", e);
             throw new RuntimeException("Failed to save accounts", e);
@@ -279,37 +408,49 @@ public class AccountConfigurationService {
     }
     
     /**
-     * Save properties to file with backup
+     * Save properties to file. The file is written to a temporary file first and then moved
+     * over the old one, so a crash never leaves a half-written configuration behind.
+     * The previous file is kept as a backup once per run.
      */
     private void saveProperties() throws IOException {
-        File propsFile = new File(propertiesPath);
-        File backupFile = new File(propertiesPath + ".bak");
+        Path propsFile = Path.of(propertiesPath);
         
-        // Create backup if file exists
-        if (propsFile.exists()) {
-            Files.copy(propsFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        // Create backup of the file as it was before this run changed it
+        if (!backupCreated && Files.exists(propsFile)) {
+            Files.copy(propsFile, Path.of(propertiesPath + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+            backupCreated = true;
         }
         
-        // Write new properties file
-        try (FileOutputStream fos = new FileOutputStream(propsFile)) {
-            properties.store(fos, "TestCenter Configuration - Updated: " + new Date());
+        Path tempFile = Files.createTempFile(propsFile.toAbsolutePath().getParent(), "application-local", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, "TestCenter Configuration - Updated: " + new Date());
+            }
+            try {
+                Files.move(tempFile, propsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, propsFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Remember our own write so the watcher does not treat it as an external edit
+            lastKnownModifiedTime = Files.getLastModifiedTime(propsFile);
         } catch (IOException e) {
             log.error("Failed to save properties", e);
-            
-            // Restore from backup if it exists
-            if (backupFile.exists()) {
-                Files.copy(backupFile.toPath(), propsFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                log.info("Restored properties from backup after save failure");
-            }
-            
             throw e;
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
     }
     
     /**
-     * Update properties from accounts list
+     * Update properties from a snapshot of the accounts list, which the UI may change meanwhile
+     * @return number of accounts written
      */
-    private void updatePropertiesFromAccounts() {
+    private int updatePropertiesFromAccounts() {
+        List<AccountDTO> snapshot;
+        synchronized (accountsLock) {
+            snapshot = List.copyOf(accounts);
+        }
+        
         // Remove all existing account properties
         Iterator<Object> iterator = properties.keySet().iterator();
         while (iterator.hasNext()) {
@@ -319,48 +460,74 @@ public class AccountConfigurationService {
             }
         }
         
-        // Add current accounts
-        for (int i = 0; i < accounts.size(); i++) {
-            AccountDTO account = accounts.get(i);
+        // Add current accounts; only new or changed passwords are encrypted
+        Set<String> currentKeys = new HashSet<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            AccountDTO account = snapshot.get(i);
+            String cacheKey = passwordCacheKey(account);
+            currentKeys.add(cacheKey);
+            String storedPassword = encryptedPasswords.computeIfAbsent(cacheKey,
+                    key -> encryptPassword(account.getPassword()));
             properties.setProperty(ACCOUNT_PREFIX + "[" + i + "]" + USERNAME_SUFFIX, account.getUsername());
-            properties.setProperty(ACCOUNT_PREFIX + "[" + i + "]" + PASSWORD_SUFFIX, encryptPassword(account.getPassword()));
+            properties.setProperty(ACCOUNT_PREFIX + "[" + i + "]" + PASSWORD_SUFFIX, storedPassword);
             properties.setProperty(ACCOUNT_PREFIX + "[" + i + "]" + ENABLED_SUFFIX, String.valueOf(account.isEnabled()));
         }
+        
+        // Forget passwords of removed or edited accounts
+        encryptedPasswords.keySet().retainAll(currentKeys);
+        return snapshot.size();
+    }
+    
+    private static String passwordCacheKey(AccountDTO account) {
+        return account.getUsername() + '\u0000' + account.getPassword();
     }
     
     /**
      * Get the list of accounts
+     * @return read-only view of the accounts; use add/update/remove to change them
      */
-    public ObservableList<AccountDTO> getAccounts() {
-        return accounts;
+    public List<AccountDTO> getAccounts() {
+        awaitLoaded();
+        return Collections.unmodifiableList(accounts);
     }
     
     /**
      * Add a new account
      */
     public void addAccount(AccountDTO account) {
-        accounts.add(account);
-        saveAccounts();
+        awaitLoaded();
+        synchronized (accountsLock) {
+            accounts.add(account);
+        }
+        scheduleSave();
     }
     
     /**
      * Update an existing account
      */
     public void updateAccount(int index, AccountDTO updatedAccount) {
-        if (index >= 0 && index < accounts.size()) {
+        awaitLoaded();
+        synchronized (accountsLock) {
+            if (index < 0 || index >= accounts.size()) {
+                return;
+            }
             accounts.set(index, updatedAccount);
-            saveAccounts();
         }
+        scheduleSave();
     }
     
     /**
      * Remove an account
      */
     public void removeAccount(int index) {
-        if (index >= 0 && index < accounts.size()) {
+        awaitLoaded();
+        synchronized (accountsLock) {
+            if (index < 0 || index >= accounts.size()) {
+                return;
+            }
             accounts.remove(index);
-            saveAccounts();
         }
+        scheduleSave();
     }
     
     /**
@@ -374,6 +541,7 @@ public class AccountConfigurationService {
      * Get the maximum number of navigation threads
      */
     public int getMaxThreads() {
+        awaitLoaded();
         return maxThreads;
     }
     
@@ -381,8 +549,10 @@ public class AccountConfigurationService {
      * Set the maximum number of navigation threads
      */
     public void setMaxThreads(int maxThreads) {
+        awaitLoaded();
         this.maxThreads = maxThreads;
-        saveAccounts();
+        publishNavigationSettings();
+        scheduleSave();
     }
     
     /**
@@ -397,6 +567,7 @@ public class AccountConfigurationService {
      * @return the iteration count
      */
     public int getIterationCount() {
+        awaitLoaded();
         return iterationCount;
     }
     
@@ -405,11 +576,14 @@ public class AccountConfigurationService {
      * @param iterationCount the number of parsing iterations to perform
      */
     public void setIterationCount(int iterationCount) {
+        awaitLoaded();
         if (iterationCount < 1) {
             this.iterationCount = 1;
         } else {
             this.iterationCount = iterationCount;
         }
+        publishNavigationSettings();
+        scheduleSave();
     }
     
     /**
@@ -428,6 +602,15 @@ public class AccountConfigurationService {
         return ENCRYPTED_PREFIX + passwordEncryptor.encryptPassword(password);
     }
     
+    /**
+     * Whether a stored password is encrypted in a format older than the current one
+     */
+    private boolean isLegacyEncrypted(String storedPassword) {
+        return storedPassword != null
+                && storedPassword.startsWith(ENCRYPTED_PREFIX)
+                && !passwordEncryptor.isCurrentFormat(storedPassword.substring(ENCRYPTED_PREFIX.length()));
+    }
+    
     /**
      * Decrypt a password if needed
      */
@@ -454,6 +637,7 @@ public class AccountConfigurationService {
      * @return true if sessions should be reused, false otherwise
      */
     public boolean isReuseSession() {
+        awaitLoaded();
         return reuseSession;
     }
     
@@ -462,8 +646,110 @@ public class AccountConfigurationService {
      * @param reuseSession true to reuse sessions, false otherwise
      */
     public void setReuseSession(boolean reuseSession) {
+        awaitLoaded();
+        this.reuseSession = reuseSession;
+        publishNavigationSettings();
+        scheduleSave();
+    }
+    
+    /**
+     * Set all navigation settings at once, so a running crawl is reconfigured only once
+     * @param maxThreads the number of navigation threads
+     * @param iterationCount the number of parsing iterations to perform
+     * @param reuseSession true to reuse sessions, false otherwise
+     */
+    public void updateNavigationSettings(int maxThreads, int iterationCount, boolean reuseSession) {
+        awaitLoaded();
+        this.maxThreads = maxThreads;
+        this.iterationCount = Math.max(1, iterationCount);
         this.reuseSession = reuseSession;
-        saveAccounts();
+        publishNavigationSettings();
+        scheduleSave();
+    }
+    
+    private void publishNavigationSettings() {
+        eventPublisher.publishEvent(new NavigationSettingsChangedEvent(maxThreads, iterationCount, reuseSession));
+    }
+    
+    /**
+     * Watch the configuration directory for edits of the configuration file made outside the application
+     */
+    private void startConfigWatcher() {
+        Path configFile = Path.of(propertiesPath).toAbsolutePath();
+        try {
+            WatchService watchService = configFile.getFileSystem().newWatchService();
+            configFile.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            configWatchService = watchService;
+            
+            Thread thread = new Thread(() -> watchConfigFile(watchService, configFile), "ConfigWatcher");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Cannot watch {} for changes: {}", configFile, e.getMessage());
+        }
+    }
+    
+    private void watchConfigFile(WatchService watchService, Path configFile) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                
+                // Editors often write a file in several steps; wait for them to finish
+                Thread.sleep(CONFIG_SETTLE_MS);
+                boolean configChanged = key.pollEvents().stream()
+                        .anyMatch(event -> configFile.getFileName().equals(event.context()));
+                if (!key.reset()) {
+                    log.warn("Configuration directory {} is no longer accessible", configFile.getParent());
+                    return;
+                }
+                if (configChanged) {
+                    reloadExternalChanges(configFile);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Application is shutting down
+        }
+    }
+    
+    /**
+     * Apply navigation settings from a configuration file edited outside the application.
+     * Accounts are kept as they are in memory, since they may have changes that are not written yet.
+     */
+    private synchronized void reloadExternalChanges(Path configFile) {
+        try {
+            if (!Files.exists(configFile)) {
+                return;
+            }
+            FileTime modifiedTime = Files.getLastModifiedTime(configFile);
+            if (modifiedTime.equals(lastKnownModifiedTime)) {
+                return;
+            }
+            lastKnownModifiedTime = modifiedTime;
+            
+            Properties reloaded = new Properties();
+            try (InputStream in = Files.newInputStream(configFile)) {
+                reloaded.load(in);
+            }
+            for (String key : reloaded.stringPropertyNames()) {
+                if (!key.startsWith(ACCOUNT_PREFIX)) {
+                    properties.setProperty(key, reloaded.getProperty(key));
+                }
+            }
+            
+            int oldMaxThreads = maxThreads;
+            int oldIterationCount = iterationCount;
+            boolean oldReuseSession = reuseSession;
+            loadNavigationSettings();
+            if (maxThreads != oldMaxThreads || iterationCount != oldIterationCount || reuseSession != oldReuseSession) {
+                log.info("Navigation settings changed in {}", configFile);
+                publishNavigationSettings();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to reload {}: {}", configFile, e.getMessage());
+        }
     }
     
     /**
@@ -22,20 +22,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthenticationService {
 
-    private final WebDriver webDriver;
     private final TestCenterProperties config;
     private final AccountConfigurationService accountService;
 
     /**
      * Attempt to log in to the test center if not already logged in
+     * @param webDriver driver owned by the caller, e.g. taken from the WebDriverFactory pool
      * @return true if login successful or already logged in, false otherwise
      */
-    public boolean login() {
+    public boolean login(WebDriver webDriver) {
         try {
             log.info("Checking authentication status...");
             
             // Check if already logged in before attempting to log in again
-            if (isLoggedIn()) {
+            if (isLoggedIn(webDriver)) {
                 log.info("Already logged in, skipping authentication process");
                 return true;
             }
@@ -47,7 +47,7 @@ public class AuthenticationService {
             WebDriverWait wait = new WebDriverWait(webDriver, Duration.ofSeconds(10));
 
             // Check if we were redirected to a different page (might be already logged in)
-            if (isLoggedIn()) {
+            if (isLoggedIn(webDriver)) {
                 log.info("Redirected to logged-in state after opening login page");
                 return true;
             }
@@ -55,9 +55,9 @@ public class AuthenticationService {
             log.debug("Current URL before login: {}", webDriver.getCurrentUrl());
             
             // Check if login form elements exist before trying to find them
-            if (!areLoginFormElementsPresent()) {
+            if (!areLoginFormElementsPresent(webDriver)) {
                 log.warn("Login form elements not found. Checking if already logged in again...");
-                if (isLoggedIn()) {
+                if (isLoggedIn(webDriver)) {
                     log.info("Already logged in, despite login form not being visible");
                     return true;
                 }
@@ -131,9 +131,10 @@ public class AuthenticationService {
     
     /**
      * Check if the user is currently logged in
+     * @param webDriver driver to check
      * @return true if logged in, false otherwise
      */
-    public boolean isLoggedIn() {
+    public boolean isLoggedIn(WebDriver webDriver) {
         try {
             String currentUrl = webDriver.getCurrentUrl();
             
@@ -170,9 +171,10 @@ public class AuthenticationService {
 
     /**
      * Check if login form elements are present on the page
+     * @param webDriver driver to check
      * @return true if all elements are present, false otherwise
      */
-    private boolean areLoginFormElementsPresent() {
+    private boolean areLoginFormElementsPresent(WebDriver webDriver) {
         try {
             // Use a short implicit wait to avoid long timeouts
             webDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(2));
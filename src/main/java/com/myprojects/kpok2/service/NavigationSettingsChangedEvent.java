@@ -0,0 +1,18 @@
+package com.myprojects.kpok2.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published by {@link AccountConfigurationService} when the navigation settings change,
+ * either through the UI or through an external edit of the configuration file
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class NavigationSettingsChangedEvent {
+    private final int maxThreads;
+    private final int iterationCount;
+    private final boolean reuseSession;
+}
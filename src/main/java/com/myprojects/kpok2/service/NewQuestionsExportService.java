@@ -0,0 +1,172 @@
+package com.myprojects.kpok2.service;
+
+import com.myprojects.kpok2.model.TestQuestion;
+import com.myprojects.kpok2.util.JsonConverter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the questions saved during the current run and writes them to text files. The ids of new
+ * questions are recorded in the order their transactions commit, and readers page through that
+ * list by position, loading each page by id. Ids are assigned on insert rather than on commit, so
+ * paging by id would skip a question whose transaction commits after one with a higher id.
+ * Auto-save appends only the questions saved since the previous save to one file per run; the file
+ * and the position written so far are kept for the run, so every start of the application
+ * begins a new file.
+ */
+@Slf4j
+@Service
+public class NewQuestionsExportService implements TestQuestionService.TestQuestionListener {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private final TestQuestionService testQuestionService;
+    private final JsonConverter jsonConverter;
+    private final int pageSize;
+
+    // Ids of the questions committed during this run, in commit order; guarded by itself
+    private final List<Long> committedIds = new ArrayList<>();
+
+    // Auto-save file of this run and the position written so far, guarded by this
+    private File autoSaveFile;
+    private Cursor autoSaveCursor;
+
+    public NewQuestionsExportService(TestQuestionService testQuestionService,
+                                     JsonConverter jsonConverter,
+                                     @Value("${app.ui.new-tests.page-size:200}") int pageSize) {
+        this.testQuestionService = testQuestionService;
+        this.jsonConverter = jsonConverter;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    @PostConstruct
+    public void init() {
+        testQuestionService.addListener(this);
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        testQuestionService.removeListener(this);
+    }
+
+    @Override
+    public void onNewQuestion(TestQuestion question, List<String> answers) {
+        synchronized (committedIds) {
+            committedIds.add(question.getId());
+        }
+    }
+
+    /**
+     * Number of questions committed during this run; pages can be read from any position below it
+     */
+    public int getCommittedCount() {
+        synchronized (committedIds) {
+            return committedIds.size();
+        }
+    }
+
+    /**
+     * Page of questions committed during this run from the given position on, in commit order.
+     * Questions deleted since, e.g. merged by the rehash migration, are left out.
+     */
+    public Page getPageFrom(int position) {
+        List<Long> ids;
+        synchronized (committedIds) {
+            int from = Math.min(position, committedIds.size());
+            ids = List.copyOf(committedIds.subList(from, Math.min(committedIds.size(), from + pageSize)));
+        }
+        return new Page(testQuestionService.getQuestionsByIds(ids), position + ids.size());
+    }
+
+    /**
+     * Question as written to new tests files and shown in the new tests panel
+     */
+    public String format(TestQuestion question) {
+        List<String> answers = jsonConverter.getAnswersFromJson(question);
+        return question.getQuestionText() + "\n" +
+                "Answer Options:\n" +
+                answers.stream().map(answer -> "  " + answer).collect(Collectors.joining("\n")) + "\n" +
+                "Correct Answer: " + question.getCorrectAnswer();
+    }
+
+    /**
+     * Write every question committed from the given position on to the file, replacing its content
+     * @return number of questions written
+     */
+    public int writeQuestionsFrom(File file, int position, boolean numbered) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            Cursor cursor = writePagesFrom(writer, new Cursor(position, 0), numbered);
+            log.info("Saved {} new questions to file: {}", cursor.count(), file.getAbsolutePath());
+            return (int) cursor.count();
+        }
+    }
+
+    /**
+     * Append the questions saved since the previous auto-save to the run's auto-save file.
+     * A new file is started in the directory when there is none yet or it was deleted.
+     * @return the file written to
+     */
+    public synchronized File appendSinceLastSave(File directory, boolean numbered) throws IOException {
+        File file = autoSaveFile;
+        Cursor cursor = autoSaveCursor;
+        if (file == null || !file.isFile()) {
+            if (!directory.exists()) {
+                directory.mkdirs();
+            }
+            file = new File(directory, "new_tests_" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".txt");
+            cursor = new Cursor(0, 0);
+        }
+
+        Cursor next;
+        try (FileWriter writer = new FileWriter(file, true)) {
+            next = writePagesFrom(writer, cursor, numbered);
+        }
+
+        // Only move the cursor once the records are on disk
+        autoSaveFile = file;
+        autoSaveCursor = next;
+        log.info("Appended {} new questions to file: {}", next.count() - cursor.count(), file.getAbsolutePath());
+        return file;
+    }
+
+    private Cursor writePagesFrom(Writer writer, Cursor cursor, boolean numbered) throws IOException {
+        int position = cursor.position();
+        long count = cursor.count();
+        while (position < getCommittedCount()) {
+            Page page = getPageFrom(position);
+            for (TestQuestion question : page.questions()) {
+                if (numbered) {
+                    writer.write(++count + ". ");
+                } else {
+                    count++;
+                }
+                writer.write(format(question));
+                writer.write("\n---\n");
+            }
+            position = page.nextPosition();
+        }
+        return new Cursor(position, count);
+    }
+
+    /**
+     * Questions of one page and the position the next page starts at
+     */
+    public record Page(List<TestQuestion> questions, int nextPosition) {
+    }
+
+    private record Cursor(int position, long count) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.myprojects.kpok2.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates duplicate sightings of known questions in memory and periodically writes
+ * them back to test_questions as a single UPDATE.
+ * Recording a sighting only touches a striped counter, so the parsing threads never
+ * wait for the database.
+ */
+@Slf4j
+@Component
+public class QuestionSightingCounter {
+
+    private static final String FLUSH_SQL =
+            "UPDATE test_questions AS q " +
+            "SET seen_count = COALESCE(q.seen_count, 1) + d.delta, " +
+            "    last_seen = GREATEST(COALESCE(q.last_seen, q.parsed_at), d.seen_at) " +
+            "FROM unnest(?::text[], ?::bigint[], ?::timestamp[]) AS d(hash, delta, seen_at) " +
+            "WHERE q.question_hash = d.hash";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long flushIntervalSeconds;
+    // One entry per sighted hash, bounded by the size of the question pool
+    private final Map<String, PendingSightings> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushScheduler;
+
+    public QuestionSightingCounter(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.sightings.flush-interval-seconds:10}") long flushIntervalSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushIntervalSeconds = Math.max(1, flushIntervalSeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "SightingFlush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flushSafely,
+                flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+        }
+        flushSafely();
+    }
+
+    /**
+     * Record one more sighting of an already stored question
+     * @param questionHash hash of the sighted question
+     */
+    public void recordSighting(String questionHash) {
+        PendingSightings sightings = pending.computeIfAbsent(questionHash, h -> new PendingSightings());
+        sightings.count.increment();
+        sightings.lastSeenMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Move pending sightings to the new hashes of rehashed questions, which no longer match the old ones.
+     * Synchronized with {@link #flush()}, so no increments are written in between.
+     * @param newHashes new hash by old hash
+     */
+    public synchronized void rehash(Map<String, String> newHashes) {
+        for (Map.Entry<String, String> change : newHashes.entrySet()) {
+            PendingSightings old = pending.remove(change.getKey());
+            if (old == null) {
+                continue;
+            }
+            long delta = old.count.sumThenReset();
+            if (delta > 0) {
+                PendingSightings target = pending.computeIfAbsent(change.getValue(), h -> new PendingSightings());
+                target.count.add(delta);
+                target.lastSeenMillis = Math.max(target.lastSeenMillis, old.lastSeenMillis);
+            }
+        }
+    }
+
+    /**
+     * Write all pending increments to the database
+     * @return number of questions updated
+     */
+    public synchronized int flush() {
+        List<String> hashes = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<Timestamp> seenAt = new ArrayList<>();
+
+        for (Map.Entry<String, PendingSightings> entry : pending.entrySet()) {
+            // sumThenReset keeps increments that race with the flush for the next round
+            long delta = entry.getValue().count.sumThenReset();
+            if (delta > 0) {
+                hashes.add(entry.getKey());
+                deltas.add(delta);
+                seenAt.add(new Timestamp(entry.getValue().lastSeenMillis));
+            }
+        }
+
+        if (hashes.isEmpty()) {
+            return 0;
+        }
+
+        int updated;
+        try {
+            updated = jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(FLUSH_SQL);
+                statement.setArray(1, connection.createArrayOf("text", hashes.toArray()));
+                statement.setArray(2, connection.createArrayOf("bigint", deltas.toArray()));
+                statement.setArray(3, connection.createArrayOf("timestamp", seenAt.toArray()));
+                return statement;
+            });
+        } catch (RuntimeException e) {
+            // Put the increments back so they are retried on the next flush
+            for (int i = 0; i < hashes.size(); i++) {
+                pending.computeIfAbsent(hashes.get(i), h -> new PendingSightings()).count.add(deltas.get(i));
+            }
+            throw e;
+        }
+        log.debug("Flushed sightings of {} questions ({} rows updated)", hashes.size(), updated);
+        return updated;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush question sightings: {}", e.getMessage());
+        }
+    }
+
+    private static class PendingSightings {
+        private final LongAdder count = new LongAdder();
+        private volatile long lastSeenMillis;
+    }
+}
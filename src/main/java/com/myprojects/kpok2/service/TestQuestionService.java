@@ -2,7 +2,10 @@ package com.myprojects.kpok2.service;
 
 import com.myprojects.kpok2.model.TestQuestion;
 import com.myprojects.kpok2.repository.TestQuestionRepository;
+import com.myprojects.kpok2.service.dedup.NearDuplicateService;
+import com.myprojects.kpok2.service.estimation.QuestionPoolEstimator;
 import com.myprojects.kpok2.service.mapper.TestQuestionMapper;
+import com.myprojects.kpok2.service.metrics.jfr.QuestionSaveEvent;
 import com.myprojects.kpok2.model.dto.ParsedTestQuestionDto;
 import com.myprojects.kpok2.service.parser.TestParsingStatistics;
 import com.myprojects.kpok2.util.JsonConverter;
@@ -10,11 +13,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -24,6 +33,9 @@ public class TestQuestionService {
     private final TestQuestionMapper testQuestionMapper;
     private final TestParsingStatistics parsingStatistics;
     private final JsonConverter jsonConverter;
+    private final QuestionPoolEstimator poolEstimator;
+    private final QuestionSightingCounter sightingCounter;
+    private final NearDuplicateService nearDuplicateService;
     
     private final List<TestQuestionListener> listeners = new CopyOnWriteArrayList<>();
     
@@ -41,36 +53,149 @@ public class TestQuestionService {
 
     @Transactional
     public List<TestQuestion> saveUniqueQuestions(List<ParsedTestQuestionDto> questions) {
+        return saveUniqueQuestions(questions, null);
+    }
+
+    /**
+     * Save questions that are not yet in the database and record every question
+     * as sighted in the given attempt for pool estimation.
+     *
+     * @param questions parsed questions of one page
+     * @param attemptId TestCenter attempt the page belongs to, or null if unknown
+     * @return the newly saved questions
+     */
+    @Transactional
+    public List<TestQuestion> saveUniqueQuestions(List<ParsedTestQuestionDto> questions, String attemptId) {
+        QuestionSaveEvent event = QuestionSaveEvent.begin(attemptId, questions.size());
+        try {
+            List<TestQuestion> savedQuestions = saveNewQuestions(questions, attemptId);
+            event.setNewQuestions(savedQuestions.size());
+            return savedQuestions;
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Save re-parsed questions that are not yet in the database. Unlike a crawled page, this
+     * counts no sightings and no crawl statistics, since the pages were already seen when captured.
+     *
+     * @param questions questions parsed from captured pages
+     * @return the newly saved questions
+     */
+    @Transactional
+    public List<TestQuestion> saveBackfilledQuestions(List<ParsedTestQuestionDto> questions) {
+        List<TestQuestion> savedQuestions = insertAbsent(questions, null);
+        log.info("Backfill saved {} new questions out of {} re-parsed", savedQuestions.size(), questions.size());
+        return savedQuestions;
+    }
+
+    private List<TestQuestion> saveNewQuestions(List<ParsedTestQuestionDto> questions, String attemptId) {
+        List<String> sightedHashes = new ArrayList<>(questions.size());
+        List<TestQuestion> savedQuestions = insertAbsent(questions, sightedHashes);
+
+        int newQuestionsCount = savedQuestions.size();
+        log.info("Saved {} new questions out of {} total questions processed", 
+                newQuestionsCount, questions.size());
+        
+        poolEstimator.recordSightings(attemptId, sightedHashes);
+        
+        parsingStatistics.incrementParsedQuestions(questions.size());
+        parsingStatistics.incrementNewQuestions(newQuestionsCount);
+        
+        return savedQuestions;
+    }
+
+    /**
+     * Insert the questions whose hash is not stored yet
+     * @param sightedHashes collects the hash of every question, and duplicates are counted as sighted;
+     *                      null to only insert
+     */
+    private List<TestQuestion> insertAbsent(List<ParsedTestQuestionDto> questions, List<String> sightedHashes) {
         List<TestQuestion> savedQuestions = new ArrayList<>();
+        List<String> duplicateHashes = new ArrayList<>();
 
         for (ParsedTestQuestionDto dto : questions) {
             TestQuestion entity = testQuestionMapper.toEntity(dto);
             String hash = entity.getQuestionHash();
+            if (sightedHashes != null) {
+                sightedHashes.add(hash);
+            }
 
             if (!repository.existsByQuestionHash(hash)) {
+                flagAnswerConflict(entity);
+                int[] signature = nearDuplicateService.flag(entity);
                 TestQuestion savedQuestion = repository.save(entity);
+                nearDuplicateService.register(savedQuestion, signature);
                 savedQuestions.add(savedQuestion);
                 log.debug("Saved new question: [hash={}] {}", hash, entity.getQuestionText());
                 
                 // Notify listeners about new question
-                List<String> answers = jsonConverter.getAnswersFromJson(entity);
-                for (TestQuestionListener listener : listeners) {
-                    listener.onNewQuestion(savedQuestion, answers);
-                }
+                notifyListeners(savedQuestion, jsonConverter.getAnswersFromJson(entity));
             } else {
+                if (sightedHashes != null) {
+                    duplicateHashes.add(hash);
+                }
                 log.debug("Skipped duplicate question: [hash={}] {}", hash, entity.getQuestionText());
             }
         }
-
-        int newQuestionsCount = savedQuestions.size();
-        log.info("Saved {} new questions out of {} total questions processed", 
-                newQuestionsCount, questions.size());
-        
-        parsingStatistics.incrementNewQuestions(newQuestionsCount);
-        
+        recordSightings(duplicateHashes);
         return savedQuestions;
     }
 
+    /**
+     * Count the sightings of duplicates once the page is committed, so a rolled back page does not count
+     */
+    private void recordSightings(List<String> duplicateHashes) {
+        if (duplicateHashes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            duplicateHashes.forEach(sightingCounter::recordSighting);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                duplicateHashes.forEach(sightingCounter::recordSighting);
+            }
+        });
+    }
+
+    /**
+     * Notify listeners once the question is committed, so they can read it back from the database
+     */
+    private void notifyListeners(TestQuestion question, List<String> answers) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            listeners.forEach(listener -> listener.onNewQuestion(question, answers));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                listeners.forEach(listener -> listener.onNewQuestion(question, answers));
+            }
+        });
+    }
+
+    /**
+     * Flag the new question and all stored variants of it when the same normalized
+     * text is already known with a different correct answer
+     */
+    private void flagAnswerConflict(TestQuestion entity) {
+        String normalizedText = entity.getNormalizedText();
+        String normalizedAnswer = entity.getNormalizedCorrectAnswer();
+        if (normalizedText == null || normalizedAnswer == null) {
+            return;
+        }
+        if (repository.existsByNormalizedTextAndNormalizedCorrectAnswerNot(normalizedText, normalizedAnswer)) {
+            int flagged = repository.flagAnswerConflicts(normalizedText, normalizedAnswer);
+            entity.setAnswerConflict(true);
+            log.warn("Correct answer conflict: question '{}' now has answer '{}' ({} earlier variants flagged)",
+                    entity.getQuestionText(), entity.getCorrectAnswer(), flagged);
+        }
+    }
+
     public List<TestQuestion> searchQuestions(String searchText) {
         return repository.searchByAnyFragment(searchText);
     }
@@ -79,6 +204,15 @@ public class TestQuestionService {
         return repository.findAll();
     }
 
+    /**
+     * Questions with the given ids in the order of the ids, leaving out ids that are not stored
+     */
+    public List<TestQuestion> getQuestionsByIds(List<Long> ids) {
+        Map<Long, TestQuestion> byId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(TestQuestion::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     @SuppressWarnings("unused")
     public Optional<TestQuestion> getQuestionById(Long id) {
         return repository.findById(id);
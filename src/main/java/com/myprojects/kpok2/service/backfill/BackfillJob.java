@@ -0,0 +1,110 @@
+package com.myprojects.kpok2.service.backfill;
+
+import com.myprojects.kpok2.model.dto.BackfillStatusDto;
+import com.myprojects.kpok2.service.parser.RollingWindowCounter;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of one re-parse of captured pages. Counters are updated by the fork-join workers
+ * and the persistence executor and read by status requests without locking.
+ */
+public class BackfillJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String source;
+    private final long startedAt = System.currentTimeMillis();
+
+    private final LongAdder pagesParsed = new LongAdder();
+    private final LongAdder pagesFailed = new LongAdder();
+    private final LongAdder questionsParsed = new LongAdder();
+    private final LongAdder newQuestions = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final RollingWindowCounter recentPages = new RollingWindowCounter(Duration.ofMinutes(1), 60);
+
+    private volatile int totalPages;
+    private volatile Status status = Status.RUNNING;
+    private volatile boolean cancelRequested;
+    private volatile Long finishedAt;
+    private volatile String errorMessage;
+
+    public BackfillJob(String id, String source) {
+        this.id = id;
+        this.source = source;
+    }
+
+    void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    void recordPage(int questions) {
+        pagesParsed.increment();
+        questionsParsed.add(questions);
+        recentPages.add(1);
+    }
+
+    void recordFailedPage() {
+        pagesFailed.increment();
+        recentPages.add(1);
+    }
+
+    void recordSavedBatch(int savedQuestions) {
+        newQuestions.add(savedQuestions);
+    }
+
+    void recordFailedBatch() {
+        failedBatches.increment();
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void finish(Status finalStatus, String error) {
+        errorMessage = error;
+        finishedAt = System.currentTimeMillis();
+        status = finalStatus;
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    public BackfillStatusDto toDto() {
+        long pages = pagesParsed.sum() + pagesFailed.sum();
+        long end = finishedAt != null ? finishedAt : System.currentTimeMillis();
+        double elapsedSeconds = Math.max(1, end - startedAt) / 1000.0;
+        double windowSeconds = Math.min(elapsedSeconds, recentPages.getWindow().toSeconds());
+        return BackfillStatusDto.builder()
+                .id(id)
+                .source(source)
+                .status(status)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .totalPages(totalPages)
+                .pagesParsed(pagesParsed.sum())
+                .pagesFailed(pagesFailed.sum())
+                .questionsParsed(questionsParsed.sum())
+                .newQuestions(newQuestions.sum())
+                .failedBatches(failedBatches.sum())
+                .pagesPerSecond(pages / elapsedSeconds)
+                .pagesPerSecondLastMinute(isRunning() ? recentPages.sum() / windowSeconds : 0)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
@@ -0,0 +1,369 @@
+package com.myprojects.kpok2.service.backfill;
+
+import com.myprojects.kpok2.config.DebugProperties;
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
+import com.myprojects.kpok2.config.executor.InstrumentedExecutor;
+import com.myprojects.kpok2.model.dto.BackfillStatusDto;
+import com.myprojects.kpok2.model.dto.ParsedTestQuestionDto;
+import com.myprojects.kpok2.service.TestQuestionService;
+import com.myprojects.kpok2.service.mapper.TestQuestionMapperUtils;
+import com.myprojects.kpok2.service.parser.TestQuestionParser;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Re-parses captured review pages after the parser or normalizer has been improved.
+ * Pages are read from a directory tree or a zip archive and parsed on a fork-join pool;
+ * the parsed questions are collected into batches that the backfill executor saves,
+ * so parsing and saving overlap. Only one backfill runs at a time.
+ */
+@Slf4j
+@Service
+public class HtmlBackfillService {
+
+    // Pages a fork-join task parses itself instead of splitting further
+    private static final int SPLIT_THRESHOLD = 8;
+    private static final long PROGRESS_LOG_SECONDS = 10;
+
+    private final TestQuestionParser questionParser;
+    private final TestQuestionService questionService;
+    private final DebugProperties debugProperties;
+    private final InstrumentedExecutor backfillExecutor;
+    private final int parallelism;
+    private final int batchSize;
+
+    private volatile BackfillJob currentJob;
+
+    public HtmlBackfillService(TestQuestionParser questionParser,
+                               TestQuestionService questionService,
+                               DebugProperties debugProperties,
+                               @Qualifier(ExecutorConfig.BACKFILL_EXECUTOR) InstrumentedExecutor backfillExecutor,
+                               @Value("${app.backfill.parallelism:0}") int parallelism,
+                               @Value("${app.backfill.batch-size:500}") int batchSize) {
+        this.questionParser = questionParser;
+        this.questionService = questionService;
+        this.debugProperties = debugProperties;
+        this.backfillExecutor = backfillExecutor;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Start re-parsing the captured pages in the background
+     * @param source directory or zip archive of pages; the debug HTML directory when blank
+     * @throws IllegalStateException if a backfill is already running
+     * @throws IllegalArgumentException if the source does not exist
+     */
+    public synchronized BackfillStatusDto start(String source) {
+        if (currentJob != null && currentJob.isRunning()) {
+            throw new IllegalStateException("Backfill " + currentJob.getId() + " is already running");
+        }
+        Path path = Paths.get(source == null || source.isBlank() ? debugProperties.getHtmlDirPath() : source)
+                .toAbsolutePath();
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("No such directory or archive: " + path);
+        }
+
+        BackfillJob job = new BackfillJob(UUID.randomUUID().toString(), path.toString());
+        currentJob = job;
+        Thread coordinator = new Thread(() -> run(job, path), "HtmlBackfill");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        log.info("Started backfill {} from {} with parallelism {}", job.getId(), path, parallelism);
+        return job.toDto();
+    }
+
+    /**
+     * Stop the running backfill after the pages being parsed; batches already parsed are still saved
+     * @throws IllegalStateException if no backfill is running
+     */
+    public BackfillStatusDto cancel() {
+        BackfillJob job = currentJob;
+        if (job == null || !job.isRunning()) {
+            throw new IllegalStateException("No backfill is running");
+        }
+        job.requestCancel();
+        return job.toDto();
+    }
+
+    /**
+     * Status of the running or last finished backfill
+     */
+    public Optional<BackfillStatusDto> getStatus() {
+        BackfillJob job = currentJob;
+        return job == null ? Optional.empty() : Optional.of(job.toDto());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        BackfillJob job = currentJob;
+        if (job != null && job.isRunning()) {
+            job.requestCancel();
+        }
+    }
+
+    private void run(BackfillJob job, Path path) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Batcher batcher = new Batcher(job);
+        try (PageSources sources = PageSources.open(path)) {
+            job.setTotalPages(sources.pages().size());
+            log.info("Backfill {} found {} pages", job.getId(), sources.pages().size());
+
+            ForkJoinTask<Void> task = pool.submit(new ParseTask(job, batcher, sources.pages(), 0, sources.pages().size()));
+            while (true) {
+                try {
+                    task.get(PROGRESS_LOG_SECONDS, TimeUnit.SECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    logProgress(job.toDto());
+                }
+            }
+
+            batcher.flush();
+            batcher.awaitSaved();
+            job.finish(job.isCancelRequested() ? BackfillJob.Status.CANCELLED : BackfillJob.Status.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(BackfillJob.Status.FAILED, "Interrupted");
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Backfill {} failed: {}", job.getId(), cause.getMessage(), cause);
+            job.finish(BackfillJob.Status.FAILED, cause.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        BackfillStatusDto status = job.toDto();
+        log.info("Backfill {} {}: {} pages parsed, {} failed, {} questions, {} new, {} pages/s",
+                job.getId(), status.getStatus(), status.getPagesParsed(), status.getPagesFailed(),
+                status.getQuestionsParsed(), status.getNewQuestions(), String.format("%.1f", status.getPagesPerSecond()));
+    }
+
+    private void logProgress(BackfillStatusDto status) {
+        log.info("Backfill {}: {}/{} pages, {} new questions, {} pages/s (last minute {})",
+                status.getId(), status.getPagesParsed() + status.getPagesFailed(), status.getTotalPages(),
+                status.getNewQuestions(), String.format("%.1f", status.getPagesPerSecond()),
+                String.format("%.1f", status.getPagesPerSecondLastMinute()));
+    }
+
+    private void parsePage(BackfillJob job, Batcher batcher, PageSource page) {
+        try (InputStream in = page.open()) {
+            Document doc = Jsoup.parse(in, "UTF-8", "");
+            List<ParsedTestQuestionDto> questions = questionParser.parseQuestions(doc);
+            job.recordPage(questions.size());
+            batcher.add(questions);
+        } catch (Exception e) {
+            job.recordFailedPage();
+            log.warn("Backfill could not parse {}: {}", page.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Splits the page range until it is small enough, then parses the pages of its part
+     */
+    private class ParseTask extends RecursiveAction {
+        private final BackfillJob job;
+        private final Batcher batcher;
+        private final List<PageSource> pages;
+        private final int from;
+        private final int to;
+
+        ParseTask(BackfillJob job, Batcher batcher, List<PageSource> pages, int from, int to) {
+            this.job = job;
+            this.batcher = batcher;
+            this.pages = pages;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to && !job.isCancelRequested(); i++) {
+                    parsePage(job, batcher, pages.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseTask(job, batcher, pages, from, middle),
+                    new ParseTask(job, batcher, pages, middle, to));
+        }
+    }
+
+    /**
+     * Collects parsed questions from all workers and hands every full batch to the backfill executor.
+     * Each hash is queued only once per backfill, so batches saved at the same time never insert
+     * the same question and run into its unique constraint.
+     */
+    private class Batcher {
+        private final BackfillJob job;
+        private final Queue<CompletableFuture<Void>> saves = new ConcurrentLinkedQueue<>();
+        private final Set<String> queuedHashes = ConcurrentHashMap.newKeySet();
+        private List<ParsedTestQuestionDto> pending = new ArrayList<>();
+
+        Batcher(BackfillJob job) {
+            this.job = job;
+        }
+
+        void add(List<ParsedTestQuestionDto> questions) {
+            List<ParsedTestQuestionDto> unqueued = questions.stream()
+                    .filter(dto -> queuedHashes.add(TestQuestionMapperUtils.generateHash(
+                            dto.getNormalizedText(), dto.getAnswers(), dto.getNormalizedCorrectAnswer())))
+                    .toList();
+            if (unqueued.isEmpty()) {
+                return;
+            }
+            List<ParsedTestQuestionDto> full = null;
+            synchronized (this) {
+                pending.addAll(unqueued);
+                if (pending.size() >= batchSize) {
+                    full = pending;
+                    pending = new ArrayList<>();
+                }
+            }
+            if (full != null) {
+                save(full);
+            }
+        }
+
+        void flush() {
+            List<ParsedTestQuestionDto> rest;
+            synchronized (this) {
+                rest = pending;
+                pending = new ArrayList<>();
+            }
+            if (!rest.isEmpty()) {
+                save(rest);
+            }
+        }
+
+        void awaitSaved() {
+            CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).join();
+        }
+
+        private void save(List<ParsedTestQuestionDto> batch) {
+            // The backfill executor makes the caller wait when its queue is full, which throttles parsing
+            saves.add(CompletableFuture.runAsync(() -> {
+                try {
+                    job.recordSavedBatch(questionService.saveBackfilledQuestions(batch).size());
+                } catch (Exception e) {
+                    job.recordFailedBatch();
+                    log.error("Backfill could not save a batch of {} questions: {}", batch.size(), e.getMessage());
+                }
+            }, backfillExecutor));
+        }
+    }
+
+    /**
+     * A captured page that can be opened more than once and from any thread
+     */
+    private interface PageSource {
+        String name();
+
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * The pages of a directory tree or zip archive, holding the archive open while they are read
+     */
+    private record PageSources(List<PageSource> pages, ZipFile archive) implements AutoCloseable {
+
+        static PageSources open(Path path) throws IOException {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.walk(path)) {
+                    List<PageSource> pages = files
+                            .filter(Files::isRegularFile)
+                            .filter(file -> isPage(file.getFileName().toString()))
+                            .sorted()
+                            .map(PageSources::fromFile)
+                            .toList();
+                    return new PageSources(pages, null);
+                }
+            }
+            // ZipFile reads entries safely from several threads
+            ZipFile archive = new ZipFile(path.toFile());
+            List<PageSource> pages = archive.stream()
+                    .filter(entry -> !entry.isDirectory() && isPage(entry.getName()))
+                    .map(entry -> fromEntry(archive, entry))
+                    .toList();
+            return new PageSources(pages, archive);
+        }
+
+        private static boolean isPage(String name) {
+            String lower = name.toLowerCase();
+            return lower.endsWith(".html") || lower.endsWith(".htm")
+                    || lower.endsWith(".html.gz") || lower.endsWith(".htm.gz");
+        }
+
+        private static PageSource fromFile(Path file) {
+            return new PageSource() {
+                @Override
+                public String name() {
+                    return file.toString();
+                }
+
+                @Override
+                public InputStream open() throws IOException {
+                    return decompress(file.toString(), Files.newInputStream(file));
+                }
+            };
+        }
+
+        private static PageSource fromEntry(ZipFile archive, ZipEntry entry) {
+            return new PageSource() {
+                @Override
+                public String name() {
+                    return entry.getName();
+                }
+
+                @Override
+                public InputStream open() throws IOException {
+                    return decompress(entry.getName(), archive.getInputStream(entry));
+                }
+            };
+        }
+
+        private static InputStream decompress(String name, InputStream in) throws IOException {
+            InputStream buffered = new BufferedInputStream(in);
+            return name.toLowerCase().endsWith(".gz") ? new GZIPInputStream(buffered) : buffered;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (archive != null) {
+                archive.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.myprojects.kpok2.service.debug;
+
+import com.myprojects.kpok2.config.DebugProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saves sampled page HTML and screenshots for debugging without slowing down navigation.
+ * Callers hand over content they already have; a single background writer gzips the HTML,
+ * optionally names it by content hash so identical pages are stored once, and deletes the
+ * oldest files once the debug directory exceeds its disk budget. When the writer falls behind,
+ * captures are dropped and counted instead of blocking the navigation thread.
+ */
+@Slf4j
+@Service
+public class DebugCaptureService {
+
+    private static final String INDEX_FILE = "index.tsv";
+
+    private final DebugProperties properties;
+    private final long maxDiskBytes;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    // Files in the budget, oldest first, with their sizes; only touched by the writer thread
+    private final LinkedHashMap<Path, Long> ring = new LinkedHashMap<>();
+    private long ringBytes;
+
+    private ThreadPoolExecutor writer;
+
+    public DebugCaptureService(DebugProperties properties) {
+        this.properties = properties;
+        this.maxDiskBytes = Math.max(1, properties.getMaxDiskMb()) * 1024 * 1024;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isSaveFiles()) {
+            return;
+        }
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "DebugCapture");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.increment());
+        writer.execute(this::loadExistingFiles);
+        log.info("Debug capture enabled: html sample rate {}, screenshot sample rate {}, budget {} MB, content-addressed {}",
+                properties.getHtmlSampleRate(), properties.getScreenshotSampleRate(),
+                properties.getMaxDiskMb(), properties.isContentAddressed());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+        }
+        log.info("Debug capture stopped: {} files written, {} deduplicated, {} dropped, {} evicted",
+                written.sum(), deduplicated.sum(), dropped.sum(), evicted.sum());
+    }
+
+    /**
+     * Save the HTML of a page if it is sampled. The string is already in memory, so this only queues it.
+     */
+    public void captureHtml(String url, String html) {
+        if (writer == null || html == null || !sampled(properties.getHtmlSampleRate())) {
+            return;
+        }
+        long capturedAt = System.currentTimeMillis();
+        writer.execute(() -> writeHtml(url, html, capturedAt));
+    }
+
+    /**
+     * Save a screenshot of a page if it is sampled. The screenshot is only taken when sampled,
+     * on the calling thread, since the browser may not be used from the writer thread.
+     */
+    public void captureScreenshot(String url, Supplier<byte[]> screenshot) {
+        if (writer == null || !sampled(properties.getScreenshotSampleRate())) {
+            return;
+        }
+        byte[] png;
+        try {
+            png = screenshot.get();
+        } catch (Exception e) {
+            log.warn("Failed to take screenshot of {}: {}", url, e.getMessage());
+            return;
+        }
+        long capturedAt = System.currentTimeMillis();
+        writer.execute(() -> writeScreenshot(url, png, capturedAt));
+    }
+
+    private static boolean sampled(double rate) {
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void writeHtml(String url, String html, long capturedAt) {
+        try {
+            byte[] content = html.getBytes(StandardCharsets.UTF_8);
+            Path dir = Paths.get(properties.getHtmlDirPath());
+            Path file;
+            if (properties.isContentAddressed()) {
+                String hash = sha256(content);
+                file = dir.resolve(hash + ".html.gz");
+                appendIndex(dir, capturedAt, hash, url);
+                if (ring.containsKey(file) && Files.exists(file)) {
+                    // Same page already stored: keep it as the newest file instead of writing it again
+                    ring.put(file, ring.remove(file));
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(capturedAt));
+                    deduplicated.increment();
+                    return;
+                }
+            } else {
+                file = dir.resolve(fileName(url, capturedAt, "html.gz"));
+            }
+
+            Path temp = dir.resolve(file.getFileName() + ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(content);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            track(file);
+            log.debug("Saved page source of {} to {}", url, file);
+        } catch (Exception e) {
+            log.warn("Failed to save page source of {}: {}", url, e.getMessage());
+        }
+    }
+
+    private void writeScreenshot(String url, byte[] png, long capturedAt) {
+        try {
+            // PNG is already compressed, so it is stored as is
+            Path file = Paths.get(properties.getScreenshotsDirPath()).resolve(fileName(url, capturedAt, "png"));
+            Files.write(file, png);
+            track(file);
+            log.debug("Saved screenshot of {} to {}", url, file);
+        } catch (Exception e) {
+            log.warn("Failed to save screenshot of {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Record which URL a content-addressed file was captured from. The index is rolled over to a
+     * single previous file at a twentieth of the disk budget, so it stays small next to the captures.
+     */
+    private void appendIndex(Path dir, long capturedAt, String hash, String url) throws IOException {
+        Path index = dir.resolve(INDEX_FILE);
+        if (Files.exists(index) && Files.size(index) > maxDiskBytes / 20) {
+            Files.move(index, dir.resolve(INDEX_FILE + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        String line = capturedAt + "\t" + hash + "\t" + url + "\n";
+        Files.writeString(index, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Add a written file to the ring and delete the oldest files while the budget is exceeded
+     */
+    private void track(Path file) throws IOException {
+        long size = Files.size(file);
+        Long previous = ring.put(file, size);
+        ringBytes += size - (previous != null ? previous : 0);
+        written.increment();
+
+        Iterator<Map.Entry<Path, Long>> oldest = ring.entrySet().iterator();
+        while (ringBytes > maxDiskBytes && oldest.hasNext()) {
+            Map.Entry<Path, Long> entry = oldest.next();
+            if (entry.getKey().equals(file)) {
+                break; // Never evict the file just written
+            }
+            Files.deleteIfExists(entry.getKey());
+            ringBytes -= entry.getValue();
+            oldest.remove();
+            evicted.increment();
+        }
+    }
+
+    /**
+     * Put files left over from earlier runs into the ring, oldest first, so they count against the budget
+     */
+    private void loadExistingFiles() {
+        try {
+            Path htmlDir = Files.createDirectories(Paths.get(properties.getHtmlDirPath()));
+            Path screenshotsDir = Files.createDirectories(Paths.get(properties.getScreenshotsDirPath()));
+            List<Path> files;
+            try (Stream<Path> html = Files.list(htmlDir); Stream<Path> screenshots = Files.list(screenshotsDir)) {
+                files = Stream.concat(html, screenshots)
+                        .filter(Files::isRegularFile)
+                        .filter(path -> !path.getFileName().toString().startsWith(INDEX_FILE))
+                        .sorted(Comparator.comparing(DebugCaptureService::lastModified))
+                        .toList();
+            }
+            for (Path file : files) {
+                long size = Files.size(file);
+                ring.put(file, size);
+                ringBytes += size;
+            }
+            log.info("Debug directories hold {} files, {} KB", files.size(), ringBytes / 1024);
+        } catch (IOException e) {
+            log.error("Failed to prepare debug directories: {}", e.getMessage());
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String fileName(String url, long capturedAt, String extension) {
+        // Remove protocol and special characters, replace with underscores
+        String name = url == null ? "page" : url.replaceAll("https?://", "").replaceAll("[^a-zA-Z0-9.]", "_");
+        return String.format("%d_%s.%s", capturedAt, name, extension);
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,201 @@
+package com.myprojects.kpok2.service.dedup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds texts that are nearly equal without comparing every pair. Each text is reduced to a
+ * MinHash signature over its character shingles, where the share of equal signature positions
+ * estimates the Jaccard similarity of the shingle sets. The signature is cut into bands and every
+ * band is hashed into a bucket (locality-sensitive hashing), so only texts sharing at least one
+ * bucket are compared, and a match is kept only when its estimated similarity reaches the threshold.
+ * <p>
+ * With b bands of r rows, texts of similarity s share a bucket with probability 1 - (1 - s^r)^b,
+ * which rises steeply around (1/b)^(1/r).
+ * <p>
+ * Safe for concurrent use.
+ */
+public class MinHashLshIndex {
+
+    // Fixed seed, so signatures are the same in every run
+    private static final long SEED = 0x6b706f6b32L;
+
+    private final int bands;
+    private final int rows;
+    private final int shingleSize;
+    private final double threshold;
+    // Multiply-shift hash functions: a * x + b, keeping the high 32 bits
+    private final long[] multipliers;
+    private final long[] increments;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    public record Match(long id, long clusterId, double similarity) {
+    }
+
+    private record Entry(int[] signature, long clusterId) {
+    }
+
+    public MinHashLshIndex(int bands, int rows, int shingleSize, double threshold) {
+        if (bands < 1 || rows < 1 || shingleSize < 1) {
+            throw new IllegalArgumentException("Bands, rows and shingle size must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.shingleSize = shingleSize;
+        this.threshold = threshold;
+
+        int functions = bands * rows;
+        this.multipliers = new long[functions];
+        this.increments = new long[functions];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < functions; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * MinHash signature of a text, or null for an empty text.
+     * Texts shorter than a shingle are treated as a single shingle.
+     */
+    public int[] signature(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        int length = Math.max(shingleSize, text.length()) - shingleSize + 1;
+        for (int start = 0; start < length; start++) {
+            long shingle = mix(shingleHash(text, start, Math.min(text.length(), start + shingleSize)));
+            for (int i = 0; i < signature.length; i++) {
+                int value = (int) ((multipliers[i] * shingle + increments[i]) >>> 32);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Add a text, or move an indexed text with the same signature to another cluster
+     * @param clusterId id of the earliest text of the cluster the text belongs to
+     */
+    public void add(long id, int[] signature, long clusterId) {
+        if (signature == null) {
+            return;
+        }
+        checkLength(signature);
+        if (entries.put(id, new Entry(signature, clusterId)) != null) {
+            return; // Already in its buckets
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Indexed texts estimated to be at least as similar as the threshold, most similar first
+     */
+    public List<Match> findSimilar(int[] signature) {
+        if (signature == null) {
+            return List.of();
+        }
+        checkLength(signature);
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            Set<Long> bucket = buckets.get(bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Long candidate : candidates) {
+            Entry entry = entries.get(candidate);
+            if (entry == null) {
+                continue; // Removed while its buckets were read
+            }
+            double similarity = similarity(signature, entry.signature());
+            if (similarity >= threshold) {
+                matches.add(new Match(candidate, entry.clusterId(), similarity));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::id));
+        return matches;
+    }
+
+    /**
+     * Remove a text, e.g. once its question was deleted
+     */
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            Set<Long> bucket = buckets.get(bandKey(entry.signature(), band));
+            if (bucket != null) {
+                bucket.remove(id);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Share of equal positions of two signatures, an estimate of the Jaccard similarity of their texts
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = key * 0x100000001b3L + signature[i];
+        }
+        return mix(key);
+    }
+
+    private void checkLength(int[] signature) {
+        if (signature.length != multipliers.length) {
+            throw new IllegalArgumentException("Signature has " + signature.length + " values, expected " + multipliers.length);
+        }
+    }
+
+    private static long shingleHash(String text, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads the bits of shingle and band hashes
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
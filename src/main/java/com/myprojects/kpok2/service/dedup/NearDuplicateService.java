@@ -0,0 +1,394 @@
+package com.myprojects.kpok2.service.dedup;
+
+import com.myprojects.kpok2.model.TestQuestion;
+import com.myprojects.kpok2.model.dto.NearDuplicateClusterDto;
+import com.myprojects.kpok2.model.dto.NearDuplicateStatusDto;
+import com.myprojects.kpok2.repository.TestQuestionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Groups questions whose normalized text is nearly equal, e.g. differs by punctuation or a typo
+ * fix, which exact hashing keeps apart. New questions are looked up in a {@link MinHashLshIndex}
+ * when they are inserted and linked to the cluster of the most similar stored question.
+ * <p>
+ * A clustering pass over the whole bank builds the index at startup and can be run again on
+ * demand: signatures and similar pairs are computed on a fork-join pool, pairs are joined into
+ * clusters headed by their earliest question, and changed cluster links are written in batches.
+ */
+@Slf4j
+@Service
+public class NearDuplicateService {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    private final TestQuestionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean clusterOnStartup;
+    private final int bands;
+    private final int rows;
+    private final int shingleSize;
+    private final double threshold;
+    private final int parallelism;
+
+    // Empty until the first clustering pass; replaced as a whole by every pass
+    private volatile MinHashLshIndex index;
+    private volatile boolean loaded;
+    // Questions registered while a pass runs, replayed into the index it builds
+    private final List<Registration> registeredDuringPass = new ArrayList<>();
+    // Questions deleted while a pass runs, dropped from the index it builds
+    private final Set<Long> removedDuringPass = new HashSet<>();
+    private final AtomicBoolean clustering = new AtomicBoolean();
+
+    private volatile long clusters;
+    private volatile long nearDuplicates;
+    private volatile long updatedQuestions;
+    private volatile Long lastClusteredAt;
+    private volatile Long lastDurationMs;
+    private volatile String errorMessage;
+
+    private record Registration(long id, int[] signature, long clusterId) {
+    }
+
+    private static final class Row {
+        final long id;
+        final String normalizedText;
+        final Long nearDuplicateOf;
+        int[] signature;
+
+        Row(Object[] columns) {
+            this.id = (Long) columns[0];
+            this.normalizedText = (String) columns[1];
+            this.nearDuplicateOf = (Long) columns[2];
+        }
+    }
+
+    public NearDuplicateService(TestQuestionRepository repository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.near-duplicates.enabled:true}") boolean enabled,
+                                @Value("${app.near-duplicates.cluster-on-startup:true}") boolean clusterOnStartup,
+                                @Value("${app.near-duplicates.bands:16}") int bands,
+                                @Value("${app.near-duplicates.rows:8}") int rows,
+                                @Value("${app.near-duplicates.shingle-size:4}") int shingleSize,
+                                @Value("${app.near-duplicates.threshold:0.8}") double threshold,
+                                @Value("${app.near-duplicates.parallelism:0}") int parallelism) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.clusterOnStartup = clusterOnStartup;
+        this.bands = bands;
+        this.rows = rows;
+        this.shingleSize = shingleSize;
+        this.threshold = threshold;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.index = newIndex();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void clusterInBackground() {
+        if (enabled && clusterOnStartup) {
+            startClustering();
+        }
+    }
+
+    /**
+     * Start a clustering pass over all stored questions in the background
+     * @return false if near-duplicate detection is disabled or a pass is already running
+     */
+    public boolean startClustering() {
+        if (!enabled || !clustering.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(this::cluster, "NearDuplicateClustering");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Link a question about to be inserted to the cluster of its most similar stored question
+     * @return signature of the question, to be passed to {@link #register} once it is saved
+     */
+    public int[] flag(TestQuestion question) {
+        if (!enabled) {
+            return null;
+        }
+        MinHashLshIndex current = index;
+        int[] signature = current.signature(question.getNormalizedText());
+        List<MinHashLshIndex.Match> matches = current.findSimilar(signature);
+        if (!matches.isEmpty()) {
+            MinHashLshIndex.Match best = matches.get(0);
+            question.setNearDuplicateOf(best.clusterId());
+            log.info("Near-duplicate question ({}% similar to question {}): {}",
+                    Math.round(best.similarity() * 100), best.id(), question.getQuestionText());
+        }
+        return signature;
+    }
+
+    /**
+     * Add a saved question to the index once its transaction commits
+     */
+    public void register(TestQuestion question, int[] signature) {
+        if (signature == null) {
+            return;
+        }
+        long clusterId = question.getNearDuplicateOf() != null ? question.getNearDuplicateOf() : question.getId();
+        Registration registration = new Registration(question.getId(), signature, clusterId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(registration);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(registration);
+            }
+        });
+    }
+
+    private synchronized void add(Registration registration) {
+        index.add(registration.id(), registration.signature(), registration.clusterId());
+        if (clustering.get()) {
+            registeredDuringPass.add(registration);
+        }
+    }
+
+    /**
+     * Drop deleted questions from the index, so new questions are not linked to them
+     */
+    public synchronized void remove(Collection<Long> ids) {
+        for (Long id : ids) {
+            index.remove(id);
+        }
+        if (clustering.get()) {
+            removedDuringPass.addAll(ids);
+        }
+    }
+
+    public NearDuplicateStatusDto getStatus() {
+        return NearDuplicateStatusDto.builder()
+                .loaded(loaded)
+                .clustering(clustering.get())
+                .indexedQuestions(index.size())
+                .clusters(clusters)
+                .nearDuplicates(nearDuplicates)
+                .updatedQuestions(updatedQuestions)
+                .lastClusteredAt(lastClusteredAt)
+                .lastDurationMs(lastDurationMs)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    /**
+     * Stored near-duplicate clusters with their questions, earliest question first
+     */
+    public List<NearDuplicateClusterDto> getClusters() {
+        Map<Long, List<TestQuestion>> byCluster = repository.findNearDuplicateClusters().stream()
+                .collect(Collectors.groupingBy(
+                        question -> question.getNearDuplicateOf() != null ? question.getNearDuplicateOf() : question.getId(),
+                        LinkedHashMap::new, Collectors.toList()));
+        return byCluster.entrySet().stream()
+                .map(entry -> new NearDuplicateClusterDto(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private void cluster() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            List<Row> rowsById = loadRows();
+            MinHashLshIndex next = newIndex();
+            Map<Long, long[]> earlierMatches = findEarlierMatches(rowsById, next);
+
+            // Join matching pairs into clusters, each headed by its earliest question
+            Map<Long, Long> parents = new HashMap<>();
+            for (Row row : rowsById) {
+                for (long other : earlierMatches.get(row.id)) {
+                    union(parents, row.id, other);
+                }
+            }
+
+            Map<Long, List<Long>> changes = new HashMap<>();
+            long members = 0;
+            long heads = 0;
+            for (Row row : rowsById) {
+                long head = find(parents, row.id);
+                Long clusterId = head != row.id ? head : null;
+                if (clusterId != null) {
+                    next.add(row.id, row.signature, head);
+                    members++;
+                } else if (parents.containsKey(row.id)) {
+                    heads++;
+                }
+                if (!Objects.equals(clusterId, row.nearDuplicateOf)) {
+                    changes.computeIfAbsent(clusterId, key -> new ArrayList<>()).add(row.id);
+                }
+            }
+            long updated = saveChanges(changes);
+
+            // Questions saved during the pass were looked up in the old index, which is empty
+            // at startup; those without a link are looked up again in the new one
+            Map<Long, List<Long>> replayedLinks = new HashMap<>();
+            synchronized (this) {
+                long lastScannedId = rowsById.isEmpty() ? 0 : rowsById.get(rowsById.size() - 1).id;
+                for (Registration registration : registeredDuringPass) {
+                    if (registration.id() <= lastScannedId) {
+                        continue;
+                    }
+                    long clusterId = registration.clusterId();
+                    if (clusterId == registration.id()) {
+                        clusterId = next.findSimilar(registration.signature()).stream()
+                                .filter(match -> match.id() < registration.id())
+                                .findFirst()
+                                .map(MinHashLshIndex.Match::clusterId)
+                                .orElse(clusterId);
+                        if (clusterId != registration.id()) {
+                            replayedLinks.computeIfAbsent(clusterId, key -> new ArrayList<>()).add(registration.id());
+                            members++;
+                        }
+                    }
+                    next.add(registration.id(), registration.signature(), clusterId);
+                }
+                registeredDuringPass.clear();
+                removedDuringPass.forEach(next::remove);
+                removedDuringPass.clear();
+                index = next;
+                loaded = true;
+            }
+            updated += saveChanges(replayedLinks);
+            clusters = heads;
+            nearDuplicates = members;
+            updatedQuestions = updated;
+            errorMessage = null;
+            log.info("Clustered {} questions: {} near-duplicates in {} clusters, {} questions updated in {} ms",
+                    rowsById.size(), members, heads, updated, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            errorMessage = cause.getMessage();
+            log.error("Near-duplicate clustering failed: {}", cause.getMessage(), cause);
+        } finally {
+            synchronized (this) {
+                registeredDuringPass.clear();
+                removedDuringPass.clear();
+                clustering.set(false);
+            }
+            lastClusteredAt = System.currentTimeMillis();
+            lastDurationMs = lastClusteredAt - startedAt;
+        }
+    }
+
+    private List<Row> loadRows() {
+        List<Row> rowsById = new ArrayList<>();
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = repository.findNormalizedTextsAfter(afterId, PageRequest.of(0, PAGE_SIZE));
+            for (Object[] columns : page) {
+                Row row = new Row(columns);
+                rowsById.add(row);
+                afterId = row.id;
+            }
+        } while (page.size() == PAGE_SIZE);
+        return rowsById;
+    }
+
+    /**
+     * Index every row, then find for each row the similar rows with a lower id, both on the fork-join pool
+     */
+    private Map<Long, long[]> findEarlierMatches(List<Row> rowsById, MinHashLshIndex next)
+            throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> rowsById.parallelStream().forEach(row -> {
+                row.signature = next.signature(row.normalizedText);
+                next.add(row.id, row.signature, row.id);
+            })).get();
+            return pool.submit(() -> rowsById.parallelStream().collect(Collectors.toConcurrentMap(
+                    row -> row.id,
+                    row -> next.findSimilar(row.signature).stream()
+                            .mapToLong(MinHashLshIndex.Match::id)
+                            .filter(id -> id < row.id)
+                            .toArray()))).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Write the changed cluster links, a batch per transaction
+     * @param changes question ids by their new cluster id, null to clear the link
+     */
+    private long saveChanges(Map<Long, List<Long>> changes) {
+        long updated = 0;
+        for (Map.Entry<Long, List<Long>> change : changes.entrySet()) {
+            List<Long> ids = change.getValue();
+            for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(ids.size(), from + UPDATE_BATCH_SIZE));
+                Integer count = transactionTemplate.execute(tx -> change.getKey() != null
+                        ? repository.updateNearDuplicateOf(change.getKey(), batch)
+                        : repository.clearNearDuplicateOf(batch));
+                updated += count != null ? count : 0;
+            }
+        }
+        return updated;
+    }
+
+    private static long find(Map<Long, Long> parents, long id) {
+        long root = id;
+        Long parent;
+        while ((parent = parents.get(root)) != null && parent != root) {
+            root = parent;
+        }
+        // Point the path straight at the root for later lookups
+        long current = id;
+        while (current != root) {
+            long next = parents.get(current);
+            parents.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merge the clusters of two questions under the lower of their heads
+     */
+    private static void union(Map<Long, Long> parents, long a, long b) {
+        long rootA = find(parents, a);
+        long rootB = find(parents, b);
+        parents.putIfAbsent(rootA, rootA);
+        parents.putIfAbsent(rootB, rootB);
+        if (rootA != rootB) {
+            parents.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+        }
+    }
+
+    private MinHashLshIndex newIndex() {
+        return new MinHashLshIndex(bands, rows, shingleSize, threshold);
+    }
+}
@@ -0,0 +1,197 @@
+package com.myprojects.kpok2.service.distributed;
+
+import com.myprojects.kpok2.config.DistributedProperties;
+import com.myprojects.kpok2.model.CrawlRun;
+import com.myprojects.kpok2.repository.AccountLeaseRepository;
+import com.myprojects.kpok2.repository.CrawlRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates several nodes crawling against one database.
+ * Accounts are leased through the account_leases table so that no two nodes use the same
+ * account at once; leases are extended by a heartbeat and expire if a node dies.
+ * The iteration target and progress of a run are kept in the crawl_runs table.
+ * When distributed mode is disabled every method is a no-op.
+ */
+@Slf4j
+@Service
+public class DistributedCoordinator {
+
+    private final DistributedProperties properties;
+    private final AccountLeaseRepository leaseRepository;
+    private final CrawlRunRepository runRepository;
+    private final String nodeId;
+    private ScheduledExecutorService heartbeatScheduler;
+
+    public DistributedCoordinator(DistributedProperties properties,
+                                  AccountLeaseRepository leaseRepository,
+                                  CrawlRunRepository runRepository) {
+        this.properties = properties;
+        this.leaseRepository = leaseRepository;
+        this.runRepository = runRepository;
+        this.nodeId = properties.getNodeId() != null && !properties.getNodeId().isBlank()
+                ? properties.getNodeId()
+                : defaultNodeId();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        log.info("Distributed mode enabled: node={}, run={}, lease={}s, heartbeat={}s",
+                nodeId, properties.getRunId(), properties.getLeaseSeconds(), properties.getHeartbeatSeconds());
+
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "LeaseHeartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = Math.max(1, properties.getHeartbeatSeconds());
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdownNow();
+        }
+        try {
+            int released = leaseRepository.releaseAll(nodeId);
+            log.info("Released {} account leases held by node {}", released, nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to release account leases of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Make an account known to all nodes
+     */
+    public void registerAccount(String username) {
+        if (isEnabled()) {
+            leaseRepository.registerAccount(username);
+        }
+    }
+
+    /**
+     * Try to lease an account for this node
+     * @return true if the account may be used by this node
+     */
+    public boolean tryLease(String username) {
+        if (!isEnabled()) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            boolean leased = leaseRepository.tryLease(username, nodeId, now,
+                    now.plusSeconds(properties.getLeaseSeconds())) > 0;
+            if (leased) {
+                log.info("Node {} leased account {}", nodeId, username);
+            }
+            return leased;
+        } catch (Exception e) {
+            log.error("Failed to lease account {}: {}", username, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Give up this node's lease on an account
+     */
+    public void release(String username) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            leaseRepository.release(username, nodeId);
+        } catch (Exception e) {
+            // The lease expires on its own
+            log.warn("Failed to release lease of account {}: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Join the shared run, creating it with the given target if no node has started it yet
+     * @return iteration target of the shared run, or empty when distributed mode is disabled
+     */
+    public Optional<Integer> joinRun(int iterationTarget) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String runId = properties.getRunId();
+        if (runRepository.createIfAbsent(runId, iterationTarget, now) > 0) {
+            log.info("Created shared run {} with target {}", runId, iterationTarget);
+        } else if (runRepository.resetIfComplete(runId, iterationTarget, now) > 0) {
+            log.info("Shared run {} was complete, restarted with target {}", runId, iterationTarget);
+        }
+        return runRepository.findById(runId).map(CrawlRun::getIterationTarget);
+    }
+
+    /**
+     * Count one completed iteration towards the shared run
+     * @return completed iterations of all nodes, or empty when distributed mode is disabled
+     */
+    public Optional<Integer> recordCompletedIteration() {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(runRepository.incrementCompletedIterations(properties.getRunId(), LocalDateTime.now()));
+    }
+
+    /**
+     * @return completed iterations of all nodes, or empty when distributed mode is disabled
+     */
+    public Optional<Integer> getCompletedIterations() {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(runRepository.findCompletedIterations(properties.getRunId()));
+        } catch (Exception e) {
+            log.warn("Failed to read shared iteration count: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int extended = leaseRepository.heartbeat(nodeId, now, now.plusSeconds(properties.getLeaseSeconds()));
+            log.debug("Node {} extended {} account leases", nodeId, extended);
+        } catch (Exception e) {
+            log.error("Lease heartbeat failed for node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
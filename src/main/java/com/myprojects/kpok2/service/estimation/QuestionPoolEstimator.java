@@ -0,0 +1,228 @@
+package com.myprojects.kpok2.service.estimation;
+
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
+import com.myprojects.kpok2.model.dto.PoolEstimateDto;
+import com.myprojects.kpok2.repository.QuestionSightingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Estimates the size of the TestCenter question pool from per-attempt sightings.
+ * Every attempt is treated as one capture sample; questions seen once (f1) and twice (f2)
+ * drive the Chao2 incidence-based richness estimator and the Good-Turing sample coverage.
+ * Sighting frequencies are loaded from the database once and then updated incrementally.
+ */
+@Slf4j
+@Service
+public class QuestionPoolEstimator {
+
+    public static final double DEFAULT_TARGET_COVERAGE = 0.95;
+
+    private final QuestionSightingRepository sightingRepository;
+    private final Executor persistenceExecutor;
+
+    // Number of attempts each question hash was sighted in
+    private final Map<String, Integer> sightingsByHash = new HashMap<>();
+    private final Set<String> attemptIds = new HashSet<>();
+    private long totalSightings;
+    private long singletons;
+    private long doubletons;
+    private volatile boolean loaded;
+
+    public QuestionPoolEstimator(QuestionSightingRepository sightingRepository,
+                                 @Qualifier(ExecutorConfig.PERSISTENCE_EXECUTOR) Executor persistenceExecutor) {
+        this.sightingRepository = sightingRepository;
+        this.persistenceExecutor = persistenceExecutor;
+    }
+
+    /**
+     * Warm up the in-memory frequencies in the background so the first estimate is cheap
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        CompletableFuture.runAsync(this::ensureLoaded, persistenceExecutor)
+                .exceptionally(e -> {
+                    log.warn("Failed to load question sightings: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Persist the sightings of one parsed page and update the frequencies once they are committed.
+     * Sightings already recorded for the same attempt are ignored.
+     *
+     * @param attemptId TestCenter attempt the page belongs to
+     * @param questionHashes hashes of all questions on the page, new and duplicate
+     */
+    public void recordSightings(String attemptId, Collection<String> questionHashes) {
+        if (attemptId == null || attemptId.isEmpty() || questionHashes.isEmpty()) {
+            return;
+        }
+        // Load before inserting so the startup query cannot see this page's uncommitted rows
+        ensureLoaded();
+
+        // One statement per page, outside the lock, so navigation threads do not wait for each other
+        List<String> recorded = sightingRepository.insertAbsent(attemptId, Set.copyOf(questionHashes), LocalDateTime.now());
+        log.debug("Recorded {} sightings for attempt {}", recorded.size(), attemptId);
+        if (recorded.isEmpty()) {
+            return;
+        }
+
+        // A rolled back page must not count
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applySightings(attemptId, recorded);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applySightings(attemptId, recorded);
+            }
+        });
+    }
+
+    private synchronized void applySightings(String attemptId, List<String> questionHashes) {
+        if (!loaded) {
+            return; // Invalidated meanwhile; the next load reads these committed rows
+        }
+        for (String hash : questionHashes) {
+            addSighting(hash, 1);
+        }
+        attemptIds.add(attemptId);
+    }
+
+    /**
+     * Forget the in-memory frequencies, e.g. after sightings were moved to other hashes in the
+     * database; they are loaded again on the next use
+     */
+    public synchronized void invalidate() {
+        sightingsByHash.clear();
+        attemptIds.clear();
+        totalSightings = 0;
+        singletons = 0;
+        doubletons = 0;
+        loaded = false;
+    }
+
+    /**
+     * Current pool estimate for the default target coverage
+     */
+    public PoolEstimateDto getEstimate() {
+        return getEstimate(DEFAULT_TARGET_COVERAGE);
+    }
+
+    /**
+     * Current pool estimate
+     *
+     * @param targetCoverage fraction of the estimated pool that should be known
+     */
+    public synchronized PoolEstimateDto getEstimate(double targetCoverage) {
+        ensureLoaded();
+        return estimate(attemptIds.size(), totalSightings, sightingsByHash.size(),
+                singletons, doubletons, targetCoverage);
+    }
+
+    /**
+     * Compute the Chao2 pool size, coverage and the number of further attempts needed to reach
+     * the target coverage. Sightings are incidence data: every attempt is a sampling unit and a
+     * question counts at most once per attempt, so the small-sample correction uses the number of
+     * attempts T (Chao 1987; extrapolation after Chao et al. 2014).
+     */
+    static PoolEstimateDto estimate(long attempts, long sightings, long observed,
+                                    long f1, long f2, double targetCoverage) {
+        PoolEstimateDto.PoolEstimateDtoBuilder builder = PoolEstimateDto.builder()
+                .attempts(attempts)
+                .sightings(sightings)
+                .observedQuestions(observed)
+                .singletons(f1)
+                .doubletons(f2)
+                .targetCoverage(targetCoverage);
+
+        if (sightings == 0 || attempts == 0) {
+            return builder.estimatedPoolSize(0).poolCoverage(0).sampleCoverage(0).build();
+        }
+
+        double t = attempts;
+        double correction = (t - 1) / t;
+        double unseen = f2 > 0
+                ? correction * f1 * f1 / (2.0 * f2)
+                : correction * f1 * (f1 - 1) / 2.0;
+        double poolSize = observed + unseen;
+        double poolCoverage = poolSize > 0 ? observed / poolSize : 0;
+
+        // Good-Turing coverage of the incidences, with the Chao-Jost correction for f2
+        double adjustment = (t - 1) * f1 + 2.0 * f2;
+        double sampleCoverage = f1 == 0
+                ? 1.0
+                : 1.0 - ((double) f1 / sightings) * (adjustment > 0 ? (t - 1) * f1 / adjustment : 1.0);
+
+        builder.estimatedPoolSize(poolSize)
+                .poolCoverage(poolCoverage)
+                .sampleCoverage(sampleCoverage);
+
+        if (poolCoverage >= targetCoverage) {
+            return builder.additionalIterationsToTarget(0L).build();
+        }
+        if (f1 == 0 || f2 == 0 || attempts < 2 || targetCoverage >= 1.0) {
+            // Not enough recaptures yet to extrapolate
+            return builder.build();
+        }
+
+        double additionalAttempts = (t * f1 / (2.0 * f2))
+                * Math.log(unseen / ((1 - targetCoverage) * poolSize));
+        return builder.additionalIterationsToTarget((long) Math.ceil(Math.max(0, additionalAttempts))).build();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        for (Object[] row : sightingRepository.countSightingsByHash()) {
+            addSighting((String) row[0], ((Number) row[1]).intValue());
+        }
+        List<String> attempts = sightingRepository.findDistinctAttemptIds();
+        attemptIds.addAll(attempts);
+        loaded = true;
+        log.info("Loaded {} sightings of {} questions from {} attempts in {} ms",
+                totalSightings, sightingsByHash.size(), attemptIds.size(), System.currentTimeMillis() - start);
+    }
+
+    private void addSighting(String hash, int count) {
+        int previous = sightingsByHash.getOrDefault(hash, 0);
+        int current = previous + count;
+        sightingsByHash.put(hash, current);
+        totalSightings += count;
+        adjustFrequencyOfFrequency(previous, -1);
+        adjustFrequencyOfFrequency(current, 1);
+    }
+
+    private void adjustFrequencyOfFrequency(int frequency, int delta) {
+        if (frequency == 1) {
+            singletons += delta;
+        } else if (frequency == 2) {
+            doubletons += delta;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.myprojects.kpok2.service.mapper;
 
 import com.myprojects.kpok2.model.TestQuestion;
 import com.myprojects.kpok2.model.dto.ParsedTestQuestionDto;
+import com.myprojects.kpok2.service.parser.TestNormalizer;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
  */
 @Mapper(
     componentModel = "spring", 
-    imports = {LocalDateTime.class},
+    imports = {LocalDateTime.class, TestNormalizer.class},
     uses = {TestQuestionMapperUtils.class},
     unmappedTargetPolicy = ReportingPolicy.IGNORE
 )
@@ -26,6 +27,12 @@ public interface TestQuestionMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "questionHash", expression = "java(TestQuestionMapperUtils.generateHash(dto.getNormalizedText(), dto.getAnswers(), dto.getNormalizedCorrectAnswer()))")
     @Mapping(target = "parsedAt", expression = "java(LocalDateTime.now())")
+    @Mapping(target = "seenCount", constant = "1L")
+    @Mapping(target = "firstSeen", expression = "java(LocalDateTime.now())")
+    @Mapping(target = "lastSeen", expression = "java(LocalDateTime.now())")
+    @Mapping(target = "answerConflict", constant = "false")
+    @Mapping(target = "normalizerVersion", expression = "java(TestNormalizer.VERSION)")
+    @Mapping(target = "hashVersion", expression = "java(TestQuestionMapperUtils.HASH_VERSION)")
     @Mapping(target = "possibleAnswersJson", expression = "java(TestQuestionMapperUtils.answersToJson(dto.getAnswers()))")
     @Mapping(target = "questionText", source = "dto.questionText")
     @Mapping(target = "normalizedText", source = "dto.normalizedText")
@@ -17,6 +17,12 @@ import java.util.List;
 @Component
 public class TestQuestionMapperUtils {
     
+    /**
+     * Version of the question hash rules. Bump it with every change to {@link #generateHash}:
+     * stored hashes built with another version are recomputed by the rehash migration.
+     */
+    public static final int HASH_VERSION = 1;
+    
     private static ObjectMapper objectMapper;
     
     public TestQuestionMapperUtils(ObjectMapper objectMapper) {
@@ -0,0 +1,111 @@
+package com.myprojects.kpok2.service.metrics;
+
+import com.myprojects.kpok2.service.navigation.AccountManager;
+import com.myprojects.kpok2.service.navigation.WebDriverFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the crawl: a timer with percentile histogram per step,
+ * question counters and session gauges. Meters are created once, so recording is a lock-free
+ * update without registry lookups.
+ */
+@Component
+public class CrawlMetrics {
+
+    /**
+     * Steps of an iteration and of parsing a page
+     */
+    public enum Step {
+        AUTHENTICATE("authenticate"),
+        NAVIGATE_TO_TEST_PAGE("navigateToTestPage"),
+        CLICK_ATTEMPT_TEST_BUTTON("clickAttemptTestButton"),
+        CLICK_START_ATTEMPT_BUTTON("clickStartAttemptButton"),
+        FINISH("finish"),
+        SUBMIT("submit"),
+        CONFIRM("confirm"),
+        REVIEW_FETCH("reviewFetch"),
+        PARSE("parse"),
+        SAVE("save");
+
+        private final String tag;
+
+        Step(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private final Map<Step, Timer> stepTimers = new EnumMap<>(Step.class);
+    private final Timer iterationTimer;
+    private final Counter newQuestions;
+    private final Counter duplicateQuestions;
+
+    public CrawlMetrics(MeterRegistry registry, AccountManager accountManager, WebDriverFactory webDriverFactory) {
+        for (Step step : Step.values()) {
+            stepTimers.put(step, Timer.builder("kpok2.step.duration")
+                    .description("Duration of one crawl step, including in-place retries")
+                    .tag("step", step.getTag())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(10))
+                    .maximumExpectedValue(Duration.ofMinutes(2))
+                    .register(registry));
+        }
+        iterationTimer = Timer.builder("kpok2.iteration.duration")
+                .description("Duration of one navigation iteration")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(registry);
+
+        newQuestions = Counter.builder("kpok2.questions")
+                .description("Parsed questions by whether they were new")
+                .tag("type", "new")
+                .register(registry);
+        duplicateQuestions = Counter.builder("kpok2.questions")
+                .description("Parsed questions by whether they were new")
+                .tag("type", "duplicate")
+                .register(registry);
+
+        Gauge.builder("kpok2.sessions.active", accountManager,
+                        manager -> manager.getAccountCount() - manager.getAvailableAccountCount())
+                .description("Navigation sessions currently holding an account")
+                .register(registry);
+        Gauge.builder("kpok2.browsers.live", webDriverFactory, WebDriverFactory::getLiveDriverCount)
+                .description("Browser instances currently open, in use or idle")
+                .register(registry);
+        Gauge.builder("kpok2.browsers.idle", webDriverFactory, WebDriverFactory::getIdleDriverCount)
+                .description("Browser instances waiting in the pool")
+                .register(registry);
+    }
+
+    /**
+     * Record a step that started at the given {@link System#nanoTime()}
+     */
+    public void recordStep(Step step, long startNanos) {
+        stepTimers.get(step).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record an iteration that started at the given {@link System#nanoTime()}
+     */
+    public void recordIteration(long startNanos) {
+        iterationTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordQuestions(int newCount, int duplicateCount) {
+        newQuestions.increment(newCount);
+        duplicateQuestions.increment(duplicateCount);
+    }
+}
@@ -0,0 +1,67 @@
+package com.myprojects.kpok2.service.metrics.jfr;
+
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import com.myprojects.kpok2.service.metrics.CrawlMetrics.Step;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One step of a navigation iteration, including its in-place retries
+ */
+@Name("kpok2.CrawlStep")
+@Label("Crawl Step")
+@Category({"KPOK2", "Crawl"})
+@Description("One step of a navigation iteration, including its in-place retries")
+@StackTrace(false)
+public class CrawlStepEvent extends Event {
+
+    @Label("Step")
+    String step;
+
+    @Label("Account")
+    String account;
+
+    @Label("Attempt ID")
+    String attemptId;
+
+    @Label("Tries")
+    int tries = 1;
+
+    @Label("Outcome")
+    @Description("SUCCESS, or the class of the last failure")
+    String outcome = JfrOutcome.FAILED;
+
+    /**
+     * Start timing a step
+     */
+    public static CrawlStepEvent begin(Step step, String account, String attemptId) {
+        CrawlStepEvent event = new CrawlStepEvent();
+        event.step = step.getTag();
+        event.account = account;
+        event.attemptId = attemptId;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Note a failed try of the step
+     */
+    public void failed(int tries, ParsingErrorType failure) {
+        this.tries = tries;
+        this.outcome = failure.name();
+    }
+
+    public void finish(boolean success) {
+        end();
+        if (shouldCommit()) {
+            if (success) {
+                outcome = JfrOutcome.SUCCESS;
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.myprojects.kpok2.service.metrics.jfr;
+
+import com.myprojects.kpok2.model.dto.RecordingStatusDto;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Starts, dumps and stops an in-process Java Flight Recorder recording. The recording holds
+ * the JDK events of the chosen settings (GC, locks, I/O, sampling) together with the crawl
+ * events of this package, so stalls can be matched to individual iterations and pages.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+
+    private final Path directory;
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+    private Path lastDumpPath;
+
+    public FlightRecordingService(
+            @Value("${app.jfr.directory:${user.home}/.kpok2/recordings}") String directory,
+            @Value("${app.jfr.settings:profile}") String settings,
+            @Value("${app.jfr.max-age-minutes:30}") long maxAgeMinutes,
+            @Value("${app.jfr.max-size-mb:250}") long maxSizeMb) {
+        this.directory = Paths.get(directory);
+        this.settings = settings;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Start a recording unless one is already running
+     * @throws IllegalStateException if the settings cannot be loaded
+     */
+    public synchronized RecordingStatusDto start() {
+        if (recording != null) {
+            log.info("Flight recording is already running");
+            return getStatus();
+        }
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+            newRecording.setName("kpok2");
+            newRecording.setToDisk(true);
+            newRecording.setMaxAge(maxAge);
+            newRecording.setMaxSize(maxSizeBytes);
+            newRecording.start();
+            recording = newRecording;
+            log.info("Flight recording started with '{}' settings", settings);
+            return getStatus();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load JFR settings '" + settings + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the data recorded so far to a new file; the recording keeps running
+     * @throws IllegalStateException if no recording is running or the file cannot be written
+     */
+    public synchronized RecordingStatusDto dump() {
+        if (recording == null) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        writeDump();
+        return getStatus();
+    }
+
+    /**
+     * Stop the recording and write it to a new file
+     * @throws IllegalStateException if no recording is running or the file cannot be written
+     */
+    public synchronized RecordingStatusDto stop() {
+        if (recording == null) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        try {
+            recording.stop();
+            writeDump();
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        log.info("Flight recording stopped");
+        return getStatus();
+    }
+
+    public synchronized RecordingStatusDto getStatus() {
+        RecordingStatusDto.RecordingStatusDtoBuilder status = RecordingStatusDto.builder()
+                .recording(recording != null)
+                .settings(settings)
+                .lastDumpPath(lastDumpPath != null ? lastDumpPath.toString() : null);
+        if (recording != null && recording.getStartTime() != null) {
+            status.startedAt(recording.getStartTime().toEpochMilli())
+                    .durationMs(System.currentTimeMillis() - recording.getStartTime().toEpochMilli())
+                    .sizeBytes(recording.getSize());
+        }
+        return status.build();
+    }
+
+    private void writeDump() {
+        Path file = directory.resolve("kpok2_" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            recording.dump(file);
+            lastDumpPath = file;
+            log.info("Flight recording written to {}", file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write flight recording to " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
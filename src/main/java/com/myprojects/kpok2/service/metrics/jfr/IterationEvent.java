@@ -0,0 +1,52 @@
+package com.myprojects.kpok2.service.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One navigation iteration of a worker, from login to the parsed review pages
+ */
+@Name("kpok2.Iteration")
+@Label("Crawl Iteration")
+@Category({"KPOK2", "Crawl"})
+@Description("One navigation iteration, from login to the parsed review pages")
+@StackTrace(false)
+public class IterationEvent extends Event {
+
+    @Label("Account")
+    String account;
+
+    @Label("Attempt ID")
+    String attemptId;
+
+    @Label("Resumed")
+    @Description("Whether review pages of an interrupted run were harvested instead of starting an attempt")
+    boolean resumed;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Start timing an iteration
+     */
+    public static IterationEvent begin(String account, boolean resumed) {
+        IterationEvent event = new IterationEvent();
+        event.account = account;
+        event.resumed = resumed;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String attemptId, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.attemptId = attemptId;
+            this.outcome = success ? JfrOutcome.SUCCESS : JfrOutcome.FAILED;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.myprojects.kpok2.service.metrics.jfr;
+
+/**
+ * Outcome values shared by the crawl events; failures of classified errors carry the
+ * {@link com.myprojects.kpok2.exception.parser.ParsingErrorType} name instead
+ */
+final class JfrOutcome {
+
+    static final String SUCCESS = "SUCCESS";
+    static final String FAILED = "FAILED";
+
+    private JfrOutcome() {
+    }
+}
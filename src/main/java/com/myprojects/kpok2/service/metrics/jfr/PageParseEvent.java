@@ -0,0 +1,67 @@
+package com.myprojects.kpok2.service.metrics.jfr;
+
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fetching, parsing and saving one review page
+ */
+@Name("kpok2.PageParse")
+@Label("Review Page")
+@Category({"KPOK2", "Parsing"})
+@Description("Fetching, parsing and saving the questions of one review page")
+@StackTrace(false)
+public class PageParseEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Account")
+    String account;
+
+    @Label("Attempt ID")
+    String attemptId;
+
+    @Label("Questions")
+    int questions;
+
+    @Label("New Questions")
+    int newQuestions;
+
+    @Label("Outcome")
+    @Description("SUCCESS, or the class of the failure")
+    String outcome = JfrOutcome.FAILED;
+
+    /**
+     * Start timing a page
+     */
+    public static PageParseEvent begin(String url, String account, String attemptId) {
+        PageParseEvent event = new PageParseEvent();
+        event.url = url;
+        event.account = account;
+        event.attemptId = attemptId;
+        event.begin();
+        return event;
+    }
+
+    public void setQuestions(int questions, int newQuestions) {
+        this.questions = questions;
+        this.newQuestions = newQuestions;
+    }
+
+    /**
+     * @param failure class of the failure, or null if the page was saved
+     */
+    public void finish(ParsingErrorType failure) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = failure != null ? failure.name() : JfrOutcome.SUCCESS;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.myprojects.kpok2.service.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Extracting the questions of one parsed HTML document
+ */
+@Name("kpok2.QuestionParse")
+@Label("Question Extraction")
+@Category({"KPOK2", "Parsing"})
+@Description("Extracting questions, answers and correct answers from one parsed HTML document")
+@StackTrace(false)
+public class QuestionParseEvent extends Event {
+
+    @Label("Question Elements")
+    int questionElements;
+
+    @Label("Questions")
+    int questions;
+
+    @Label("Failed Elements")
+    int failedElements;
+
+    public void finish(int questionElements, int questions, int failedElements) {
+        end();
+        if (shouldCommit()) {
+            this.questionElements = questionElements;
+            this.questions = questions;
+            this.failedElements = failedElements;
+            commit();
+        }
+    }
+}
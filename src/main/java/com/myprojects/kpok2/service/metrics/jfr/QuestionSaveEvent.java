@@ -0,0 +1,51 @@
+package com.myprojects.kpok2.service.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Saving the questions of one page in the database
+ */
+@Name("kpok2.QuestionSave")
+@Label("Question Save")
+@Category({"KPOK2", "Persistence"})
+@Description("Uniqueness checks and inserts for the questions of one page")
+@StackTrace(false)
+public class QuestionSaveEvent extends Event {
+
+    @Label("Attempt ID")
+    String attemptId;
+
+    @Label("Questions")
+    int questions;
+
+    @Label("New Questions")
+    int newQuestions;
+
+    @Label("Outcome")
+    String outcome = JfrOutcome.FAILED;
+
+    public static QuestionSaveEvent begin(String attemptId, int questions) {
+        QuestionSaveEvent event = new QuestionSaveEvent();
+        event.attemptId = attemptId;
+        event.questions = questions;
+        event.begin();
+        return event;
+    }
+
+    public void setNewQuestions(int newQuestions) {
+        this.newQuestions = newQuestions;
+        this.outcome = JfrOutcome.SUCCESS;
+    }
+
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.myprojects.kpok2.service.migration;
+
+import com.myprojects.kpok2.model.TestQuestion;
+import com.myprojects.kpok2.model.dto.RehashStatusDto;
+import com.myprojects.kpok2.repository.QuestionSightingRepository;
+import com.myprojects.kpok2.repository.TestQuestionRepository;
+import com.myprojects.kpok2.service.QuestionSightingCounter;
+import com.myprojects.kpok2.service.dedup.NearDuplicateService;
+import com.myprojects.kpok2.service.estimation.QuestionPoolEstimator;
+import com.myprojects.kpok2.service.mapper.TestQuestionMapperUtils;
+import com.myprojects.kpok2.service.navigation.NavigationService;
+import com.myprojects.kpok2.service.parser.TestNormalizer;
+import com.myprojects.kpok2.util.JsonConverter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Brings stored questions up to the current {@link TestNormalizer#VERSION} and
+ * {@link TestQuestionMapperUtils#HASH_VERSION}. Stale rows are read in keyset chunks, their
+ * normalized fields and hash are recomputed on a fork-join pool, and every chunk is written
+ * in its own transaction. A row whose new hash is already taken is merged into the older of
+ * the two rows, together with its sightings, and its near-duplicate links are moved to the row
+ * that is kept. After every chunk the in-memory sighting counts and near-duplicate index are
+ * brought in line, and a clustering pass runs once the migration stops.
+ * <p>
+ * Migrated rows carry the current versions, so a stopped or failed migration resumes where it
+ * left off when started again. It pauses between chunks, longer while a crawl is running.
+ */
+@Slf4j
+@Service
+public class QuestionRehashMigration {
+
+    public enum Status {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private final TestQuestionRepository questionRepository;
+    private final QuestionSightingRepository sightingRepository;
+    private final TestNormalizer normalizer;
+    private final JsonConverter jsonConverter;
+    private final NavigationService navigationService;
+    private final NearDuplicateService nearDuplicateService;
+    private final QuestionPoolEstimator poolEstimator;
+    private final QuestionSightingCounter sightingCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final boolean autoStart;
+
+    private volatile long delayMs;
+    private volatile long crawlDelayMs;
+
+    private volatile Status status = Status.IDLE;
+    private volatile boolean cancelRequested;
+    private volatile boolean throttledByCrawl;
+    private volatile long staleAtStart;
+    private volatile long processed;
+    private volatile long rehashed;
+    private volatile long merged;
+    private volatile long chunks;
+    private volatile long lastId;
+    private volatile long startedAt;
+    private volatile Long finishedAt;
+    private volatile String errorMessage;
+
+    public QuestionRehashMigration(TestQuestionRepository questionRepository,
+                                   QuestionSightingRepository sightingRepository,
+                                   TestNormalizer normalizer,
+                                   JsonConverter jsonConverter,
+                                   NavigationService navigationService,
+                                   NearDuplicateService nearDuplicateService,
+                                   QuestionPoolEstimator poolEstimator,
+                                   QuestionSightingCounter sightingCounter,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.migration.rehash.chunk-size:500}") int chunkSize,
+                                   @Value("${app.migration.rehash.parallelism:2}") int parallelism,
+                                   @Value("${app.migration.rehash.delay-ms:0}") long delayMs,
+                                   @Value("${app.migration.rehash.crawl-delay-ms:2000}") long crawlDelayMs,
+                                   @Value("${app.migration.rehash.auto-start:true}") boolean autoStart) {
+        this.questionRepository = questionRepository;
+        this.sightingRepository = sightingRepository;
+        this.normalizer = normalizer;
+        this.jsonConverter = jsonConverter;
+        this.navigationService = navigationService;
+        this.nearDuplicateService = nearDuplicateService;
+        this.poolEstimator = poolEstimator;
+        this.sightingCounter = sightingCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.delayMs = Math.max(0, delayMs);
+        this.crawlDelayMs = Math.max(0, crawlDelayMs);
+        this.autoStart = autoStart;
+    }
+
+    /**
+     * Start the migration at startup when questions were built with other versions
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startIfStale() {
+        if (!autoStart) {
+            return;
+        }
+        try {
+            long stale = questionRepository.countStale(TestNormalizer.VERSION, TestQuestionMapperUtils.HASH_VERSION);
+            if (stale > 0) {
+                log.info("{} questions were built with older normalizer or hash rules", stale);
+                start();
+            }
+        } catch (Exception e) {
+            log.warn("Could not check questions for older normalizer or hash rules: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Start migrating stale questions in the background
+     * @throws IllegalStateException if the migration is already running
+     */
+    public synchronized RehashStatusDto start() {
+        if (status == Status.RUNNING) {
+            throw new IllegalStateException("Rehash migration is already running");
+        }
+        cancelRequested = false;
+        throttledByCrawl = false;
+        processed = 0;
+        rehashed = 0;
+        merged = 0;
+        chunks = 0;
+        lastId = 0;
+        finishedAt = null;
+        errorMessage = null;
+        startedAt = System.currentTimeMillis();
+        staleAtStart = questionRepository.countStale(TestNormalizer.VERSION, TestQuestionMapperUtils.HASH_VERSION);
+        status = Status.RUNNING;
+
+        Thread coordinator = new Thread(this::run, "RehashMigration");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        log.info("Started rehash migration of {} questions to normalizer v{} / hash v{}",
+                staleAtStart, TestNormalizer.VERSION, TestQuestionMapperUtils.HASH_VERSION);
+        return getStatus();
+    }
+
+    /**
+     * Stop after the current chunk; the next start resumes with the remaining questions
+     * @throws IllegalStateException if the migration is not running
+     */
+    public RehashStatusDto cancel() {
+        if (status != Status.RUNNING) {
+            throw new IllegalStateException("Rehash migration is not running");
+        }
+        cancelRequested = true;
+        return getStatus();
+    }
+
+    /**
+     * Change the pauses between chunks, also while the migration is running
+     * @param delayMs pause between chunks, or null to keep it
+     * @param crawlDelayMs pause between chunks while a crawl is running, or null to keep it
+     */
+    public RehashStatusDto throttle(Long delayMs, Long crawlDelayMs) {
+        if (delayMs != null) {
+            this.delayMs = Math.max(0, delayMs);
+        }
+        if (crawlDelayMs != null) {
+            this.crawlDelayMs = Math.max(0, crawlDelayMs);
+        }
+        log.info("Rehash migration pauses {} ms between chunks, {} ms while crawling", this.delayMs, this.crawlDelayMs);
+        return getStatus();
+    }
+
+    public RehashStatusDto getStatus() {
+        long end = finishedAt != null ? finishedAt : System.currentTimeMillis();
+        double elapsedSeconds = startedAt > 0 ? Math.max(1, end - startedAt) / 1000.0 : 0;
+        return RehashStatusDto.builder()
+                .status(status)
+                .normalizerVersion(TestNormalizer.VERSION)
+                .hashVersion(TestQuestionMapperUtils.HASH_VERSION)
+                .staleAtStart(staleAtStart)
+                .processed(processed)
+                .rehashed(rehashed)
+                .merged(merged)
+                .chunks(chunks)
+                .lastId(lastId)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .questionsPerSecond(elapsedSeconds > 0 ? processed / elapsedSeconds : 0)
+                .delayMs(delayMs)
+                .crawlDelayMs(crawlDelayMs)
+                .throttledByCrawl(throttledByCrawl)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (status == Status.RUNNING) {
+            cancelRequested = true;
+        }
+    }
+
+    private void run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (!cancelRequested) {
+                List<TestQuestion> chunk = questionRepository.findStaleAfter(lastId,
+                        TestNormalizer.VERSION, TestQuestionMapperUtils.HASH_VERSION, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                // Normalizing and hashing is pure CPU work on detached rows, so it runs outside the transaction
+                List<Recomputed> results = pool.submit(() -> chunk.parallelStream().map(this::recompute).toList()).get();
+                ChunkChanges changes = transactionTemplate.execute(tx -> apply(results));
+                if (changes != null) {
+                    afterCommit(changes);
+                }
+
+                lastId = chunk.get(chunk.size() - 1).getId();
+                processed += chunk.size();
+                chunks++;
+                if (chunks % 20 == 0) {
+                    log.info("Rehash migration: {}/{} questions, {} rehashed, {} merged",
+                            processed, staleAtStart, rehashed, merged);
+                }
+                pause();
+            }
+            finish(cancelRequested ? Status.CANCELLED : Status.COMPLETED, null);
+            recluster();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(Status.FAILED, "Interrupted");
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Rehash migration failed after question id {}: {}", lastId, cause.getMessage(), cause);
+            finish(Status.FAILED, cause.getMessage());
+            recluster();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void finish(Status finalStatus, String error) {
+        errorMessage = error;
+        finishedAt = System.currentTimeMillis();
+        status = finalStatus;
+        log.info("Rehash migration {}: {} questions processed, {} rehashed, {} merged",
+                finalStatus, processed, rehashed, merged);
+    }
+
+    /**
+     * Bring the in-memory state of other services in line with a committed chunk
+     */
+    private void afterCommit(ChunkChanges changes) {
+        if (!changes.newHashes().isEmpty()) {
+            sightingCounter.rehash(changes.newHashes());
+            poolEstimator.invalidate();
+        }
+        if (!changes.mergedInto().isEmpty()) {
+            nearDuplicateService.remove(changes.mergedInto().keySet());
+        }
+    }
+
+    /**
+     * Normalized texts changed and merged questions left cluster links behind, so cluster the bank again
+     */
+    private void recluster() {
+        if (processed > 0 && !nearDuplicateService.startClustering()) {
+            log.info("Near-duplicate clustering is disabled or already running, not started after the rehash migration");
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        boolean crawling = navigationService.isRunning();
+        throttledByCrawl = crawling;
+        long pause = crawling ? crawlDelayMs : delayMs;
+        if (pause > 0) {
+            Thread.sleep(pause);
+        }
+    }
+
+    private Recomputed recompute(TestQuestion question) {
+        String normalizedText = normalizer.normalizeText(question.getQuestionText());
+        String normalizedCorrectAnswer = normalizer.normalizeText(question.getCorrectAnswer());
+        String hash = TestQuestionMapperUtils.generateHash(normalizedText,
+                jsonConverter.getAnswersFromJson(question), normalizedCorrectAnswer);
+        return new Recomputed(question.getId(), normalizedText, normalizedCorrectAnswer, hash);
+    }
+
+    /**
+     * Write one chunk; runs in a transaction
+     * @return hashes and questions changed by the chunk, to be applied once it commits
+     */
+    ChunkChanges apply(List<Recomputed> results) {
+        Map<String, String> newHashes = new HashMap<>();
+        Map<Long, Long> mergedInto = new HashMap<>();
+        Map<Long, TestQuestion> questions = questionRepository.findAllById(
+                        results.stream().map(Recomputed::id).toList()).stream()
+                .collect(Collectors.toMap(TestQuestion::getId, Function.identity()));
+
+        for (Recomputed result : results) {
+            TestQuestion question = questions.get(result.id());
+            if (question == null) {
+                continue; // Merged away by an earlier row of this chunk
+            }
+            String oldHash = question.getQuestionHash();
+            if (result.hash().equals(oldHash)) {
+                update(question, result);
+                continue;
+            }
+
+            newHashes.put(oldHash, result.hash());
+            Optional<TestQuestion> holder = questionRepository.findByQuestionHash(result.hash());
+            if (holder.isEmpty()) {
+                sightingRepository.rehash(oldHash, result.hash());
+                update(question, result);
+                rehashed++;
+            } else if (holder.get().getId() < question.getId()) {
+                // The older row already has the new hash: it keeps it and absorbs this one
+                TestQuestion survivor = holder.get();
+                mergeInto(survivor, question);
+                questions.remove(question.getId());
+                questionRepository.delete(question);
+                questionRepository.flush();
+                repointNearDuplicates(question.getId(), survivor, questions.values());
+                sightingRepository.rehash(oldHash, result.hash());
+                mergedInto.put(question.getId(), survivor.getId());
+                merged++;
+            } else {
+                // A newer row, e.g. saved by a crawl with the new rules, took the hash: this row absorbs it
+                TestQuestion duplicate = holder.get();
+                mergeInto(question, duplicate);
+                questions.remove(duplicate.getId());
+                questionRepository.delete(duplicate);
+                questionRepository.flush();
+                repointNearDuplicates(duplicate.getId(), question, questions.values());
+                sightingRepository.rehash(oldHash, result.hash());
+                update(question, result);
+                mergedInto.put(duplicate.getId(), question.getId());
+                merged++;
+            }
+        }
+        return new ChunkChanges(newHashes, mergedInto);
+    }
+
+    /**
+     * Link the questions of a deleted question's cluster to the cluster of the question that absorbed it
+     */
+    private void repointNearDuplicates(long deletedId, TestQuestion survivor, Collection<TestQuestion> loaded) {
+        if (Objects.equals(survivor.getNearDuplicateOf(), deletedId)) {
+            survivor.setNearDuplicateOf(null);
+        }
+        long clusterId = survivor.getNearDuplicateOf() != null ? survivor.getNearDuplicateOf() : survivor.getId();
+        questionRepository.repointNearDuplicateOf(deletedId, clusterId);
+        // The bulk update bypasses loaded rows, which would write their old link back when flushed
+        for (TestQuestion question : loaded) {
+            if (Objects.equals(question.getNearDuplicateOf(), deletedId)) {
+                question.setNearDuplicateOf(question.getId().equals(clusterId) ? null : clusterId);
+            }
+        }
+    }
+
+    private static void update(TestQuestion question, Recomputed result) {
+        question.setNormalizedText(result.normalizedText());
+        question.setNormalizedCorrectAnswer(result.normalizedCorrectAnswer());
+        question.setQuestionHash(result.hash());
+        question.setNormalizerVersion(TestNormalizer.VERSION);
+        question.setHashVersion(TestQuestionMapperUtils.HASH_VERSION);
+    }
+
+    /**
+     * Fold the counters and timestamps of a duplicate into the question that is kept
+     */
+    static void mergeInto(TestQuestion survivor, TestQuestion duplicate) {
+        survivor.setSeenCount(seenCount(survivor) + seenCount(duplicate));
+        survivor.setFirstSeen(earliest(survivor.getFirstSeen(), duplicate.getFirstSeen()));
+        survivor.setParsedAt(earliest(survivor.getParsedAt(), duplicate.getParsedAt()));
+        LocalDateTime lastSeen = survivor.getLastSeen();
+        if (lastSeen == null || (duplicate.getLastSeen() != null && duplicate.getLastSeen().isAfter(lastSeen))) {
+            survivor.setLastSeen(duplicate.getLastSeen());
+        }
+        survivor.setAnswerConflict(Boolean.TRUE.equals(survivor.getAnswerConflict())
+                || Boolean.TRUE.equals(duplicate.getAnswerConflict()));
+    }
+
+    private static long seenCount(TestQuestion question) {
+        return question.getSeenCount() != null ? question.getSeenCount() : 1;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isBefore(a) ? b : a;
+    }
+
+    record Recomputed(long id, String normalizedText, String normalizedCorrectAnswer, String hash) {
+    }
+
+    /**
+     * @param newHashes new hash by old hash of every question whose hash changed
+     * @param mergedInto id of the absorbing question by id of every deleted question
+     */
+    record ChunkChanges(Map<String, String> newHashes, Map<Long, Long> mergedInto) {
+    }
+}
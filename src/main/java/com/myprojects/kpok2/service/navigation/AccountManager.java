@@ -1,10 +1,14 @@
 package com.myprojects.kpok2.service.navigation;
 
+import com.myprojects.kpok2.service.distributed.DistributedCoordinator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -12,6 +16,7 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * Manages a pool of TestCenter accounts for parallel processing.
  * Each thread will be assigned a unique account.
+ * In distributed mode an account is only handed out once this node holds its database lease.
  */
 @Slf4j
 @Component
@@ -19,6 +24,11 @@ public class AccountManager {
     
     private final List<AccountCredentials> accountPool = new ArrayList<>();
     private final Lock accountLock = new ReentrantLock();
+    private final DistributedCoordinator coordinator;
+    
+    public AccountManager(DistributedCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
     
     /**
      * Acquire an available account for the current thread.
@@ -28,28 +38,71 @@ public class AccountManager {
      * @throws InterruptedException if the thread is interrupted while waiting
      */
     public AccountCredentials acquireAccount() throws InterruptedException {
-        accountLock.lock();
-        try {
-            Optional<AccountCredentials> availableAccount;
-            while (true) {
-                availableAccount = accountPool.stream()
+        return acquireAccount(Collections.emptySet());
+    }
+    
+    /**
+     * Acquire an available account, preferring one of the given usernames when it is free.
+     * Falls back to any available account otherwise.
+     *
+     * @param preferredUsernames usernames to try first
+     * @return AccountCredentials for the assigned account
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public AccountCredentials acquireAccount(Collection<String> preferredUsernames) throws InterruptedException {
+        while (true) {
+            // Preferred accounts first
+            List<AccountCredentials> candidates;
+            accountLock.lock();
+            try {
+                candidates = accountPool.stream()
                         .filter(account -> !account.isInUse())
-                        .findFirst();
-                
-                if (availableAccount.isPresent()) {
-                    AccountCredentials account = availableAccount.get();
-                    account.setInUse(true);
+                        .sorted(Comparator.comparing(
+                                (AccountCredentials account) -> !preferredUsernames.contains(account.getUsername())))
+                        .toList();
+            } finally {
+                accountLock.unlock();
+            }
+            
+            for (AccountCredentials account : candidates) {
+                if (!reserve(account)) {
+                    continue; // Taken by another thread meanwhile
+                }
+                // In distributed mode the database lease is taken outside the lock, so other threads
+                // are not held up by the round-trip; accounts leased by other nodes are skipped
+                if (coordinator.tryLease(account.getUsername())) {
                     log.info("Account acquired: {}", account.getUsername());
                     return account;
                 }
-                
-                // If no account is available, wait and try again
-                log.warn("No accounts available, waiting for release...");
-                // Release lock while waiting to avoid deadlock
-                accountLock.unlock();
-                Thread.sleep(1000);
-                accountLock.lock();
+                unreserve(account);
             }
+            
+            // If no account is available, wait and try again
+            log.warn("No accounts available, waiting for release...");
+            Thread.sleep(1000);
+        }
+    }
+    
+    /**
+     * Mark an account as in use unless another thread already did
+     */
+    private boolean reserve(AccountCredentials account) {
+        accountLock.lock();
+        try {
+            if (account.isInUse()) {
+                return false;
+            }
+            account.setInUse(true);
+            return true;
+        } finally {
+            accountLock.unlock();
+        }
+    }
+    
+    private void unreserve(AccountCredentials account) {
+        accountLock.lock();
+        try {
+            account.setInUse(false);
         } finally {
             accountLock.unlock();
         }
@@ -61,18 +114,21 @@ public class AccountManager {
      * @param account The account to release
      */
     public void releaseAccount(AccountCredentials account) {
+        Optional<AccountCredentials> pooled;
         accountLock.lock();
         try {
-            accountPool.stream()
+            pooled = accountPool.stream()
                     .filter(a -> a.getUsername().equals(account.getUsername()))
-                    .findFirst()
-                    .ifPresent(a -> {
-                        a.setInUse(false);
-                        log.info("Account released: {}", a.getUsername());
-                    });
+                    .findFirst();
         } finally {
             accountLock.unlock();
         }
+        pooled.ifPresent(a -> {
+            // Give up the lease before the account is free again, and outside the lock
+            coordinator.release(a.getUsername());
+            unreserve(a);
+            log.info("Account released: {}", a.getUsername());
+        });
     }
     
     /**
@@ -85,6 +141,7 @@ public class AccountManager {
         accountLock.lock();
         try {
             accountPool.add(new AccountCredentials(username, password));
+            coordinator.registerAccount(username);
             log.info("Added account to pool: {}", username);
         } finally {
             accountLock.unlock();
@@ -1,60 +1,37 @@
 package com.myprojects.kpok2.service.navigation;
 
-import com.myprojects.kpok2.config.TestCenterProperties;
-import com.myprojects.kpok2.service.AccountConfigurationService;
-import com.myprojects.kpok2.service.parser.TestParsingRunner;
-import com.myprojects.kpok2.service.parser.TestParsingStatistics;
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Service
 public class NavigationManager {
-    private final TestCenterProperties properties;
-    private final TestCenterNavigator navigator;
-    private final NavigationSessionFactory sessionFactory;
-    private final TestParsingRunner testParsingRunner;
-    private final TestParsingStatistics parsingStatistics;
-    private final AccountConfigurationService accountService;
+    private final NavigationService navigationService;
+    private final Executor navigationExecutor;
     private final AtomicBoolean isRunning;
     private CompletableFuture<Void> navigationFuture;
 
-    public NavigationManager(
-            TestCenterProperties properties,
-            TestCenterNavigator navigator,
-            NavigationSessionFactory sessionFactory,
-            TestParsingRunner testParsingRunner,
-            TestParsingStatistics parsingStatistics,
-            AccountConfigurationService accountService
-    ) {
-        this.properties = properties;
-        this.navigator = navigator;
-        this.sessionFactory = sessionFactory;
-        this.testParsingRunner = testParsingRunner;
-        this.parsingStatistics = parsingStatistics;
-        this.accountService = accountService;
+    public NavigationManager(NavigationService navigationService,
+                             @Qualifier(ExecutorConfig.NAVIGATION_EXECUTOR) Executor navigationExecutor) {
+        this.navigationService = navigationService;
+        this.navigationExecutor = navigationExecutor;
         this.isRunning = new AtomicBoolean(false);
     }
 
-    public boolean startNavigation() {
+    public synchronized boolean startNavigation() {
         if (isRunning.get()) {
             log.warn("Navigation is already running");
             return false;
         }
 
         try {
-            NavigationService navigationService = new NavigationService(
-                    properties,
-                    navigator,
-                    sessionFactory,
-                    testParsingRunner,
-                    parsingStatistics,
-                    accountService
-            );
-
             log.info("Starting navigation process...");
             boolean success = navigationService.startNavigation();
 
@@ -71,7 +48,7 @@ public class NavigationManager {
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                     }
-                });
+                }, navigationExecutor);
                 
                 return true;
             } else {
@@ -84,7 +61,7 @@ public class NavigationManager {
         }
     }
 
-    public void stopNavigation() {
+    public synchronized void stopNavigation() {
         if (!isRunning.get()) {
             log.warn("Navigation is not running");
             return;
@@ -98,10 +75,24 @@ public class NavigationManager {
             navigationFuture = null;
         }
         
-        // TODO: Add proper browser closure
+        // Workers finish their current iteration and close their browsers; don't block the caller meanwhile.
+        // The service takes over the current pool and workers and refuses a new start until they are stopped
+        CompletableFuture.runAsync(() -> navigationService.shutdown("Stopped by user"), navigationExecutor);
         log.info("Navigation process stopped");
     }
 
+    /**
+     * End the watcher before the navigation executor drains, so it does not hold up the application exit
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        isRunning.set(false);
+        if (navigationFuture != null) {
+            navigationFuture.cancel(true);
+            navigationFuture = null;
+        }
+    }
+
     public boolean isRunning() {
         return isRunning.get();
     }
@@ -1,11 +1,26 @@
 package com.myprojects.kpok2.service.navigation;
 
 import com.myprojects.kpok2.config.TestCenterProperties;
+import com.myprojects.kpok2.exception.parser.FailureClassifier;
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import com.myprojects.kpok2.exception.parser.ParsingException;
+import com.myprojects.kpok2.model.IterationRecord;
 import com.myprojects.kpok2.service.AccountConfigurationService;
+import com.myprojects.kpok2.service.NavigationSettingsChangedEvent;
+import com.myprojects.kpok2.service.distributed.DistributedCoordinator;
+import com.myprojects.kpok2.service.metrics.CrawlMetrics;
+import com.myprojects.kpok2.service.metrics.CrawlMetrics.Step;
+import com.myprojects.kpok2.service.metrics.jfr.CrawlStepEvent;
+import com.myprojects.kpok2.service.metrics.jfr.IterationEvent;
+import com.myprojects.kpok2.service.parser.StopReason;
 import com.myprojects.kpok2.service.parser.TestParsingRunner;
 import com.myprojects.kpok2.service.parser.TestParsingStatistics;
+import com.myprojects.kpok2.service.retry.DelayedRetry;
+import com.myprojects.kpok2.service.retry.RetryMetrics;
+import com.myprojects.kpok2.service.retry.RetryPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -14,14 +29,25 @@ import org.openqa.selenium.By;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Callable;
+import java.util.concurrent.DelayQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
 import com.myprojects.kpok2.service.navigation.TestCenterNavigator;
+import com.myprojects.kpok2.service.navigation.RunJournal.PendingAttempt;
+import com.myprojects.kpok2.service.navigation.RunJournal.RecoveredRun;
 
 /**
  * Service for managing navigation processes with multi-threading support.
@@ -30,21 +56,44 @@ import com.myprojects.kpok2.service.navigation.TestCenterNavigator;
 @Service
 @RequiredArgsConstructor
 public class NavigationService {
+    // How often a worker waiting for a step retry checks whether it was retired
+    private static final long RETIRE_CHECK_MS = 500;
+    
     private final TestCenterProperties properties;
     private final TestCenterNavigator navigator;
     private final NavigationSessionFactory sessionFactory;
     private final TestParsingRunner testParsingRunner;
     private final TestParsingStatistics parsingStatistics;
     private final AccountConfigurationService accountService;
+    private final RunJournal runJournal;
+    private final DistributedCoordinator coordinator;
+    private final RetryPolicy retryPolicy;
+    private final RetryMetrics retryMetrics;
+    private final CrawlMetrics crawlMetrics;
     
     private ExecutorService executorService;
-    private final List<Future<?>> runningTasks = new ArrayList<>();
+    
+    // Workers of the current run; the set grows and shrinks when the thread count is changed
+    private final List<NavigationTask> workers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger workerCounter = new AtomicInteger();
+    
+    // Read by the workers before each iteration, so it can be switched while a run is in progress
+    private volatile boolean reuseSession;
+    
+    // Number of shutdowns still waiting for their workers; a new run is not started meanwhile
+    private int stopsInProgress;
+    
+    // Attempts submitted by an interrupted run whose review pages still have to be parsed
+    private final Queue<PendingAttempt> pendingAttempts = new ConcurrentLinkedQueue<>();
     
     /**
      * Start navigation process with the configured number of threads.
+     * Rejected while the previous run is still stopping.
      * @return true if navigation has started successfully
      */
-    public boolean startNavigation() {
+    public synchronized boolean startNavigation() {
+        // Navigation settings are copied into the properties when the account pool is initialized
+        sessionFactory.awaitAccountPool();
         int threadCount = properties.getNavigation().getMaxThreads();
         
         // Validate thread count
@@ -58,15 +107,43 @@ public class NavigationService {
             log.warn("Navigation is already running");
             return false;
         }
+        if (stopsInProgress > 0) {
+            log.warn("Previous navigation run is still stopping, try again once it has stopped");
+            return false;
+        }
         
         log.info("Initializing navigation with {} threads", threadCount);
         
         // Set up iteration counting
         int iterationCount = accountService.getIterationCount();
+        reuseSession = accountService.isReuseSession();
+        
+        // Resume an interrupted run from the journal, or start a new one
+        Optional<RecoveredRun> recoveredRun = runJournal.recover()
+                .filter(run -> !run.isComplete());
+        if (recoveredRun.isPresent()) {
+            RecoveredRun run = recoveredRun.get();
+            iterationCount = run.getIterationCount();
+            runJournal.resumeRun(run);
+            pendingAttempts.clear();
+            pendingAttempts.addAll(run.getPendingAttempts());
+        } else {
+            runJournal.startRun(iterationCount, threadCount, reuseSession);
+        }
+        
+        // In distributed mode the target and progress are shared by all nodes
+        Optional<Integer> sharedTarget = coordinator.joinRun(iterationCount);
+        if (sharedTarget.isPresent()) {
+            iterationCount = sharedTarget.get();
+            log.info("Node {} joined shared run with target {}", coordinator.getNodeId(), iterationCount);
+        }
+        
         parsingStatistics.setTotalIterationsNeeded(iterationCount);
+        recoveredRun.ifPresent(run -> parsingStatistics.setCompletedIterationsCount(run.getCompletedIterations()));
+        coordinator.getCompletedIterations().ifPresent(parsingStatistics::setCompletedIterationsCount);
+        parsingStatistics.configureAutoStop(properties.getNavigation().getAutoStop());
         
         // Log session reuse setting
-        boolean reuseSession = accountService.isReuseSession();
         if (reuseSession) {
             log.info("Session reuse is ENABLED - browser sessions will be kept open between iterations");
         } else {
@@ -79,72 +156,200 @@ public class NavigationService {
             log.info("Target iteration count set to: {}", iterationCount);
         }
         
-        // Create thread pool
-        executorService = Executors.newFixedThreadPool(threadCount);
+        // Create thread pool; it is not bounded because workers are added when the thread count is raised
+        executorService = Executors.newCachedThreadPool();
+        workers.clear();
+        workerCounter.set(0);
         
         // Start tasks for each thread
-        for (int i = 0; i < threadCount; i++) {
-            String threadName = "NavigationThread-" + i;
-            Future<?> future = executorService.submit(new NavigationTask(threadName));
-            runningTasks.add(future);
-            
-            log.info("Started navigation task: {}", threadName);
-        }
+        resizeWorkers(threadCount);
         
         // Check if any tasks have started successfully
-        return !runningTasks.isEmpty();
+        return !workers.isEmpty();
+    }
+    
+    /**
+     * Apply changed navigation settings to the run in progress, without restarting it.
+     * Workers are added or retired to match the thread count, the iteration target is updated
+     * and session reuse takes effect from the next iteration.
+     */
+    @EventListener
+    public synchronized void onNavigationSettingsChanged(NavigationSettingsChangedEvent event) {
+        // Keep the properties current so the next run starts with the new settings as well
+        properties.getNavigation().setMaxThreads(event.getMaxThreads());
+        properties.getNavigation().setReuseSession(event.isReuseSession());
+        
+        if (executorService == null || executorService.isShutdown() || workers.isEmpty()) {
+            return;
+        }
+        log.info("Applying navigation settings to the running crawl: {}", event);
+        
+        reuseSession = event.isReuseSession();
+        
+        if (coordinator.isEnabled()) {
+            log.info("Iteration target is shared by all nodes in distributed mode and is not changed");
+        } else {
+            parsingStatistics.setTotalIterationsNeeded(event.getIterationCount());
+        }
+        
+        if (event.getMaxThreads() > 0) {
+            resizeWorkers(event.getMaxThreads());
+        }
+        
+        runJournal.settingsChanged(parsingStatistics.getTotalIterationsNeeded(), event.getMaxThreads(), reuseSession);
+    }
+    
+    /**
+     * Start or retire workers until the given number of workers is active.
+     * Retired workers finish their current iteration and then close their session.
+     */
+    private synchronized void resizeWorkers(int targetCount) {
+        List<NavigationTask> activeWorkers = workers.stream()
+                .filter(worker -> !worker.isRetired())
+                .toList();
+        
+        for (int i = activeWorkers.size(); i < targetCount; i++) {
+            NavigationTask worker = new NavigationTask("NavigationThread-" + workerCounter.getAndIncrement());
+            workers.add(worker);
+            executorService.submit(worker);
+            log.info("Started navigation task: {}", worker.threadName);
+        }
+        
+        for (int i = activeWorkers.size() - 1; i >= targetCount; i--) {
+            NavigationTask worker = activeWorkers.get(i);
+            worker.retire();
+            log.info("Retiring navigation task after its current iteration: {}", worker.threadName);
+        }
     }
     
     /**
      * Shutdown all navigation processes, ensuring resources are properly closed.
+     * The run is marked as finished in the journal, so the next start begins a new run;
+     * only a run that ended without this, e.g. by a crash, is resumed.
+     *
+     * @param reason why the run was stopped, recorded in the journal
      */
-    public void shutdown() {
+    public void shutdown(String reason) {
         log.info("Shutting down navigation service");
         
-        if (executorService != null) {
-            try {
-                // Try to shutdown gracefully first
-                executorService.shutdown();
-                if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
-                    // Force shutdown if tasks don't terminate in time
-                    log.warn("Navigation tasks did not terminate in time, forcing shutdown");
-                    executorService.shutdownNow();
+        // Take over the pool and workers of the run being stopped, so a run started later is not touched
+        ExecutorService stoppingExecutor;
+        List<NavigationTask> stoppingWorkers;
+        synchronized (this) {
+            stoppingExecutor = executorService;
+            stoppingWorkers = List.copyOf(workers);
+            executorService = null;
+            stopsInProgress++;
+        }
+        
+        try {
+            // Let workers finish their current iteration instead of starting a new one
+            stoppingWorkers.forEach(NavigationTask::retire);
+            
+            if (stoppingExecutor != null) {
+                try {
+                    // Try to shutdown gracefully first
+                    stoppingExecutor.shutdown();
+                    if (!stoppingExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                        // Force shutdown if tasks don't terminate in time
+                        log.warn("Navigation tasks did not terminate in time, forcing shutdown");
+                        stoppingExecutor.shutdownNow();
+                    }
+                } catch (InterruptedException e) {
+                    log.error("Interrupted while waiting for navigation tasks to complete", e);
+                    // Force shutdown
+                    stoppingExecutor.shutdownNow();
+                    // Restore interrupted status
+                    Thread.currentThread().interrupt();
                 }
-            } catch (InterruptedException e) {
-                log.error("Interrupted while waiting for navigation tasks to complete", e);
-                // Force shutdown
-                executorService.shutdownNow();
-                // Restore interrupted status
-                Thread.currentThread().interrupt();
+            }
+            
+            runJournal.finishRun(reason);
+        } finally {
+            synchronized (this) {
+                stopsInProgress--;
             }
         }
-        
         log.info("Navigation service shutdown complete");
     }
     
+    /**
+     * Whether navigation workers are still running, also after a stop until they have finished.
+     * Covers runs started from the UI and through the REST API, and turns false when a run
+     * ends by itself.
+     */
+    public boolean isRunning() {
+        return !workers.isEmpty();
+    }
+    
+    /**
+     * Check whether the run should continue, picking up iterations completed by other nodes first
+     */
+    private boolean isMoreIterationsNeeded() {
+        coordinator.getCompletedIterations().ifPresent(parsingStatistics::setCompletedIterationsCount);
+        return parsingStatistics.isMoreIterationsNeeded();
+    }
+    
+    /**
+     * Usernames that own pending attempts, so sessions are opened with those accounts first
+     */
+    private Set<String> getPendingUsernames() {
+        return pendingAttempts.stream()
+                .map(PendingAttempt::getUsername)
+                .collect(Collectors.toSet());
+    }
+    
+    /**
+     * Take a pending attempt owned by the given account
+     * @return the attempt, or null if the account has none
+     */
+    private PendingAttempt pollPendingAttempt(String username) {
+        for (PendingAttempt attempt : pendingAttempts) {
+            if (username.equals(attempt.getUsername()) && pendingAttempts.remove(attempt)) {
+                return attempt;
+            }
+        }
+        return null;
+    }
+    
     /**
      * Task that handles the navigation process for one account.
      */
     private class NavigationTask implements Callable<Boolean> {
         private final String threadName;
+        private volatile boolean retired;
+        // Backoffs of this worker's retries; the session belongs to the worker, so it waits for them itself
+        private final DelayQueue<DelayedRetry<String>> retries = new DelayQueue<>();
+        
+        // Progress of the current iteration, for its statistics record
+        private Step currentStep;
+        private int iterationPages;
+        private int iterationNewQuestions;
         
         public NavigationTask(String threadName) {
             this.threadName = threadName;
         }
         
+        boolean isRetired() {
+            return retired;
+        }
+        
+        void retire() {
+            retired = true;
+        }
+        
         @Override
         public Boolean call() {
             Thread.currentThread().setName(threadName);
             log.info("Starting navigation task: {}", threadName);
             
             NavigationSession session = null;
-            boolean reuseSession = accountService.isReuseSession();
             
             try {
                 // Main iteration loop
-                while (!Thread.currentThread().isInterrupted() && parsingStatistics.isMoreIterationsNeeded()) {
+                while (!Thread.currentThread().isInterrupted() && !retired && isMoreIterationsNeeded()) {
                     // Before starting a new iteration, check again if we should continue
-                    if (!parsingStatistics.isMoreIterationsNeeded()) {
+                    if (!isMoreIterationsNeeded()) {
                         log.info("{}: No more iterations needed, exiting loop", threadName);
                         break;
                     }
@@ -152,7 +357,7 @@ public class NavigationService {
                     // Create a new session only if we don't have one or reuse is disabled
                     if (session == null) {
                         try {
-                            session = sessionFactory.createSession();
+                            session = sessionFactory.createSession(getPendingUsernames());
                             log.info("{}: Created new navigation session with account: {}",
                                     threadName, session.getAccount().getUsername());
                         } catch (Exception e) {
@@ -163,12 +368,42 @@ public class NavigationService {
                         }
                     }
                     
+                    // Harvest review pages left over from an interrupted run before starting new attempts
+                    PendingAttempt pendingAttempt = pollPendingAttempt(session.getAccount().getUsername());
+                    
                     // Run one iteration of the parsing process
-                    boolean iterationSuccess = runOneIteration(session);
+                    long iterationStart = System.nanoTime();
+                    LocalDateTime iterationStartedAt = LocalDateTime.now();
+                    currentStep = null;
+                    iterationPages = 0;
+                    iterationNewQuestions = 0;
+                    IterationEvent iterationEvent = IterationEvent.begin(
+                            session.getAccount().getUsername(), pendingAttempt != null);
+                    boolean iterationSuccess = pendingAttempt != null
+                            ? harvestPendingAttempt(session, pendingAttempt)
+                            : runOneIteration(session);
+                    crawlMetrics.recordIteration(iterationStart);
+                    iterationEvent.finish(session.getAttemptId(), iterationSuccess);
+                    parsingStatistics.recordIteration(IterationRecord.builder()
+                            .account(session.getAccount().getUsername())
+                            .startedAt(iterationStartedAt)
+                            .durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - iterationStart))
+                            .pages(iterationPages)
+                            .newQuestions(iterationNewQuestions)
+                            .success(iterationSuccess)
+                            .failureStep(!iterationSuccess && currentStep != null ? currentStep.getTag() : null)
+                            .resumed(pendingAttempt != null)
+                            .build());
                     
                     if (iterationSuccess) {
                         // Count this as a completed iteration
                         int completedCount = parsingStatistics.incrementCompletedIterations();
+                        runJournal.iterationCompleted(completedCount);
+                        Optional<Integer> sharedCount = coordinator.recordCompletedIteration();
+                        if (sharedCount.isPresent()) {
+                            completedCount = sharedCount.get();
+                            parsingStatistics.setCompletedIterationsCount(completedCount);
+                        }
                         int totalNeeded = parsingStatistics.getTotalIterationsNeeded();
                         
                         if (totalNeeded > 0) {
@@ -177,9 +412,12 @@ public class NavigationService {
                             log.info("{}: Completed iteration {} (unlimited mode)", threadName, completedCount);
                         }
                         
-                        // Check if we've reached the total
+                        // Check if we've reached the total or the auto-stop policy ended the run
                         if (!parsingStatistics.isMoreIterationsNeeded()) {
-                            log.info("{}: Target iteration count reached, exiting loop", threadName);
+                            StopReason stopReason = parsingStatistics.getStopReason();
+                            String reason = stopReason != null ? stopReason.getDescription() : "No more iterations needed";
+                            log.info("{}: {}, exiting loop", threadName, reason);
+                            runJournal.finishRun(reason);
                             break;
                         }
                         
@@ -288,12 +526,194 @@ public class NavigationService {
                         log.warn("{}: Error closing session: {}", threadName, e.getMessage());
                     }
                 }
+                workers.remove(this);
                 log.info("{}: Navigation task completed", threadName);
             }
             
             return true;
         }
         
+        /**
+         * Parse the review pages of an attempt submitted before the run was interrupted.
+         * Only logs in; no new attempt is started.
+         * @param session session owned by the account that submitted the attempt
+         * @param pendingAttempt the attempt to harvest
+         * @return true if the review pages were processed, false otherwise
+         */
+        private boolean harvestPendingAttempt(NavigationSession session, PendingAttempt pendingAttempt) {
+            String username = session.getAccount().getUsername();
+            log.info("{}: Harvesting {} review pages of interrupted attempt {} for account: {}",
+                    threadName, pendingAttempt.getReviewUrls().size(), pendingAttempt.getAttemptId(), username);
+            
+            currentStep = Step.AUTHENTICATE;
+            try {
+                if (!navigator.authenticate(session)) {
+                    log.error("{}: Authentication failed for account: {}", threadName, username);
+                    pendingAttempts.add(pendingAttempt);
+                    return false;
+                }
+            } catch (Exception e) {
+                log.error("{}: Authentication failed for account {}: {}", threadName, username, e.getMessage());
+                pendingAttempts.add(pendingAttempt);
+                return false;
+            }
+            
+            session.setAttemptId(pendingAttempt.getAttemptId());
+            processResultPages(session, pendingAttempt.getReviewUrls());
+            runJournal.attemptHarvested(pendingAttempt.getAttemptId());
+            return true;
+        }
+        
+        /**
+         * Parse the review pages of a submitted attempt. A page that fails is retried with backoff;
+         * if the session was logged out, the account logs in again and the page is retried,
+         * without starting a new attempt.
+         * @param session The navigation session to use
+         * @param resultPageUrls review page URLs of the attempt
+         */
+        private void processResultPages(NavigationSession session, List<String> resultPageUrls) {
+            currentStep = Step.REVIEW_FETCH;
+            for (String resultPageUrl : resultPageUrls) {
+                log.info("{}: Processing result page URL: {}", threadName, resultPageUrl);
+                ParsingErrorType previousFailure = null;
+                for (int attempt = 1; ; attempt++) {
+                    ParsingErrorType failure;
+                    try {
+                        iterationNewQuestions += testParsingRunner.parseTestUrl(resultPageUrl, session);
+                        iterationPages++;
+                        if (previousFailure != null) {
+                            retryMetrics.recordRecovered(previousFailure);
+                        }
+                        log.info("{}: Successfully parsed result page: {}", threadName, resultPageUrl);
+                        break;
+                    } catch (ParsingException e) {
+                        failure = e.getErrorType();
+                        log.warn("{}: Failed to parse result page {} ({}): {}",
+                                threadName, resultPageUrl, failure, e.getMessage());
+                    }
+                    
+                    retryMetrics.recordFailure(failure);
+                    if (!retryPolicy.shouldRetry(failure, attempt)) {
+                        if (failure.isRetryable()) {
+                            retryMetrics.recordExhausted(failure);
+                        }
+                        break;
+                    }
+                    
+                    long delay = retryPolicy.computeDelay(attempt);
+                    retryMetrics.recordRetry(failure);
+                    log.info("{}: Retrying result page in {} ms", threadName, delay);
+                    try {
+                        // The attempt is already submitted, so its pages are retried also when the run is stopping
+                        awaitRetry(resultPageUrl, attempt + 1, failure, delay, false);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    
+                    if (!failure.isSessionSafe() && !navigator.authenticate(session)) {
+                        log.warn("{}: Could not log in again to retry result page: {}", threadName, resultPageUrl);
+                        break;
+                    }
+                    previousFailure = failure;
+                }
+            }
+        }
+        
+        /**
+         * Run one step of an iteration. When the step fails but the session is still usable,
+         * the step is retried in place with backoff; otherwise the iteration ends and the next
+         * one starts over from login.
+         * @param stepName name of the step for logging
+         * @param metricStep step under which the total time, retries included, is recorded
+         * @param session session the step runs in
+         * @param step the step; returns false if the page did not offer the expected element
+         * @param isTimeoutExceeded whether the iteration has run out of time
+         * @return true if the step succeeded
+         */
+        private boolean runStep(String stepName, Step metricStep, NavigationSession session, Callable<Boolean> step,
+                                Supplier<Boolean> isTimeoutExceeded) throws InterruptedException {
+            String username = session.getAccount().getUsername();
+            currentStep = metricStep;
+            long startNanos = System.nanoTime();
+            CrawlStepEvent event = CrawlStepEvent.begin(metricStep, username, session.getAttemptId());
+            boolean success = false;
+            try {
+                success = runStepAttempts(stepName, username, step, isTimeoutExceeded, event);
+                return success;
+            } finally {
+                crawlMetrics.recordStep(metricStep, startNanos);
+                event.finish(success);
+            }
+        }
+        
+        private boolean runStepAttempts(String stepName, String username, Callable<Boolean> step,
+                                        Supplier<Boolean> isTimeoutExceeded, CrawlStepEvent event)
+                throws InterruptedException {
+            ParsingErrorType previousFailure = null;
+            for (int attempt = 1; ; attempt++) {
+                ParsingErrorType failure;
+                try {
+                    if (step.call()) {
+                        if (previousFailure != null) {
+                            retryMetrics.recordRecovered(previousFailure);
+                            log.info("{}: Step '{}' succeeded on attempt {}", threadName, stepName, attempt);
+                        }
+                        return true;
+                    }
+                    // The navigator reports a button or link it could not find by returning false
+                    failure = ParsingErrorType.MISSING_ELEMENT;
+                    log.error("{}: Step '{}' failed for account: {}", threadName, stepName, username);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    failure = FailureClassifier.classify(e);
+                    log.error("{}: Step '{}' failed for account {} ({}): {}",
+                            threadName, stepName, username, failure, e.getMessage());
+                }
+                
+                retryMetrics.recordFailure(failure);
+                event.failed(attempt, failure);
+                if (!failure.isSessionSafe() || isTimeoutExceeded.get()) {
+                    return false;
+                }
+                if (!retryPolicy.shouldRetry(failure, attempt)) {
+                    if (failure.isRetryable()) {
+                        retryMetrics.recordExhausted(failure);
+                    }
+                    return false;
+                }
+                
+                long delay = retryPolicy.computeDelay(attempt);
+                retryMetrics.recordRetry(failure);
+                log.info("{}: Retrying step '{}' in {} ms", threadName, stepName, delay);
+                if (!awaitRetry(stepName, attempt + 1, failure, delay, true)) {
+                    log.info("{}: Navigation is stopping, step '{}' is not retried", threadName, stepName);
+                    return false;
+                }
+                previousFailure = failure;
+            }
+        }
+        
+        /**
+         * Wait until the backoff of a retry has elapsed, using the same delay queue as the retries
+         * of REST parse jobs
+         * @param item page or step to retry, for the queue entry
+         * @param untilRetired whether to stop waiting once the worker is retired
+         * @return false if the wait ended because the worker was retired
+         */
+        private boolean awaitRetry(String item, int nextAttempt, ParsingErrorType failure, long delayMs,
+                                   boolean untilRetired) throws InterruptedException {
+            retries.add(new DelayedRetry<>(item, nextAttempt, failure, delayMs));
+            while (!untilRetired || !retired) {
+                if (retries.poll(RETIRE_CHECK_MS, TimeUnit.MILLISECONDS) != null) {
+                    return true;
+                }
+            }
+            retries.clear();
+            return false;
+        }
+        
         /**
          * Run one iteration of the parsing process
          * @param session The navigation session to use
@@ -322,8 +742,13 @@ public class NavigationService {
             
             try {
                 // Step 1: Authenticate
+                currentStep = Step.AUTHENTICATE;
+                CrawlStepEvent authEvent = CrawlStepEvent.begin(Step.AUTHENTICATE, username, session.getAttemptId());
                 try {
+                    long authStart = System.nanoTime();
                     boolean authSuccess = navigator.authenticate(session);
+                    crawlMetrics.recordStep(Step.AUTHENTICATE, authStart);
+                    authEvent.finish(authSuccess);
                     // Check timeout after authentication
                     if (isTimeoutExceeded.get()) return false;
                     
@@ -333,6 +758,8 @@ public class NavigationService {
                     }
                     log.info("{}: Authentication successful for account: {}", threadName, username);
                 } catch (Exception e) {
+                    authEvent.failed(1, FailureClassifier.classify(e));
+                    authEvent.finish(false);
                     log.error("{}: Authentication failed for account {}: {}", threadName, username, e.getMessage());
                     return false;
                 }
@@ -348,20 +775,12 @@ public class NavigationService {
                 if (isTimeoutExceeded.get()) return false;
                 
                 // Step 2: Navigate to test page
-                try {
-                    boolean navSuccess = navigator.navigateToTestPage(session);
-                    // Check timeout after navigation
-                    if (isTimeoutExceeded.get()) return false;
-                    
-                    if (!navSuccess) {
-                        log.error("{}: Failed to navigate to test page for account: {}", threadName, username);
-                        return false;
-                    }
-                    log.info("{}: Navigation to test page successful for account: {}", threadName, username);
-                } catch (Exception e) {
-                    log.error("{}: Navigation to test page failed for account {}: {}", threadName, username, e.getMessage());
+                if (!runStep("navigate to test page", Step.NAVIGATE_TO_TEST_PAGE, session,
+                        () -> navigator.navigateToTestPage(session), isTimeoutExceeded)
+                        || isTimeoutExceeded.get()) {
                     return false;
                 }
+                log.info("{}: Navigation to test page successful for account: {}", threadName, username);
                 
                 try {
                     // Short delay after navigation to test page
@@ -374,19 +793,15 @@ public class NavigationService {
                 if (isTimeoutExceeded.get()) return false;
                 
                 // Step 3: Click "Attempt Test" or "Continue Attempt" button
-                TestCenterNavigator.AttemptButtonResult attemptResult;
-                try {
-                    attemptResult = navigator.clickAttemptTestButton(session);
-                    if (!attemptResult.isSuccess()) {
-                        log.error("{}: Failed to click test attempt button for account: {}", threadName, username);
-                        return false;
-                    }
-                    log.info("{}: Click on test attempt button successful for account: {}", threadName, username);
-                } catch (Exception e) {
-                    log.error("{}: Error during test attempt button click for account {}: {}", 
-                            threadName, username, e.getMessage());
+                AtomicReference<TestCenterNavigator.AttemptButtonResult> attemptResultRef = new AtomicReference<>();
+                if (!runStep("click test attempt button", Step.CLICK_ATTEMPT_TEST_BUTTON, session, () -> {
+                    attemptResultRef.set(navigator.clickAttemptTestButton(session));
+                    return attemptResultRef.get().isSuccess();
+                }, isTimeoutExceeded)) {
                     return false;
                 }
+                TestCenterNavigator.AttemptButtonResult attemptResult = attemptResultRef.get();
+                log.info("{}: Click on test attempt button successful for account: {}", threadName, username);
                 
                 try {
                     // Short delay after clicking test attempt button
@@ -399,20 +814,12 @@ public class NavigationService {
                 if (!attemptResult.isResumeAttempt()) {
                     log.info("{}: New attempt detected, proceeding with 'Start Attempt' button click for account: {}", 
                             threadName, username);
-                    try {
-                        boolean startBtnSuccess = navigator.clickStartAttemptButton(session);
-                        if (!startBtnSuccess) {
-                            log.error("{}: Failed to click 'Start Attempt' button for account: {}", 
-                                    threadName, username);
-                            return false;
-                        }
-                        log.info("{}: Click on 'Start Attempt' button successful for account: {}", 
-                                threadName, username);
-                    } catch (Exception e) {
-                        log.error("{}: Error during 'Start Attempt' button click for account {}: {}", 
-                                threadName, username, e.getMessage());
+                    if (!runStep("click 'Start Attempt' button", Step.CLICK_START_ATTEMPT_BUTTON, session,
+                            () -> navigator.clickStartAttemptButton(session), isTimeoutExceeded)) {
                         return false;
                     }
+                    log.info("{}: Click on 'Start Attempt' button successful for account: {}", 
+                            threadName, username);
                     
                     try {
                         // Short delay after clicking "Start Attempt" button
@@ -426,20 +833,12 @@ public class NavigationService {
                 }
                 
                 // Step 5: Click "Finish Attempt..." link
-                try {
-                    boolean finishLinkSuccess = navigator.clickFinishAttemptLink(session);
-                    if (!finishLinkSuccess) {
-                        log.error("{}: Failed to click 'Finish Attempt...' link for account: {}", 
-                                threadName, username);
-                        return false;
-                    }
-                    log.info("{}: Click on 'Finish Attempt...' link successful for account: {}", 
-                            threadName, username);
-                } catch (Exception e) {
-                    log.error("{}: Error during 'Finish Attempt...' link click for account {}: {}", 
-                            threadName, username, e.getMessage());
+                if (!runStep("click 'Finish Attempt...' link", Step.FINISH, session,
+                        () -> navigator.clickFinishAttemptLink(session), isTimeoutExceeded)) {
                     return false;
                 }
+                log.info("{}: Click on 'Finish Attempt...' link successful for account: {}", 
+                        threadName, username);
                 
                 try {
                     // Short delay after clicking "Finish Attempt..." link
@@ -449,20 +848,12 @@ public class NavigationService {
                 }
                 
                 // Step 6: Click "Submit All and Finish" button
-                try {
-                    boolean submitBtnSuccess = navigator.clickSubmitAllButton(session);
-                    if (!submitBtnSuccess) {
-                        log.error("{}: Failed to click 'Submit All and Finish' button for account: {}", 
-                                threadName, username);
-                        return false;
-                    }
-                    log.info("{}: Click on 'Submit All and Finish' button successful for account: {}", 
-                            threadName, username);
-                } catch (Exception e) {
-                    log.error("{}: Error during 'Submit All and Finish' button click for account {}: {}", 
-                            threadName, username, e.getMessage());
+                if (!runStep("click 'Submit All and Finish' button", Step.SUBMIT, session,
+                        () -> navigator.clickSubmitAllButton(session), isTimeoutExceeded)) {
                     return false;
                 }
+                log.info("{}: Click on 'Submit All and Finish' button successful for account: {}", 
+                        threadName, username);
                 
                 try {
                     // Short delay after clicking "Submit All and Finish" button
@@ -472,8 +863,14 @@ public class NavigationService {
                 }
                 
                 // Step 7: Click confirmation "Submit All and Finish" button
+                // Not retried in place: the attempt may already be submitted when the click fails
+                currentStep = Step.CONFIRM;
+                CrawlStepEvent confirmEvent = CrawlStepEvent.begin(Step.CONFIRM, username, session.getAttemptId());
                 try {
+                    long confirmStart = System.nanoTime();
                     boolean confirmBtnSuccess = navigator.clickConfirmSubmitButton(session);
+                    crawlMetrics.recordStep(Step.CONFIRM, confirmStart);
+                    confirmEvent.finish(confirmBtnSuccess);
                     if (!confirmBtnSuccess) {
                         log.error("{}: Failed to click confirmation 'Submit All and Finish' button for account: {}", 
                                 threadName, username);
@@ -482,6 +879,8 @@ public class NavigationService {
                     log.info("{}: Click on confirmation 'Submit All and Finish' button successful for account: {}", 
                             threadName, username);
                 } catch (Exception e) {
+                    confirmEvent.failed(1, FailureClassifier.classify(e));
+                    confirmEvent.finish(false);
                     log.error("{}: Error during confirm 'Submit All and Finish' button click for account {}: {}", 
                             threadName, username, e.getMessage());
                     return false;
@@ -498,20 +897,10 @@ public class NavigationService {
                     log.info("{}: Found {} result page URLs to process for account: {}", 
                             threadName, resultPageUrls.size(), username);
                     
-                    for (String resultPageUrl : resultPageUrls) {
-                        try {
-                            log.info("{}: Processing result page URL: {}", threadName, resultPageUrl);
-                            boolean parseSuccess = testParsingRunner.processTestUrl(resultPageUrl, session);
-                            if (parseSuccess) {
-                                log.info("{}: Successfully parsed result page: {}", threadName, resultPageUrl);
-                            } else {
-                                log.warn("{}: Failed to parse result page: {}", threadName, resultPageUrl);
-                            }
-                        } catch (Exception e) {
-                            log.error("{}: Error during parsing of result page {}: {}", 
-                                    threadName, resultPageUrl, e.getMessage(), e);
-                        }
-                    }
+                    // Journal the submitted attempt so its review pages survive a restart
+                    runJournal.attemptSubmitted(session.getAttemptId(), username, resultPageUrls);
+                    processResultPages(session, resultPageUrls);
+                    runJournal.attemptHarvested(session.getAttemptId());
                 } else {
                     log.warn("{}: Cannot generate result page URLs - no attempt ID available for account: {}", 
                             threadName, username);
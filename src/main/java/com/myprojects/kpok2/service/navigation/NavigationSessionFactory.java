@@ -10,7 +10,10 @@ import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +28,7 @@ public class NavigationSessionFactory {
     private final WebDriverFactory webDriverFactory;
     private final TestCenterProperties testCenterProperties;
     private final AccountConfigurationService accountService;
+    private volatile CompletableFuture<Void> accountPoolReady = CompletableFuture.completedFuture(null);
 
     @Autowired
     public NavigationSessionFactory(
@@ -39,9 +43,28 @@ public class NavigationSessionFactory {
     }
 
     /**
-     * Initializes the account pool from configuration.
+     * Initializes the account pool in the background, since it waits for the accounts
+     * to be decrypted. Sessions are only created once it has finished.
      */
     @PostConstruct
+    public void initializeAccountPoolInBackground() {
+        accountPoolReady = CompletableFuture.runAsync(this::initializeAccountPool, runnable -> {
+            Thread thread = new Thread(runnable, "AccountPoolInit");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+    
+    /**
+     * Block until the account pool and navigation settings have been initialized
+     */
+    public void awaitAccountPool() {
+        accountPoolReady.join();
+    }
+    
+    /**
+     * Initializes the account pool from configuration.
+     */
     public void initializeAccountPool() {
         log.info("Initializing account pool for navigation...");
         
@@ -96,7 +119,20 @@ public class NavigationSessionFactory {
      * @throws InterruptedException if the thread was interrupted while waiting for an available account.
      */
     public NavigationSession createSession() throws InterruptedException {
-        AccountCredentials account = accountManager.acquireAccount();
+        return createSession(Collections.emptySet());
+    }
+    
+    /**
+     * Create a new navigation session, preferring one of the given accounts.
+     * Used when resuming a run, since review pages of an attempt are only visible to its owner.
+     *
+     * @param preferredUsernames usernames to try first
+     * @return NavigationSession ready to use.
+     * @throws InterruptedException if the thread was interrupted while waiting for an available account.
+     */
+    public NavigationSession createSession(Collection<String> preferredUsernames) throws InterruptedException {
+        awaitAccountPool();
+        AccountCredentials account = accountManager.acquireAccount(preferredUsernames);
         WebDriver webDriver = webDriverFactory.getDriver();
         
         // Initialize the session with reusable properties
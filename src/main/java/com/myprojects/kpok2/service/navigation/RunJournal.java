@@ -0,0 +1,262 @@
+package com.myprojects.kpok2.service.navigation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myprojects.kpok2.service.distributed.DistributedCoordinator;
+import com.myprojects.kpok2.service.navigation.RunJournalEntry.Type;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Append-only journal of the current navigation run, stored as JSON lines on local disk.
+ * Records the run configuration, completed iterations and submitted attempts whose review
+ * pages have not been harvested yet, so an interrupted run can be resumed after a restart.
+ */
+@Slf4j
+@Component
+public class RunJournal {
+
+    private final ObjectMapper objectMapper;
+    private final Path journalPath;
+    private volatile String currentRunId;
+
+    public RunJournal(ObjectMapper objectMapper,
+                      DistributedCoordinator coordinator,
+                      @Value("${app.journal.path:${user.home}/.kpok2/run-journal.jsonl}") String journalPath) {
+        this.objectMapper = objectMapper;
+        // Nodes started on one machine must not share a journal, or starting a run on one discards the other's
+        this.journalPath = coordinator.isEnabled()
+                ? withNodeId(Paths.get(journalPath), coordinator.getNodeId())
+                : Paths.get(journalPath);
+    }
+
+    /**
+     * Find a run that was started but never finished
+     * @return the state of the interrupted run, or empty if the last run finished normally
+     */
+    public synchronized Optional<RecoveredRun> recover() {
+        if (!Files.exists(journalPath)) {
+            return Optional.empty();
+        }
+
+        RecoveredRun run = null;
+        try {
+            for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                RunJournalEntry entry;
+                try {
+                    entry = objectMapper.readValue(line, RunJournalEntry.class);
+                } catch (IOException e) {
+                    // A crash can leave a partially written last line
+                    log.warn("Skipping unreadable run journal line: {}", e.getMessage());
+                    continue;
+                }
+                run = apply(run, entry);
+            }
+        } catch (IOException e) {
+            log.error("Failed to read run journal {}: {}", journalPath, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (run == null || run.isFinished()) {
+            return Optional.empty();
+        }
+        return Optional.of(run);
+    }
+
+    /**
+     * Start journaling a new run, discarding the previous journal
+     * @return the id of the new run
+     */
+    public synchronized String startRun(int iterationCount, int maxThreads, boolean reuseSession) {
+        currentRunId = UUID.randomUUID().toString();
+        try {
+            Files.createDirectories(journalPath.toAbsolutePath().getParent());
+            Files.deleteIfExists(journalPath);
+        } catch (IOException e) {
+            log.error("Failed to reset run journal {}: {}", journalPath, e.getMessage());
+        }
+        append(RunJournalEntry.builder()
+                .type(Type.RUN_STARTED)
+                .iterationCount(iterationCount)
+                .maxThreads(maxThreads)
+                .reuseSession(reuseSession)
+                .build());
+        log.info("Started run {} (journal: {})", currentRunId, journalPath);
+        return currentRunId;
+    }
+
+    /**
+     * Continue journaling an interrupted run
+     */
+    public synchronized void resumeRun(RecoveredRun run) {
+        currentRunId = run.getRunId();
+        log.info("Resuming run {} with {} completed iterations and {} pending attempts",
+                run.getRunId(), run.getCompletedIterations(), run.getPendingAttempts().size());
+    }
+
+    public void attemptSubmitted(String attemptId, String username, List<String> reviewUrls) {
+        append(RunJournalEntry.builder()
+                .type(Type.ATTEMPT_SUBMITTED)
+                .attemptId(attemptId)
+                .username(username)
+                .reviewUrls(reviewUrls)
+                .build());
+    }
+
+    public void attemptHarvested(String attemptId) {
+        append(RunJournalEntry.builder()
+                .type(Type.ATTEMPT_HARVESTED)
+                .attemptId(attemptId)
+                .build());
+    }
+
+    public void iterationCompleted(int completedIterations) {
+        append(RunJournalEntry.builder()
+                .type(Type.ITERATION_COMPLETED)
+                .completedIterations(completedIterations)
+                .build());
+    }
+
+    /**
+     * Record navigation settings changed while the run is in progress, so a resumed run uses them
+     */
+    public void settingsChanged(int iterationCount, int maxThreads, boolean reuseSession) {
+        append(RunJournalEntry.builder()
+                .type(Type.SETTINGS_CHANGED)
+                .iterationCount(iterationCount)
+                .maxThreads(maxThreads)
+                .reuseSession(reuseSession)
+                .build());
+    }
+
+    /**
+     * Mark the current run as finished so it is not resumed on the next start
+     */
+    public synchronized void finishRun(String reason) {
+        if (currentRunId == null) {
+            return;
+        }
+        append(RunJournalEntry.builder()
+                .type(Type.RUN_FINISHED)
+                .reason(reason)
+                .build());
+        log.info("Finished run {}: {}", currentRunId, reason);
+        currentRunId = null;
+    }
+
+    private synchronized void append(RunJournalEntry entry) {
+        if (currentRunId == null) {
+            return;
+        }
+        entry.setRunId(currentRunId);
+        entry.setTimestamp(System.currentTimeMillis());
+        try {
+            String line = objectMapper.writeValueAsString(entry) + System.lineSeparator();
+            Files.writeString(journalPath, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            log.error("Failed to append {} to run journal: {}", entry.getType(), e.getMessage());
+        }
+    }
+
+    /**
+     * Journal path with the node id added to the file name, e.g. run-journal-node-a.jsonl
+     */
+    private static Path withNodeId(Path path, String nodeId) {
+        String fileName = path.getFileName().toString();
+        String suffix = "-" + nodeId.replaceAll("[^A-Za-z0-9._-]", "_");
+        int extension = fileName.lastIndexOf('.');
+        String nodeFileName = extension > 0
+                ? fileName.substring(0, extension) + suffix + fileName.substring(extension)
+                : fileName + suffix;
+        return path.resolveSibling(nodeFileName);
+    }
+
+    private RecoveredRun apply(RecoveredRun run, RunJournalEntry entry) {
+        if (entry.getType() == Type.RUN_STARTED) {
+            RecoveredRun started = new RecoveredRun();
+            started.setRunId(entry.getRunId());
+            started.setIterationCount(entry.getIterationCount() != null ? entry.getIterationCount() : 0);
+            started.setMaxThreads(entry.getMaxThreads() != null ? entry.getMaxThreads() : 1);
+            started.setReuseSession(Boolean.TRUE.equals(entry.getReuseSession()));
+            return started;
+        }
+        if (run == null || !run.getRunId().equals(entry.getRunId())) {
+            return run;
+        }
+
+        switch (entry.getType()) {
+            case ATTEMPT_SUBMITTED -> run.getPending().put(entry.getAttemptId(),
+                    new PendingAttempt(entry.getAttemptId(), entry.getUsername(), entry.getReviewUrls()));
+            case ATTEMPT_HARVESTED -> run.getPending().remove(entry.getAttemptId());
+            case ITERATION_COMPLETED -> run.setCompletedIterations(
+                    Math.max(run.getCompletedIterations(), entry.getCompletedIterations()));
+            case SETTINGS_CHANGED -> {
+                if (entry.getIterationCount() != null) {
+                    run.setIterationCount(entry.getIterationCount());
+                }
+                if (entry.getMaxThreads() != null) {
+                    run.setMaxThreads(entry.getMaxThreads());
+                }
+                if (entry.getReuseSession() != null) {
+                    run.setReuseSession(entry.getReuseSession());
+                }
+            }
+            case RUN_FINISHED -> run.setFinished(true);
+            default -> { }
+        }
+        return run;
+    }
+
+    /**
+     * State of a run reconstructed from the journal
+     */
+    @Data
+    public static class RecoveredRun {
+        private String runId;
+        private int iterationCount;
+        private int maxThreads;
+        private boolean reuseSession;
+        private int completedIterations;
+        private boolean finished;
+        private final Map<String, PendingAttempt> pending = new LinkedHashMap<>();
+
+        /**
+         * Whether the run reached its iteration target and only missed its finish record
+         */
+        public boolean isComplete() {
+            return pending.isEmpty() && iterationCount > 0 && completedIterations >= iterationCount;
+        }
+
+        public List<PendingAttempt> getPendingAttempts() {
+            return new ArrayList<>(pending.values());
+        }
+    }
+
+    /**
+     * Submitted attempt whose review pages still have to be parsed
+     */
+    @Data
+    public static class PendingAttempt {
+        private final String attemptId;
+        private final String username;
+        private final List<String> reviewUrls;
+    }
+}
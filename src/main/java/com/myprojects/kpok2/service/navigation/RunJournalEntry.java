@@ -0,0 +1,51 @@
+package com.myprojects.kpok2.service.navigation;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One line of the navigation run journal
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RunJournalEntry {
+
+    public enum Type {
+        RUN_STARTED,
+        ATTEMPT_SUBMITTED,
+        ATTEMPT_HARVESTED,
+        ITERATION_COMPLETED,
+        SETTINGS_CHANGED,
+        RUN_FINISHED
+    }
+
+    private Type type;
+    private String runId;
+    private long timestamp;
+
+    // RUN_STARTED / SETTINGS_CHANGED
+    private Integer iterationCount;
+    private Integer maxThreads;
+    private Boolean reuseSession;
+
+    // ATTEMPT_SUBMITTED / ATTEMPT_HARVESTED
+    private String attemptId;
+    private String username;
+    private List<String> reviewUrls;
+
+    // ITERATION_COMPLETED
+    private Integer completedIterations;
+
+    // RUN_FINISHED
+    private String reason;
+}
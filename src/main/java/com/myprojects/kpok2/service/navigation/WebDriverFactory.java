@@ -4,14 +4,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.Deque;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Factory for creating and managing WebDriver instances.
+ * Browsers are started lazily on first use and kept in a small idle pool after release,
+ * so no browser is started with the application and each caller gets a driver of its own.
  */
 @Slf4j
 @Component
@@ -22,9 +29,25 @@ public class WebDriverFactory {
     // ThreadLocal to track current thread's WebDriver
     private final ThreadLocal<WebDriver> currentDriver = new ThreadLocal<>();
     
+    // Released drivers ready for reuse, and every driver that has not been quit yet
+    private final Deque<WebDriver> idleDrivers = new ConcurrentLinkedDeque<>();
+    private final Set<WebDriver> liveDrivers = ConcurrentHashMap.newKeySet();
+    
+    // Makes browser profile directories unique per driver, also across processes on one host
+    private final AtomicInteger profileCounter = new AtomicInteger();
+    
+    private final int maxIdleDrivers;
+    private final boolean headless;
+    
+    public WebDriverFactory(@Value("${app.webdriver.max-idle:2}") int maxIdleDrivers,
+                            @Value("${app.webdriver.headless:false}") boolean headless) {
+        this.maxIdleDrivers = Math.max(0, maxIdleDrivers);
+        this.headless = headless;
+    }
+    
     /**
      * Get a WebDriver instance for the current thread.
-     * Creates a new instance if none exists.
+     * Takes one from the pool if none is bound to the thread yet.
      *
      * @return The WebDriver instance for the current thread
      */
@@ -35,11 +58,11 @@ public class WebDriverFactory {
         // Check if a WebDriver already exists for this thread
         WebDriver driver = driverMap.get(threadId);
         
-        // If no WebDriver exists, create a new one
+        // If no WebDriver exists, take one from the pool
         if (driver == null) {
-            driver = createWebDriver();
+            driver = acquireDriver();
             driverMap.put(threadId, driver);
-            log.info("Created new WebDriver instance for thread {}", threadId);
+            log.info("Bound WebDriver instance to thread {}", threadId);
         } else {
             log.debug("Reusing existing WebDriver instance for thread {}", threadId);
         }
@@ -51,7 +74,7 @@ public class WebDriverFactory {
     }
     
     /**
-     * Close the WebDriver instance for the current thread.
+     * Release the WebDriver instance of the current thread back to the pool.
      * This method can be called safely even if no WebDriver exists.
      */
     public void closeDriver() {
@@ -61,39 +84,110 @@ public class WebDriverFactory {
         // Get the WebDriver for this thread
         WebDriver driver = driverMap.remove(threadId);
         
-        // If a WebDriver exists, close it
         if (driver != null) {
-            try {
-                driver.quit();
-                log.info("Closed WebDriver instance for thread {}", threadId);
-            } catch (Exception e) {
-                log.warn("Error closing WebDriver for thread {}: {}", threadId, e.getMessage());
-            }
+            releaseDriver(driver);
+            log.info("Released WebDriver instance of thread {}", threadId);
         }
         
         // Remove the current thread's driver
         currentDriver.remove();
     }
     
+    /**
+     * Take a driver from the idle pool, starting a new browser if the pool is empty.
+     * The caller owns the driver until it is passed to {@link #releaseDriver(WebDriver)}.
+     *
+     * @return WebDriver for exclusive use by the caller
+     */
+    public WebDriver acquireDriver() {
+        WebDriver driver;
+        while ((driver = idleDrivers.pollFirst()) != null) {
+            if (isAlive(driver)) {
+                log.debug("Reusing pooled WebDriver {}", driver.hashCode());
+                return driver;
+            }
+            quit(driver);
+        }
+        
+        driver = createWebDriver();
+        liveDrivers.add(driver);
+        log.info("Created new WebDriver instance ({} live)", liveDrivers.size());
+        return driver;
+    }
+    
+    /**
+     * Return a driver to the pool. Cookies are cleared so the next user does not inherit
+     * the login of the previous account; drivers beyond the idle limit are quit.
+     *
+     * @param driver driver obtained from {@link #acquireDriver()}
+     */
+    public void releaseDriver(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        if (idleDrivers.size() >= maxIdleDrivers) {
+            quit(driver);
+            return;
+        }
+        try {
+            driver.manage().deleteAllCookies();
+            idleDrivers.addFirst(driver);
+        } catch (Exception e) {
+            log.warn("Failed to reset WebDriver, closing it: {}", e.getMessage());
+            quit(driver);
+        }
+    }
+    
     /**
      * Close all WebDriver instances across all threads.
      * This should be called during application shutdown.
      */
     public void closeAllDrivers() {
-        log.info("Closing all WebDriver instances ({})", driverMap.size());
-        for (Map.Entry<Long, WebDriver> entry : driverMap.entrySet()) {
-            try {
-                entry.getValue().quit();
-                log.debug("Closed WebDriver for thread {}", entry.getKey());
-            } catch (Exception e) {
-                log.warn("Error closing WebDriver for thread {}: {}", entry.getKey(), e.getMessage());
-            }
+        log.info("Closing all WebDriver instances ({})", liveDrivers.size());
+        for (WebDriver driver : liveDrivers) {
+            quit(driver);
         }
+        liveDrivers.clear();
+        idleDrivers.clear();
         driverMap.clear();
         currentDriver.remove();
         log.info("All WebDriver instances closed");
     }
     
+    /**
+     * Number of browsers currently open, in use or idle
+     */
+    public int getLiveDriverCount() {
+        return liveDrivers.size();
+    }
+    
+    /**
+     * Number of browsers waiting in the idle pool
+     */
+    public int getIdleDriverCount() {
+        return idleDrivers.size();
+    }
+    
+    private boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandles();
+            return true;
+        } catch (Exception e) {
+            log.debug("Discarding dead pooled WebDriver: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    private void quit(WebDriver driver) {
+        liveDrivers.remove(driver);
+        try {
+            driver.quit();
+            log.debug("Closed WebDriver {}", driver.hashCode());
+        } catch (Exception e) {
+            log.warn("Error closing WebDriver: {}", e.getMessage());
+        }
+    }
+    
     /**
      * Create a new WebDriver instance with appropriate configuration.
      *
@@ -106,13 +200,17 @@ public class WebDriverFactory {
         options.addArguments("--no-sandbox");
         options.addArguments("--disable-dev-shm-usage");
         options.addArguments("--disable-gpu");
+        if (headless) {
+            options.addArguments("--headless");
+        }
         
         // Disable images and CSS to improve performance (optional)
         // options.addArguments("--disable-images");
         
         // Each browser should have a separate user data directory
-        // to ensure session isolation between threads
-        options.addArguments("--user-data-dir=/tmp/chrome-profile-" + Thread.currentThread().getId());
+        // to ensure session isolation between drivers
+        options.addArguments("--user-data-dir=/tmp/chrome-profile-" + ProcessHandle.current().pid()
+                + "-" + profileCounter.incrementAndGet());
         
         // Create a new ChromeDriver instance with the configured options
         WebDriver driver = new ChromeDriver(options);
@@ -122,4 +220,4 @@ public class WebDriverFactory {
         
         return driver;
     }
-} 
\ No newline at end of file
+}
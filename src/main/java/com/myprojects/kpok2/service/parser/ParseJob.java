@@ -0,0 +1,178 @@
+package com.myprojects.kpok2.service.parser;
+
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import com.myprojects.kpok2.model.dto.ParseJobDto;
+import com.myprojects.kpok2.model.dto.ParsedTestQuestionDto;
+import com.myprojects.kpok2.model.dto.TestParsingResultDto;
+import com.myprojects.kpok2.service.retry.DelayedRetry;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A batch of test URLs submitted through the REST API, with the status of every URL.
+ * Workers claim URLs one at a time, so a job is spread over all available workers.
+ * Failed URLs wait in a delay queue until their backoff has elapsed and are then claimed again.
+ * The parsed questions are kept with the result of their URL, up to a limit per job.
+ */
+public class ParseJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED
+    }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final long submittedAt;
+    private final List<TestParsingResultDto> results;
+    private final int maxQuestions;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final DelayQueue<DelayedRetry<Integer>> retries = new DelayQueue<>();
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private Status status = Status.QUEUED;
+    private Long finishedAt;
+    private int finishedCount;
+    private int questionCount;
+    private int omittedQuestions;
+
+    /**
+     * @param maxQuestions parsed questions kept in the results of the job; further questions are only counted
+     */
+    public ParseJob(String id, List<String> urls, int maxQuestions) {
+        this.id = id;
+        this.submittedAt = System.currentTimeMillis();
+        this.maxQuestions = Math.max(0, maxQuestions);
+        this.results = urls.stream()
+                .map(url -> TestParsingResultDto.builder()
+                        .testUrl(url)
+                        .status(ParsingStatus.PENDING)
+                        .questions(List.of())
+                        .build())
+                .toList();
+    }
+
+    public int getUrlCount() {
+        return results.size();
+    }
+
+    public String getUrl(int index) {
+        return results.get(index).getTestUrl();
+    }
+
+    /**
+     * Claim the next URL that no worker has taken yet
+     * @return its index, or -1 if all URLs have been claimed
+     */
+    public int claimNext() {
+        int index = nextIndex.getAndIncrement();
+        return index < results.size() ? index : -1;
+    }
+
+    /**
+     * Put a failed URL back into the job once its backoff has elapsed
+     */
+    public synchronized void scheduleRetry(int index, int nextAttempt, ParsingErrorType failure,
+                                           String errorMessage, long delayMs) {
+        TestParsingResultDto result = results.get(index);
+        result.setStatus(ParsingStatus.RETRY);
+        result.setErrorMessage(errorMessage);
+        pendingRetries.incrementAndGet();
+        retries.add(new DelayedRetry<>(index, nextAttempt, failure, delayMs));
+    }
+
+    /**
+     * Whether failed URLs are still waiting for their retry
+     */
+    public boolean hasPendingRetries() {
+        return pendingRetries.get() > 0;
+    }
+
+    /**
+     * Take a retry whose backoff has elapsed, waiting up to the given time for one
+     * @return the retry, or null if none became due in time
+     */
+    public DelayedRetry<Integer> pollRetry(long timeout, TimeUnit unit) throws InterruptedException {
+        DelayedRetry<Integer> retry = retries.poll(timeout, unit);
+        if (retry != null) {
+            pendingRetries.decrementAndGet();
+        }
+        return retry;
+    }
+
+    /**
+     * Completes when every URL of the job has finished
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    public synchronized void markRunning(int index, int attempt) {
+        status = Status.RUNNING;
+        TestParsingResultDto result = results.get(index);
+        result.setStatus(attempt > 1 ? ParsingStatus.RETRY : ParsingStatus.RUNNING);
+        result.setAttemptCount(attempt);
+    }
+
+    /**
+     * Record a parsed URL with its questions, as many as still fit into the job's limit
+     * @return a copy of the final result of the URL
+     */
+    public synchronized TestParsingResultDto complete(int index, List<ParsedTestQuestionDto> questions) {
+        int kept = Math.min(questions.size(), maxQuestions - questionCount);
+        questionCount += kept;
+        omittedQuestions += questions.size() - kept;
+        results.get(index).setQuestions(List.copyOf(questions.subList(0, kept)));
+        return complete(index, true, null);
+    }
+
+    /**
+     * Record the outcome of a URL
+     * @return a copy of the final result of the URL
+     */
+    public synchronized TestParsingResultDto complete(int index, boolean success, String errorMessage) {
+        TestParsingResultDto result = results.get(index);
+        result.setStatus(success ? ParsingStatus.SUCCESS : ParsingStatus.FAILED);
+        result.setErrorMessage(success ? null : errorMessage);
+
+        finishedCount++;
+        if (finishedCount == results.size()) {
+            status = Status.COMPLETED;
+            finishedAt = System.currentTimeMillis();
+            completion.complete(null);
+        }
+        return result.toBuilder().build();
+    }
+
+    public synchronized boolean isFinished() {
+        return status == Status.COMPLETED;
+    }
+
+    public synchronized ParseJobDto toDto() {
+        List<TestParsingResultDto> snapshot = results.stream()
+                .map(result -> result.toBuilder().build())
+                .toList();
+        int succeeded = (int) snapshot.stream().filter(result -> result.getStatus() == ParsingStatus.SUCCESS).count();
+        int failed = (int) snapshot.stream().filter(result -> result.getStatus() == ParsingStatus.FAILED).count();
+        return ParseJobDto.builder()
+                .id(id)
+                .status(status)
+                .submittedAt(submittedAt)
+                .finishedAt(finishedAt)
+                .totalUrls(results.size())
+                .finishedUrls(finishedCount)
+                .succeededUrls(succeeded)
+                .failedUrls(failed)
+                .omittedQuestions(omittedQuestions)
+                .results(snapshot)
+                .build();
+    }
+}
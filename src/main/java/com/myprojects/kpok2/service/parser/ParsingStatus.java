@@ -1,7 +1,9 @@
 package com.myprojects.kpok2.service.parser;
 
 public enum ParsingStatus {
+    PENDING,
+    RUNNING,
     SUCCESS,
     FAILED,
     RETRY
-}
\ No newline at end of file
+}
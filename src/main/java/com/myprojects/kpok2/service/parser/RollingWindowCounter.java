@@ -0,0 +1,93 @@
+package com.myprojects.kpok2.service.parser;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count of events over a sliding time window, kept in a fixed ring of time buckets.
+ * Each slot holds the bucket of one time interval; a writer that finds a slot holding an
+ * expired bucket swaps in a fresh one with a CAS, so recording never blocks and memory
+ * does not grow with the length of a run. The sum covers the buckets of the last window
+ * and is therefore accurate to one bucket.
+ */
+public class RollingWindowCounter {
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * @param window length of the window
+     * @param bucketCount number of buckets the window is divided into
+     */
+    public RollingWindowCounter(Duration window, int bucketCount) {
+        if (bucketCount <= 0 || window.toMillis() < bucketCount) {
+            throw new IllegalArgumentException("Window " + window + " cannot be split into " + bucketCount + " buckets");
+        }
+        this.bucketMillis = window.toMillis() / bucketCount;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    public void add(long count) {
+        add(count, System.currentTimeMillis());
+    }
+
+    /**
+     * Add events that happened at the given time
+     */
+    public void add(long count, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) (epoch % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.epoch == epoch) {
+                bucket.count.add(count);
+                return;
+            }
+            if (bucket != null && bucket.epoch > epoch) {
+                // A later bucket already took the slot; the event is older than the window
+                return;
+            }
+            buckets.compareAndSet(slot, bucket, new Bucket(epoch));
+        }
+    }
+
+    public long sum() {
+        return sum(System.currentTimeMillis());
+    }
+
+    /**
+     * Events within the window ending at the given time
+     */
+    public long sum(long nowMillis) {
+        long currentEpoch = nowMillis / bucketMillis;
+        long oldestEpoch = currentEpoch - buckets.length() + 1;
+        long sum = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch >= oldestEpoch && bucket.epoch <= currentEpoch) {
+                sum += bucket.count.sum();
+            }
+        }
+        return sum;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(bucketMillis * buckets.length());
+    }
+
+    public void clear() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, null);
+        }
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final LongAdder count = new LongAdder();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.myprojects.kpok2.service.parser;
+
+/**
+ * Reasons for which a navigation run decides that no more iterations are needed
+ */
+public enum StopReason {
+    ITERATION_TARGET_REACHED("Target iteration count reached"),
+    LOW_DISCOVERY_RATE("New-question discovery rate dropped below threshold"),
+    COVERAGE_TARGET_REACHED("Estimated coverage reached target");
+
+    private final String description;
+
+    StopReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
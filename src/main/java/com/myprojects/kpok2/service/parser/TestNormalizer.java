@@ -12,6 +12,12 @@ import java.text.Normalizer;
 @Component
 public class TestNormalizer {
 
+    /**
+     * Version of the normalization rules. Bump it with every rule change: stored questions
+     * normalized with another version are re-normalized by the rehash migration.
+     */
+    public static final int VERSION = 1;
+
     /**
      * Normalizes text for comparison
      * @param text Text to normalize
@@ -1,7 +1,10 @@
 package com.myprojects.kpok2.service.parser;
 
 import com.myprojects.kpok2.config.DebugProperties;
-import jakarta.annotation.PostConstruct;
+import com.myprojects.kpok2.exception.parser.FailureClassifier;
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import com.myprojects.kpok2.exception.parser.ParsingException;
+import com.myprojects.kpok2.service.debug.DebugCaptureService;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -13,14 +16,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.openqa.selenium.*;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Component responsible for test page content access and verification
@@ -30,25 +29,14 @@ import java.time.format.DateTimeFormatter;
 public class TestPageNavigator {
 
     private final DebugProperties debugProperties;
+    private final DebugCaptureService debugCapture;
     private WebDriver webDriver;
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(3);
     
     @Autowired
-    public TestPageNavigator(DebugProperties debugProperties) {
+    public TestPageNavigator(DebugProperties debugProperties, DebugCaptureService debugCapture) {
         this.debugProperties = debugProperties;
-    }
-    
-    @PostConstruct
-    public void init() {
-        if (debugProperties.isSaveFiles()) {
-            log.info("Cleaning up debug directories...");
-            try {
-                cleanupDebugDirs();
-                log.info("Debug directories cleaned successfully");
-            } catch (IOException e) {
-                log.error("Failed to cleanup debug directories: {}", e.getMessage());
-            }
-        }
+        this.debugCapture = debugCapture;
     }
     
     /**
@@ -156,143 +144,71 @@ public class TestPageNavigator {
     public Document getCurrentPageDocument() {
         String pageSource = webDriver.getPageSource();
         
-        // Save the HTML to a file for debugging if needed
-        if (debugProperties.isSaveFiles()) {
-            saveHtmlToFile(pageSource, "page_" + System.currentTimeMillis());
-        }
+        // Hand the HTML to the debug writer if it is sampled
+        debugCapture.captureHtml(webDriver.getCurrentUrl(), pageSource);
         
         return Jsoup.parse(pageSource);
     }
     
     /**
-     * Take a screenshot of the current page
+     * Take a screenshot of the current page if it is sampled for debugging
      */
     public void takeScreenshot() {
-        try {
-            if (webDriver instanceof org.openqa.selenium.TakesScreenshot) {
-                log.info("Taking screenshot of the page...");
-                org.openqa.selenium.OutputType<byte[]> outputType = org.openqa.selenium.OutputType.BYTES;
-                byte[] screenshot = ((org.openqa.selenium.TakesScreenshot) webDriver).getScreenshotAs(outputType);
-                
-                if (debugProperties.isSaveFiles()) {
-                    saveScreenshot(screenshot);
-                }
-                
-                log.info("Screenshot taken, size: {} bytes", screenshot.length);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to take screenshot: {}", e.getMessage());
-        }
-    }
-    
-    /**
-     * Save screenshot to file
-     */
-    private void saveScreenshot(byte[] screenshot) {
-        try {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String fileName = String.format("screenshot_%s.png", timestamp);
-            
-            Path filePath = Path.of(debugProperties.getScreenshotsDirPath(), fileName);
-            Files.write(filePath, screenshot);
-            
-            log.info("Screenshot saved to: {}", filePath);
-        } catch (IOException e) {
-            log.warn("Failed to save screenshot: {}", e.getMessage());
-        }
-    }
-    
-    /**
-     * Saves the HTML content to a file for debugging
-     */
-    private void saveHtmlToFile(String html, String fileName) {
-        try {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String fullFileName = fileName + "_" + timestamp + ".html";
-            
-            Path filePath = Path.of(debugProperties.getHtmlDirPath(), fullFileName);
-            Files.writeString(filePath, html);
-            
-            log.info("HTML saved to: {}", filePath);
-        } catch (IOException e) {
-            log.warn("Failed to save HTML to file: {}", e.getMessage());
+        if (webDriver instanceof TakesScreenshot screenshotDriver) {
+            debugCapture.captureScreenshot(webDriver.getCurrentUrl(), () -> screenshotDriver.getScreenshotAs(OutputType.BYTES));
         }
     }
     
     /**
      * Navigate to test URL and verify the page is loaded
+     * @throws ParsingException classified by what the browser shows if the page could not be loaded
      */
-    public boolean navigateToTestUrl(WebDriver driver, String url) {
+    public void navigateToTestUrl(WebDriver driver, String url) {
         try {
             driver.get(url);
             
             // Wait for page content to load
             WebDriverWait wait = new WebDriverWait(driver, DEFAULT_TIMEOUT);
             wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("#page-content")));
-            
-            // Verify URL
-            String currentUrl = driver.getCurrentUrl();
-            if (!currentUrl.equals(url)) {
-                log.error("Wrong page loaded. Expected: {}, Got: {}", url, currentUrl);
-                return false;
-            }
-            
-            return true;
-        } catch (Exception e) {
+        } catch (WebDriverException e) {
             log.error("Error navigating to URL {}: {}", url, e.getMessage());
-            return false;
+            // A timeout while waiting may also mean a login redirect or a server error page
+            throw new ParsingException(
+                    FailureClassifier.classifyPage(currentUrlOf(driver), titleOf(driver), FailureClassifier.classify(e)),
+                    "Error navigating to URL " + url + ": " + e.getMessage(),
+                    e);
+        }
+        
+        // Verify URL
+        String currentUrl = driver.getCurrentUrl();
+        if (!currentUrl.equals(url)) {
+            log.error("Wrong page loaded. Expected: {}, Got: {}", url, currentUrl);
+            throw new ParsingException(
+                    FailureClassifier.classifyPage(currentUrl, titleOf(driver), ParsingErrorType.INVALID_PAGE_STRUCTURE),
+                    "Wrong page loaded for " + url + ": " + currentUrl);
         }
     }
     
     /**
-     * Save page source to debug directory
+     * Classify the page the browser is on after the page content turned out to be unusable
      */
-    public void savePageSource(WebDriver driver, String url) {
-        try {
-            String pageSource = driver.getPageSource();
-            String fileName = generateFileName(url, "html");
-            Path filePath = Paths.get(debugProperties.getHtmlDirPath(), fileName);
-            Files.writeString(filePath, pageSource);
-            log.debug("Saved page source to: {}", filePath);
-        } catch (Exception e) {
-            log.error("Error saving page source for URL {}: {}", url, e.getMessage());
-        }
+    public ParsingErrorType classifyCurrentPage(WebDriver driver, ParsingErrorType fallback) {
+        return FailureClassifier.classifyPage(currentUrlOf(driver), titleOf(driver), fallback);
     }
     
-    /**
-     * Save screenshot to debug directory
-     */
-    public void saveScreenshot(WebDriver driver, String url) {
+    private String currentUrlOf(WebDriver driver) {
         try {
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            File screenshot = ts.getScreenshotAs(OutputType.FILE);
-            String fileName = generateFileName(url, "png");
-            Path filePath = Paths.get(debugProperties.getScreenshotsDirPath(), fileName);
-            Files.copy(screenshot.toPath(), filePath);
-            log.debug("Saved screenshot to: {}", filePath);
-        } catch (Exception e) {
-            log.error("Error saving screenshot for URL {}: {}", url, e.getMessage());
+            return driver.getCurrentUrl();
+        } catch (WebDriverException e) {
+            return null;
         }
     }
     
-    private void cleanupDebugDirs() throws IOException {
-        // Create or clean HTML directory
-        Path htmlDir = Paths.get(debugProperties.getHtmlDirPath());
-        Files.createDirectories(htmlDir);
-        log.debug("Created directory: {}", htmlDir);
-        
-        // Create or clean screenshots directory
-        Path screenshotsDir = Paths.get(debugProperties.getScreenshotsDirPath());
-        Files.createDirectories(screenshotsDir);
-        log.debug("Created directory: {}", screenshotsDir);
-    }
-    
-    private String generateFileName(String url, String extension) {
-        // Remove protocol and special characters, replace with underscores
-        String fileName = url.replaceAll("https?://", "")
-                .replaceAll("[^a-zA-Z0-9.]", "_");
-        
-        // Add timestamp to make filename unique
-        return String.format("%d_%s.%s", System.currentTimeMillis(), fileName, extension);
+    private String titleOf(WebDriver driver) {
+        try {
+            return driver.getTitle();
+        } catch (WebDriverException e) {
+            return null;
+        }
     }
 } 
\ No newline at end of file
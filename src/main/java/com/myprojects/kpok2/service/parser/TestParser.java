@@ -1,38 +1,108 @@
 package com.myprojects.kpok2.service.parser;
 
 import com.myprojects.kpok2.model.dto.TestParsingResultDto;
-import com.myprojects.kpok2.service.AuthenticationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Accepts parse jobs and keeps the most recent ones so their progress can be queried
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TestParser {
+    private static final int MAX_RETAINED_JOBS = 100;
+
     private final TestParsingExecutor parsingExecutor;
-    private final AuthenticationService authenticationService;
-    private final CopyOnWriteArrayList<TestParsingResultDto> lastResults = new CopyOnWriteArrayList<>();
+    private final Map<String, ParseJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> jobOrder = new ConcurrentLinkedQueue<>();
+    private volatile ParseJob lastJob;
+
+    @Value("${app.parse.max-urls-per-job:1000}")
+    private int maxUrlsPerJob;
+
+    @Value("${app.parse.max-questions-per-job:2000}")
+    private int maxQuestionsPerJob;
 
-    public void parseTest(String url) {
-        parseTests(List.of(url));
+    public ParseJob parseTest(String url) {
+        return parseTests(List.of(url));
     }
 
-    private void parseTests(List<String> testUrls) {
-        if (!authenticationService.login()) {
-            throw new RuntimeException("Failed to authenticate");
+    /**
+     * Submit URLs for parsing; they are parsed in the background
+     * @return the job, which tracks the status of every URL
+     * @throws IllegalArgumentException if no URL or more URLs than allowed per job are given
+     * @throws RejectedExecutionException if the parsing executor has no room for the job
+     */
+    public ParseJob parseTests(List<String> testUrls) {
+        List<String> urls = testUrls.stream()
+                .filter(url -> url != null && !url.isBlank())
+                .map(String::trim)
+                .toList();
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("No test URLs given");
         }
-        List<TestParsingResultDto> results = parsingExecutor.executeInBatches(testUrls);
-        parsingExecutor.processFailedQueue();
-        lastResults.clear();
-        lastResults.addAll(results);
+        if (urls.size() > maxUrlsPerJob) {
+            throw new IllegalArgumentException("At most " + maxUrlsPerJob + " URLs can be submitted per job");
+        }
+
+        ParseJob job = new ParseJob(UUID.randomUUID().toString(), urls, maxQuestionsPerJob);
+        // Throws before the job is registered when the parsing executor is full
+        CompletableFuture<Void> completion = parsingExecutor.execute(job);
+        jobs.put(job.getId(), job);
+        jobOrder.add(job.getId());
+        lastJob = job;
+        evictFinishedJobs();
+
+        log.info("Submitted parse job {} with {} URLs", job.getId(), urls.size());
+        completion.whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.error("Parse job {} failed: {}", job.getId(), e.getMessage(), e);
+            } else {
+                log.info("Parse job {} completed", job.getId());
+            }
+        });
+        return job;
     }
 
+    public Optional<ParseJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Per-URL results of the most recently submitted job
+     */
     public List<TestParsingResultDto> getLastParsingResults() {
-        return new ArrayList<>(lastResults);
+        ParseJob job = lastJob;
+        return job != null ? job.toDto().getResults() : List.of();
+    }
+
+    /**
+     * Forget the oldest finished jobs once more than the retained number have been submitted
+     */
+    private void evictFinishedJobs() {
+        while (jobOrder.size() > MAX_RETAINED_JOBS) {
+            String oldestId = jobOrder.peek();
+            ParseJob oldest = oldestId != null ? jobs.get(oldestId) : null;
+            if (oldest != null && !oldest.isFinished()) {
+                break;
+            }
+            jobOrder.poll();
+            if (oldestId != null) {
+                jobs.remove(oldestId);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,77 +1,182 @@
 package com.myprojects.kpok2.service.parser;
 
-import com.myprojects.kpok2.model.dto.ParsedTestQuestionDto;
-import com.myprojects.kpok2.model.dto.TestParsingResultDto;
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
+import com.myprojects.kpok2.config.executor.InstrumentedExecutor;
+import com.myprojects.kpok2.exception.parser.FailureClassifier;
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import com.myprojects.kpok2.exception.parser.ParsingException;
+import com.myprojects.kpok2.service.navigation.NavigationSession;
+import com.myprojects.kpok2.service.navigation.NavigationSessionFactory;
+import com.myprojects.kpok2.service.navigation.TestCenterNavigator;
+import com.myprojects.kpok2.service.retry.DelayedRetry;
+import com.myprojects.kpok2.service.retry.RetryMetrics;
+import com.myprojects.kpok2.service.retry.RetryPolicy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs parse jobs on a bounded number of workers. Each worker opens one navigation session,
+ * logs in once and then parses URLs of the job until none are left. Failed URLs are retried
+ * with backoff according to {@link RetryPolicy}.
+ */
 @Slf4j
 @Service
 public class TestParsingExecutor {
-    private final Executor taskExecutor;
-    private final TestPageParser pageParser;
+    private static final long RETRY_POLL_MS = 500;
+
+    private final NavigationSessionFactory sessionFactory;
+    private final TestCenterNavigator navigator;
+    private final TestParsingRunner parsingRunner;
     private final TestParsingStatistics statistics;
-    private final ConcurrentLinkedQueue<TestParsingResultDto> failedQueue;
-    private static final int MAX_RETRY_ATTEMPTS = 3;
+    private final RetryPolicy retryPolicy;
+    private final RetryMetrics retryMetrics;
+    private final InstrumentedExecutor workerPool;
 
     public TestParsingExecutor(
-            Executor taskExecutor,
-            TestPageParser pageParser,
-            TestParsingStatistics statistics
+            NavigationSessionFactory sessionFactory,
+            TestCenterNavigator navigator,
+            TestParsingRunner parsingRunner,
+            TestParsingStatistics statistics,
+            RetryPolicy retryPolicy,
+            RetryMetrics retryMetrics,
+            @Qualifier(ExecutorConfig.PARSING_EXECUTOR) InstrumentedExecutor workerPool
     ) {
-        this.taskExecutor = taskExecutor;
-        this.pageParser = pageParser;
+        this.sessionFactory = sessionFactory;
+        this.navigator = navigator;
+        this.parsingRunner = parsingRunner;
         this.statistics = statistics;
-        this.failedQueue = new ConcurrentLinkedQueue<>();
+        this.retryPolicy = retryPolicy;
+        this.retryMetrics = retryMetrics;
+        this.workerPool = workerPool;
     }
 
-    public List<TestParsingResultDto> executeInBatches(List<String> urls) {
-        return urls.stream()
-                .map(url -> CompletableFuture.supplyAsync(
-                        () -> parseTestWithRetry(url, 1),
-                        taskExecutor
-                ))
-                .map(CompletableFuture::join)
-                .collect(Collectors.toList());
+    /**
+     * Parse all URLs of a job. Workers of later jobs wait in the parsing executor's queue until
+     * a worker slot is free. When the queue fills up, the job runs with the workers that fit.
+     * @return a future that completes when every URL of the job has finished
+     * @throws RejectedExecutionException if the queue has no room for any worker of the job
+     */
+    public CompletableFuture<Void> execute(ParseJob job) {
+        int workerCount = Math.min(workerPool.getMaximumPoolSize(), job.getUrlCount());
+        for (int i = 0; i < workerCount; i++) {
+            try {
+                workerPool.execute(() -> runWorker(job));
+            } catch (RejectedExecutionException e) {
+                if (i == 0) {
+                    throw e;
+                }
+                log.warn("Parse job {} runs with {} of {} workers: {}", job.getId(), i, workerCount, e.getMessage());
+                break;
+            }
+        }
+        return job.getCompletion();
     }
 
-    private TestParsingResultDto parseTestWithRetry(String url, int attempt) {
+    /**
+     * Parse URLs of the job until none are left. A worker that scheduled a retry stays
+     * until the retry has run, so it can resume with its logged-in session.
+     */
+    private void runWorker(ParseJob job) {
+        NavigationSession session = null;
         try {
-            pageParser.parse(url);
-            
-            return TestParsingResultDto.builder()
-                    .testUrl(url)
-                    .status(ParsingStatus.SUCCESS)
-                    .questions(List.of())
-                    .attemptCount(attempt)
-                    .build();
-        } catch (Exception e) {
-            if (attempt < MAX_RETRY_ATTEMPTS) {
-                log.warn("Retry {} for {}", attempt, url);
-                return parseTestWithRetry(url, attempt + 1);
+            while (!Thread.currentThread().isInterrupted()) {
+                int index = job.claimNext();
+                if (index >= 0) {
+                    session = parseUrl(job, index, 1, null, session);
+                    continue;
+                }
+                if (!job.hasPendingRetries()) {
+                    break;
+                }
+                DelayedRetry<Integer> retry = job.pollRetry(RETRY_POLL_MS, TimeUnit.MILLISECONDS);
+                if (retry != null) {
+                    session = parseUrl(job, retry.getItem(), retry.getAttempt(), retry.getFailure(), session);
+                }
             }
-            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Parse worker for job {} was interrupted", job.getId());
+        } finally {
+            closeSession(session);
         }
     }
 
-    public void processFailedQueue() {
-        while (!failedQueue.isEmpty()) {
-            TestParsingResultDto failed = failedQueue.poll();
-            if (failed != null && failed.getAttemptCount() < MAX_RETRY_ATTEMPTS) {
-                try {
-                    TestParsingResultDto retry = parseTestWithRetry(
-                            failed.getTestUrl(),
-                            failed.getAttemptCount() + 1
-                    );
-                    statistics.updateStats(retry);
-                } catch (Exception e) {
-                    log.error("Final retry failed for {}", failed.getTestUrl());
-                }
+    /**
+     * Make one attempt at a URL of the job
+     * @param previousFailure class of the failure that caused this attempt, or null for the first attempt
+     * @return the session to use for the next URL, or null if it had to be discarded
+     */
+    private NavigationSession parseUrl(ParseJob job, int index, int attempt, ParsingErrorType previousFailure,
+                                       NavigationSession session) throws InterruptedException {
+        String url = job.getUrl(index);
+        job.markRunning(index, attempt);
+
+        ParsingErrorType failure;
+        String errorMessage;
+        try {
+            if (session == null) {
+                session = openSession();
+            }
+            TestParsingRunner.ParsedPage page = parsingRunner.parseTestPage(url, session);
+            if (previousFailure != null) {
+                retryMetrics.recordRecovered(previousFailure);
+            }
+            statistics.updateStats(job.complete(index, page.questions()));
+            return session;
+        } catch (InterruptedException e) {
+            statistics.updateStats(job.complete(index, false, "Interrupted"));
+            throw e;
+        } catch (Exception e) {
+            failure = FailureClassifier.classify(e);
+            errorMessage = e.getMessage();
+        }
+
+        retryMetrics.recordFailure(failure);
+        log.warn("Attempt {} failed for {} ({}): {}", attempt, url, failure, errorMessage);
+
+        // Keep the session when only the page failed, so the retry does not log in again
+        if (!failure.isSessionSafe()) {
+            closeSession(session);
+            session = null;
+        }
+
+        if (retryPolicy.shouldRetry(failure, attempt)) {
+            long delay = retryPolicy.computeDelay(attempt);
+            retryMetrics.recordRetry(failure);
+            job.scheduleRetry(index, attempt + 1, failure, errorMessage, delay);
+            log.info("Retrying {} in {} ms", url, delay);
+        } else {
+            if (failure.isRetryable()) {
+                retryMetrics.recordExhausted(failure);
             }
+            statistics.updateStats(job.complete(index, false, errorMessage));
+        }
+        return session;
+    }
+
+    private NavigationSession openSession() throws InterruptedException {
+        NavigationSession session = sessionFactory.createSession();
+        if (!navigator.authenticate(session)) {
+            String username = session.getAccount().getUsername();
+            closeSession(session);
+            throw new ParsingException(ParsingErrorType.ACCESS_DENIED, "Failed to authenticate account " + username);
+        }
+        return session;
+    }
+
+    private void closeSession(NavigationSession session) {
+        if (session == null) {
+            return;
+        }
+        try {
+            session.close();
+        } catch (Exception e) {
+            log.warn("Error closing parse session: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
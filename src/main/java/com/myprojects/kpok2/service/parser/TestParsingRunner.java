@@ -1,13 +1,21 @@
 package com.myprojects.kpok2.service.parser;
 
-import com.myprojects.kpok2.config.DebugProperties;
+import com.myprojects.kpok2.exception.parser.FailureClassifier;
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import com.myprojects.kpok2.exception.parser.ParsingException;
 import com.myprojects.kpok2.model.dto.ParsedTestQuestionDto;
 import com.myprojects.kpok2.service.TestQuestionService;
+import com.myprojects.kpok2.service.debug.DebugCaptureService;
+import com.myprojects.kpok2.service.metrics.CrawlMetrics;
+import com.myprojects.kpok2.service.metrics.CrawlMetrics.Step;
+import com.myprojects.kpok2.service.metrics.jfr.PageParseEvent;
 import com.myprojects.kpok2.service.navigation.NavigationSession;
 import com.myprojects.kpok2.service.navigation.NavigationSessionFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.nodes.Document;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.springframework.stereotype.Component;
 
@@ -25,67 +33,103 @@ public class TestParsingRunner {
     private final TestPageNavigator pageNavigator;
     private final TestQuestionParser questionParser;
     private final TestQuestionService testQuestionService;
-    private final DebugProperties debugProperties;
+    private final DebugCaptureService debugCapture;
     private final TestParsingStatistics parsingStatistics;
+    private final CrawlMetrics crawlMetrics;
     
     /**
      * Process test URL using existing navigation session
+     * @return true if the page was parsed and its questions saved
      */
     public boolean processTestUrl(String url, NavigationSession session) {
+        try {
+            parseTestUrl(url, session);
+            return true;
+        } catch (ParsingException e) {
+            log.error("Failed to process URL {} ({}): {}", url, e.getErrorType(), e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Questions parsed from one page
+     * @param questions all questions on the page, new and duplicate
+     * @param newQuestions number of them that were not stored yet
+     */
+    public record ParsedPage(List<ParsedTestQuestionDto> questions, int newQuestions) {
+    }
+    
+    /**
+     * Parse a test URL using an existing navigation session and save its questions
+     * @return number of new questions saved from the page
+     * @throws ParsingException classified by the cause, so the caller can decide how to retry
+     */
+    public int parseTestUrl(String url, NavigationSession session) {
+        return parseTestPage(url, session).newQuestions();
+    }
+    
+    /**
+     * Parse a test URL using an existing navigation session and save its questions
+     * @return the parsed questions and how many of them were new
+     * @throws ParsingException classified by the cause, so the caller can decide how to retry
+     */
+    public ParsedPage parseTestPage(String url, NavigationSession session) {
         log.info("Starting processing of URL: {}", url);
         
+        String username = session.getAccount().getUsername();
+        PageParseEvent event = PageParseEvent.begin(url, username, session.getAttemptId());
+        ParsingErrorType failure = ParsingErrorType.UNEXPECTED_ERROR;
         try {
             WebDriver driver = session.getWebDriver();
-            String username = session.getAccount().getUsername();
             
             // Navigate to the test page
-            boolean success = pageNavigator.navigateToTestUrl(driver, url);
-            if (!success) {
-                log.error("Failed to navigate to URL: {}", url);
-                return false;
-            }
+            long stepStart = System.nanoTime();
+            pageNavigator.navigateToTestUrl(driver, url);
+            crawlMetrics.recordStep(Step.REVIEW_FETCH, stepStart);
             
             // Parse the test page
-            List<ParsedTestQuestionDto> questions = questionParser.parsePage(driver, url);
+            stepStart = System.nanoTime();
+            String pageSource = driver.getPageSource();
+            List<ParsedTestQuestionDto> questions = questionParser.parsePage(pageSource, url);
+            crawlMetrics.recordStep(Step.PARSE, stepStart);
+            
+            // Hand the sampled page to the debug writer; pages without questions are the interesting ones
+            debugCapture.captureHtml(url, pageSource);
+            debugCapture.captureScreenshot(url, () -> ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+            
             if (questions.isEmpty()) {
-                log.error("Failed to parse questions at URL: {}", url);
-                return false;
+                throw new ParsingException(
+                        pageNavigator.classifyCurrentPage(driver, ParsingErrorType.NO_QUESTIONS),
+                        "No questions found at URL: " + url);
             }
             
             // Save parsed questions
-            List<com.myprojects.kpok2.model.TestQuestion> savedQuestions = testQuestionService.saveUniqueQuestions(questions);
+            stepStart = System.nanoTime();
+            List<com.myprojects.kpok2.model.TestQuestion> savedQuestions = testQuestionService.saveUniqueQuestions(questions, session.getAttemptId());
+            crawlMetrics.recordStep(Step.SAVE, stepStart);
             int newQuestionsCount = savedQuestions.size();
+            crawlMetrics.recordQuestions(newQuestionsCount, questions.size() - newQuestionsCount);
+            event.setQuestions(questions.size(), newQuestionsCount);
             
             // Update account statistics
             parsingStatistics.registerAccountActivity(username, 1); // Increment page count for this account
             
             // Add session info
             parsingStatistics.addSessionInfo(username, 1, newQuestionsCount);
-            
-            // Save debug files if enabled
-            if (debugProperties.isSaveFiles()) {
-                pageNavigator.savePageSource(driver, url);
-                pageNavigator.saveScreenshot(driver, url);
-            }
-            
-            return true;
-            
+            failure = null;
+            return new ParsedPage(questions, newQuestionsCount);
+        } catch (ParsingException e) {
+            failure = e.getErrorType();
+            throw e;
         } catch (Exception e) {
             log.error("Error processing URL {}: {}", url, e.getMessage(), e);
-            return false;
+            failure = FailureClassifier.classify(e);
+            throw new ParsingException(failure, "Error processing URL " + url + ": " + e.getMessage(), e);
+        } finally {
+            event.finish(failure);
         }
     }
     
-    /**
-     * Process test URL by creating new navigation session
-     * @deprecated Use processTestUrl(String, NavigationSession) instead
-     */
-    @Deprecated
-    public boolean processTestUrl(String url) {
-        log.warn("Using deprecated method that creates new session. Use processTestUrl(String, NavigationSession) instead");
-        return false;
-    }
-    
     /**
      * Parse the current page
      * @return List of parsed questions from the current page
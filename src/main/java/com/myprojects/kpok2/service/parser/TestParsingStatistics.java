@@ -1,48 +1,80 @@
 package com.myprojects.kpok2.service.parser;
 
+import com.myprojects.kpok2.config.TestCenterProperties.AutoStopProperties;
+import com.myprojects.kpok2.model.IterationRecord;
 import com.myprojects.kpok2.model.dto.TestParsingResultDto;
+import com.myprojects.kpok2.service.statistics.IterationStatisticsSink;
+import com.myprojects.kpok2.util.SessionHistoryBuffer;
 import lombok.Data;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Parsing statistics shared by all navigation and parse job threads. Counters are
+ * {@link LongAdder}s, so concurrent writers do not contend on a single value; rates are
+ * kept in fixed time-bucketed windows and session details in a bounded ring, so memory
+ * stays constant however long a run lasts.
+ */
 @Component
 @Slf4j
 public class TestParsingStatistics {
-    private final AtomicInteger processedCount;
-    private final AtomicInteger successCount;
-    private final AtomicInteger failedCount;
-    private final AtomicInteger newQuestionsCount;
+    private final LongAdder processedCount;
+    private final LongAdder successCount;
+    private final LongAdder failedCount;
+    private final RateTracker newQuestions;
+    private final RateTracker parsedQuestions;
+    private final RateTracker pagesParsed;
+    private final RateTracker iterations;
     private final AtomicInteger completedIterationsCount;
     private final AtomicInteger totalIterationsNeeded;
     
     // Map account username to number of pages parsed by that account
-    private final Map<String, Integer> accountsUsed;
+    private final Map<String, LongAdder> accountsUsed;
     
-    // Store individual parsing session details
-    private final List<ParsingSessionInfo> sessionHistory;
+    // Persists iteration records, which outlive restarts and resets
+    private final IterationStatisticsSink statisticsSink;
+    
+    // Most recent parsing session details
+    private final SessionHistoryBuffer<ParsingSessionInfo> sessionHistory;
     
     // Last reset time
-    private LocalDateTime lastResetTime;
+    private volatile LocalDateTime lastResetTime;
+    private volatile long lastResetMillis;
+    
+    // Yield-based auto-stop policy for the current run
+    private volatile YieldStopPolicy stopPolicy;
     
-    public TestParsingStatistics() {
-        this.processedCount = new AtomicInteger(0);
-        this.successCount = new AtomicInteger(0);
-        this.failedCount = new AtomicInteger(0);
-        this.newQuestionsCount = new AtomicInteger(0);
+    // Reason the current run was stopped, null while iterations are still needed
+    private volatile StopReason stopReason;
+    
+    public TestParsingStatistics(IterationStatisticsSink statisticsSink,
+                                 @Value("${app.statistics.session-history-size:1000}") int sessionHistorySize) {
+        this.statisticsSink = statisticsSink;
+        this.processedCount = new LongAdder();
+        this.successCount = new LongAdder();
+        this.failedCount = new LongAdder();
+        this.newQuestions = new RateTracker();
+        this.parsedQuestions = new RateTracker();
+        this.pagesParsed = new RateTracker();
+        this.iterations = new RateTracker();
         this.completedIterationsCount = new AtomicInteger(0);
         this.totalIterationsNeeded = new AtomicInteger(0);
         this.accountsUsed = new ConcurrentHashMap<>();
-        this.sessionHistory = new ArrayList<>();
+        this.sessionHistory = new SessionHistoryBuffer<>(sessionHistorySize);
         this.lastResetTime = LocalDateTime.now();
+        this.lastResetMillis = System.currentTimeMillis();
+        this.stopPolicy = YieldStopPolicy.disabled();
     }
 
     /**
@@ -58,12 +90,43 @@ public class TestParsingStatistics {
         }
     }
     
+    /**
+     * Configure the yield-based auto-stop policy for a new run.
+     * Clears any stop reason left over from a previous run.
+     * @param autoStop auto-stop settings
+     */
+    public void configureAutoStop(AutoStopProperties autoStop) {
+        YieldStopPolicy policy = new YieldStopPolicy(autoStop);
+        policy.start(parsedQuestions.total(), newQuestions.total());
+        stopPolicy = policy;
+        stopReason = null;
+        
+        if (policy.isEnabled()) {
+            log.info("Auto-stop enabled: window={} iterations, minNewQuestionsPerIteration={}, targetCoverage={}",
+                     autoStop.getWindowSize(), autoStop.getMinNewQuestionsPerIteration(), autoStop.getTargetCoverage());
+        } else {
+            log.info("Auto-stop disabled");
+        }
+    }
+    
+    /**
+     * Overwrite the completed iteration count, e.g. when resuming a run
+     * or when the count is shared with other nodes
+     * @param count iterations completed so far
+     */
+    public void setCompletedIterationsCount(int count) {
+        completedIterationsCount.set(count);
+        log.debug("Completed iterations set to: {}", count);
+    }
+    
     /**
      * Increment the count of completed iterations
      * @return the new count of completed iterations
      */
     public int incrementCompletedIterations() {
         int newValue = completedIterationsCount.incrementAndGet();
+        iterations.add(1);
+        stopPolicy.onIterationCompleted(parsedQuestions.total(), newQuestions.total());
         int total = totalIterationsNeeded.get();
         
         if (total <= 0) {
@@ -82,20 +145,41 @@ public class TestParsingStatistics {
      * @return true if more iterations should be performed, false otherwise
      */
     public boolean isMoreIterationsNeeded() {
-        // If totalIterationsNeeded is 0, it means unlimited iterations
-        if (totalIterationsNeeded.get() <= 0) {
-            return true;
+        if (stopReason != null) {
+            return false;
         }
         
-        boolean result = completedIterationsCount.get() < totalIterationsNeeded.get();
-        
-        if (!result) {
+        // If totalIterationsNeeded is 0, it means unlimited iterations
+        if (totalIterationsNeeded.get() > 0 && completedIterationsCount.get() >= totalIterationsNeeded.get()) {
             log.info("Target iteration count reached: {}/{}", 
                      completedIterationsCount.get(), 
                      totalIterationsNeeded.get());
+            stop(StopReason.ITERATION_TARGET_REACHED);
+            return false;
+        }
+        
+        Optional<StopReason> autoStopReason = stopPolicy.evaluate();
+        if (autoStopReason.isPresent()) {
+            stop(autoStopReason.get());
+            return false;
         }
         
-        return result;
+        return true;
+    }
+    
+    private synchronized void stop(StopReason reason) {
+        if (stopReason == null) {
+            stopReason = reason;
+            log.info("Run stopped after {} iterations: {}", completedIterationsCount.get(), reason.getDescription());
+        }
+    }
+    
+    /**
+     * Get the reason the current run was stopped
+     * @return the stop reason, or null if the run has not stopped on its own
+     */
+    public StopReason getStopReason() {
+        return stopReason;
     }
     
     /**
@@ -115,11 +199,11 @@ public class TestParsingStatistics {
     }
 
     public void updateStats(TestParsingResultDto result) {
-        processedCount.incrementAndGet();
+        processedCount.increment();
         if (result.getStatus() == ParsingStatus.SUCCESS) {
-            successCount.incrementAndGet();
+            successCount.increment();
         } else {
-            failedCount.incrementAndGet();
+            failedCount.increment();
         }
     }
     
@@ -128,9 +212,18 @@ public class TestParsingStatistics {
      */
     public void incrementNewQuestions(int count) {
         if (count > 0) {
-            newQuestionsCount.addAndGet(count);
+            newQuestions.add(count);
             log.info("Added {} new questions to statistics. Total new questions: {}", 
-                    count, newQuestionsCount.get());
+                    count, newQuestions.total());
+        }
+    }
+    
+    /**
+     * Update statistics with the number of questions parsed, new and duplicate alike
+     */
+    public void incrementParsedQuestions(int count) {
+        if (count > 0) {
+            parsedQuestions.add(count);
         }
     }
     
@@ -138,11 +231,19 @@ public class TestParsingStatistics {
      * Register account activity in statistics
      */
     public void registerAccountActivity(String username, int pagesParsed) {
-        // Update or set the account usage count
-        accountsUsed.compute(username, (key, oldValue) -> 
-                (oldValue == null) ? pagesParsed : oldValue + pagesParsed);
+        LongAdder accountPages = accountsUsed.computeIfAbsent(username, key -> new LongAdder());
+        accountPages.add(pagesParsed);
+        this.pagesParsed.add(pagesParsed);
         log.info("Account {} parsed {} pages. Total pages for this account: {}", 
-                username, pagesParsed, accountsUsed.get(username));
+                username, pagesParsed, accountPages.sum());
+    }
+    
+    /**
+     * Record the outcome of a navigation iteration, successful or not, for the persisted
+     * trends. Only queues the record, so the calling navigation thread never waits for the database.
+     */
+    public void recordIteration(IterationRecord record) {
+        statisticsSink.submit(record);
     }
     
     /**
@@ -161,10 +262,10 @@ public class TestParsingStatistics {
 
     public void logProgress() {
         log.info("Progress: processed={}, success={}, failed={}, newQuestions={}, iterations={}/{}",
-                processedCount.get(),
-                successCount.get(),
-                failedCount.get(),
-                newQuestionsCount.get(),
+                processedCount.sum(),
+                successCount.sum(),
+                failedCount.sum(),
+                newQuestions.total(),
                 completedIterationsCount.get(),
                 totalIterationsNeeded.get() > 0 ? totalIterationsNeeded.get() : "unlimited"
         );
@@ -178,38 +279,56 @@ public class TestParsingStatistics {
      * Get the current statistics data
      */
     public StatisticsData getCurrentStats() {
+        Map<String, Long> accountPages = new HashMap<>();
+        accountsUsed.forEach((username, pages) -> accountPages.put(username, pages.sum()));
+        long now = System.currentTimeMillis();
+        long runMillis = now - lastResetMillis;
+        
         return new StatisticsData(
-                processedCount.get(),
-                successCount.get(),
-                failedCount.get(),
-                newQuestionsCount.get(),
+                processedCount.sum(),
+                successCount.sum(),
+                failedCount.sum(),
+                newQuestions.total(),
                 completedIterationsCount.get(),
                 totalIterationsNeeded.get(),
-                new HashMap<>(accountsUsed),
-                lastResetTime
+                accountPages,
+                lastResetTime,
+                stopReason,
+                stopPolicy.getDiscoveryRate().orElse(null),
+                stopPolicy.getEstimatedCoverage().orElse(null),
+                newQuestions.rates(now, runMillis),
+                pagesParsed.rates(now, runMillis),
+                iterations.rates(now, runMillis)
         );
     }
     
     /**
-     * Get detailed session history
+     * Get the most recent sessions, oldest first; older sessions are dropped once the
+     * history is full
      */
     public List<ParsingSessionInfo> getSessionHistory() {
-        return new ArrayList<>(sessionHistory);
+        return sessionHistory.snapshot();
     }
     
     /**
      * Reset all statistics data
      */
     public void resetStats() {
-        processedCount.set(0);
-        successCount.set(0);
-        failedCount.set(0);
-        newQuestionsCount.set(0);
+        processedCount.reset();
+        successCount.reset();
+        failedCount.reset();
+        newQuestions.reset();
+        parsedQuestions.reset();
+        pagesParsed.reset();
+        iterations.reset();
         completedIterationsCount.set(0);
+        stopPolicy.start(0, 0);
+        stopReason = null;
         // Don't reset totalIterationsNeeded, as we want to keep the setting
         accountsUsed.clear();
         sessionHistory.clear();
         lastResetTime = LocalDateTime.now();
+        lastResetMillis = System.currentTimeMillis();
         log.info("Statistics reset at {}", lastResetTime);
     }
     
@@ -229,13 +348,71 @@ public class TestParsingStatistics {
      */
     @Data
     public static class StatisticsData {
-        private final int processedCount;
-        private final int successCount;
-        private final int failedCount;
-        private final int newQuestionsCount;
+        private final long processedCount;
+        private final long successCount;
+        private final long failedCount;
+        private final long newQuestionsCount;
         private final int completedIterations;
         private final int totalIterationsNeeded;
-        private final Map<String, Integer> accountsUsed;
+        private final Map<String, Long> accountsUsed;
         private final LocalDateTime since;
+        private final StopReason stopReason;
+        private final Double discoveryRate;
+        private final Double estimatedCoverage;
+        private final RateData newQuestionRate;
+        private final RateData pageRate;
+        private final RateData iterationRate;
+    }
+    
+    /**
+     * Events per minute over the last minute, the last 15 minutes and since the last reset
+     */
+    @Data
+    public static class RateData {
+        private final double lastMinute;
+        private final double last15Minutes;
+        private final double wholeRun;
+    }
+    
+    /**
+     * Total count plus rolling windows of one counter
+     */
+    private static class RateTracker {
+        private static final Duration SHORT_WINDOW = Duration.ofMinutes(1);
+        private static final Duration LONG_WINDOW = Duration.ofMinutes(15);
+        private static final double MILLIS_PER_MINUTE = 60_000.0;
+        
+        private final LongAdder total = new LongAdder();
+        private final RollingWindowCounter shortWindow = new RollingWindowCounter(SHORT_WINDOW, 60);
+        private final RollingWindowCounter longWindow = new RollingWindowCounter(LONG_WINDOW, 60);
+        
+        void add(long count) {
+            long now = System.currentTimeMillis();
+            total.add(count);
+            shortWindow.add(count, now);
+            longWindow.add(count, now);
+        }
+        
+        long total() {
+            return total.sum();
+        }
+        
+        RateData rates(long nowMillis, long runMillis) {
+            return new RateData(
+                    perMinute(shortWindow.sum(nowMillis), Math.min(runMillis, SHORT_WINDOW.toMillis())),
+                    perMinute(longWindow.sum(nowMillis), Math.min(runMillis, LONG_WINDOW.toMillis())),
+                    perMinute(total.sum(), runMillis));
+        }
+        
+        void reset() {
+            total.reset();
+            shortWindow.clear();
+            longWindow.clear();
+        }
+        
+        // Windows longer than the time since the last reset are scaled by the time actually covered
+        private static double perMinute(long count, long millis) {
+            return millis > 0 ? count * MILLIS_PER_MINUTE / millis : 0.0;
+        }
     }
 }
\ No newline at end of file
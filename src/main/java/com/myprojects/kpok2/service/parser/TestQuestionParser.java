@@ -1,6 +1,7 @@
 package com.myprojects.kpok2.service.parser;
 
 import com.myprojects.kpok2.model.dto.ParsedTestQuestionDto;
+import com.myprojects.kpok2.service.metrics.jfr.QuestionParseEvent;
 import com.myprojects.kpok2.util.TestParserConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,8 +30,18 @@ public class TestQuestionParser {
      */
     public List<ParsedTestQuestionDto> parsePage(WebDriver driver, String url) {
         try {
-            // Get page source and parse with Jsoup
-            String pageSource = driver.getPageSource();
+            return parsePage(driver.getPageSource(), url);
+        } catch (Exception e) {
+            log.error("Error parsing page {}: {}", url, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Parse test questions from page source that was already fetched from the browser
+     */
+    public List<ParsedTestQuestionDto> parsePage(String pageSource, String url) {
+        try {
             Document doc = Jsoup.parse(pageSource);
             return parseQuestions(doc);
         } catch (Exception e) {
@@ -45,7 +56,10 @@ public class TestQuestionParser {
      * @return List of parsed test questions
      */
     public List<ParsedTestQuestionDto> parseQuestions(Document doc) {
+        QuestionParseEvent event = new QuestionParseEvent();
+        event.begin();
         List<ParsedTestQuestionDto> questions = new ArrayList<>();
+        int failedElements = 0;
         Elements questionElements = doc.select(TestParserConstants.QUESTION_SELECTOR);
         
         log.info("Found {} question elements", questionElements.size());
@@ -57,10 +71,12 @@ public class TestQuestionParser {
                     questions.add(question);
                 }
             } catch (Exception e) {
+                failedElements++;
                 log.warn("Error parsing question: {}", e.getMessage());
             }
         }
         
+        event.finish(questionElements.size(), questions.size(), failedElements);
         return questions;
     }
     
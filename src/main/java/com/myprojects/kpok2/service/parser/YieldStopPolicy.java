@@ -0,0 +1,138 @@
+package com.myprojects.kpok2.service.parser;
+
+import com.myprojects.kpok2.config.TestCenterProperties.AutoStopProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+/**
+ * Stop policy based on the new-question discovery rate over a sliding window of iterations.
+ * The window stores cumulative (parsed, new) question counts taken at each completed iteration,
+ * so the rate over the last N iterations is the difference between the newest and oldest snapshot.
+ */
+@Slf4j
+public class YieldStopPolicy {
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final double minNewQuestionsPerIteration;
+    private final double targetCoverage;
+
+    // Ring of cumulative snapshots, one slot more than the window so N deltas are available
+    private final long[] parsedSnapshots;
+    private final long[] newSnapshots;
+    private int snapshotCount;
+    private int head;
+
+    public YieldStopPolicy(AutoStopProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.windowSize = Math.max(1, properties.getWindowSize());
+        this.minNewQuestionsPerIteration = Math.max(0.0, properties.getMinNewQuestionsPerIteration());
+        this.targetCoverage = Math.min(1.0, Math.max(0.0, properties.getTargetCoverage()));
+        this.parsedSnapshots = new long[windowSize + 1];
+        this.newSnapshots = new long[windowSize + 1];
+    }
+
+    /**
+     * Policy that never stops a run
+     */
+    public static YieldStopPolicy disabled() {
+        return new YieldStopPolicy(new AutoStopProperties());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Seed the window with the counters as they are before the first iteration of a run
+     * @param cumulativeParsed total questions parsed so far
+     * @param cumulativeNew total new questions saved so far
+     */
+    public synchronized void start(long cumulativeParsed, long cumulativeNew) {
+        head = 0;
+        parsedSnapshots[0] = cumulativeParsed;
+        newSnapshots[0] = cumulativeNew;
+        snapshotCount = 1;
+    }
+
+    /**
+     * Record the cumulative question counters at the moment an iteration completes
+     * @param cumulativeParsed total questions parsed so far
+     * @param cumulativeNew total new questions saved so far
+     */
+    public synchronized void onIterationCompleted(long cumulativeParsed, long cumulativeNew) {
+        if (snapshotCount == 0) {
+            start(0, 0);
+        }
+        head = (head + 1) % parsedSnapshots.length;
+        parsedSnapshots[head] = cumulativeParsed;
+        newSnapshots[head] = cumulativeNew;
+        if (snapshotCount < parsedSnapshots.length) {
+            snapshotCount++;
+        }
+    }
+
+    /**
+     * Expected number of new questions per iteration over the current window
+     * @return the rate, or empty until the window has been filled once
+     */
+    public synchronized Optional<Double> getDiscoveryRate() {
+        if (!isWindowFull()) {
+            return Optional.empty();
+        }
+        long newInWindow = newSnapshots[head] - newSnapshots[oldestIndex()];
+        return Optional.of((double) newInWindow / windowSize);
+    }
+
+    /**
+     * Estimated coverage of the question pool: the share of questions sighted in the window
+     * that were already known (Good-Turing style sample coverage).
+     * @return the coverage in [0, 1], or empty until the window has been filled once
+     */
+    public synchronized Optional<Double> getEstimatedCoverage() {
+        if (!isWindowFull()) {
+            return Optional.empty();
+        }
+        long parsedInWindow = parsedSnapshots[head] - parsedSnapshots[oldestIndex()];
+        if (parsedInWindow <= 0) {
+            return Optional.empty();
+        }
+        long newInWindow = newSnapshots[head] - newSnapshots[oldestIndex()];
+        return Optional.of(1.0 - (double) newInWindow / parsedInWindow);
+    }
+
+    /**
+     * Decide whether the run should stop
+     * @return the stop reason, or empty if more iterations are worthwhile
+     */
+    public synchronized Optional<StopReason> evaluate() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Optional<Double> coverage = getEstimatedCoverage();
+        if (targetCoverage > 0 && coverage.isPresent() && coverage.get() >= targetCoverage) {
+            log.info("Estimated coverage {} reached target {}",
+                    String.format("%.3f", coverage.get()), targetCoverage);
+            return Optional.of(StopReason.COVERAGE_TARGET_REACHED);
+        }
+
+        Optional<Double> rate = getDiscoveryRate();
+        if (rate.isPresent() && rate.get() < minNewQuestionsPerIteration) {
+            log.info("Discovery rate {} new questions/iteration over last {} iterations is below threshold {}",
+                    String.format("%.3f", rate.get()), windowSize, minNewQuestionsPerIteration);
+            return Optional.of(StopReason.LOW_DISCOVERY_RATE);
+        }
+
+        return Optional.empty();
+    }
+
+    private boolean isWindowFull() {
+        return snapshotCount == parsedSnapshots.length;
+    }
+
+    private int oldestIndex() {
+        return (head + 1) % parsedSnapshots.length;
+    }
+}
@@ -0,0 +1,42 @@
+package com.myprojects.kpok2.service.retry;
+
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import lombok.Getter;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A retry waiting in a {@link java.util.concurrent.DelayQueue} until its backoff has elapsed
+ * @param <T> the work item to retry
+ */
+@Getter
+public class DelayedRetry<T> implements Delayed {
+    private final T item;
+    private final int attempt;
+    private final ParsingErrorType failure;
+    private final long dueAtNanos;
+
+    /**
+     * @param item the work item to retry
+     * @param attempt number of the attempt the retry will be
+     * @param failure class of the failure that caused the retry
+     * @param delayMs backoff before the retry is due
+     */
+    public DelayedRetry(T item, int attempt, ParsingErrorType failure, long delayMs) {
+        this.item = item;
+        this.attempt = attempt;
+        this.failure = failure;
+        this.dueAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
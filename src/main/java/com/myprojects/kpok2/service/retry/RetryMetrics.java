@@ -0,0 +1,71 @@
+package com.myprojects.kpok2.service.retry;
+
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import com.myprojects.kpok2.model.dto.RetryStatsDto;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Failure and retry counters per failure class, shared by navigation and parse jobs
+ */
+@Component
+public class RetryMetrics {
+
+    private final Map<ParsingErrorType, Counters> counters = new EnumMap<>(ParsingErrorType.class);
+
+    public RetryMetrics() {
+        for (ParsingErrorType type : ParsingErrorType.values()) {
+            counters.put(type, new Counters());
+        }
+    }
+
+    public void recordFailure(ParsingErrorType type) {
+        counters.get(type).failures.increment();
+    }
+
+    public void recordRetry(ParsingErrorType type) {
+        counters.get(type).retries.increment();
+    }
+
+    /**
+     * A step succeeded after failing with the given class
+     */
+    public void recordRecovered(ParsingErrorType type) {
+        counters.get(type).recovered.increment();
+    }
+
+    /**
+     * A retryable failure was given up because all attempts were used
+     */
+    public void recordExhausted(ParsingErrorType type) {
+        counters.get(type).exhausted.increment();
+    }
+
+    /**
+     * Counters of every failure class that occurred at least once
+     */
+    public Map<ParsingErrorType, RetryStatsDto> snapshot() {
+        Map<ParsingErrorType, RetryStatsDto> snapshot = new EnumMap<>(ParsingErrorType.class);
+        counters.forEach((type, counter) -> {
+            if (counter.failures.sum() > 0) {
+                snapshot.put(type, RetryStatsDto.builder()
+                        .failures(counter.failures.sum())
+                        .retries(counter.retries.sum())
+                        .recovered(counter.recovered.sum())
+                        .exhausted(counter.exhausted.sum())
+                        .build());
+            }
+        });
+        return snapshot;
+    }
+
+    private static class Counters {
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder recovered = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+}
@@ -0,0 +1,49 @@
+package com.myprojects.kpok2.service.retry;
+
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed step is retried and how long to wait before the retry
+ */
+@Component
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(
+            @Value("${app.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.retry.base-delay-ms:1000}") long baseDelayMs,
+            @Value("${app.retry.max-delay-ms:30000}") long maxDelayMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(1, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+    }
+
+    /**
+     * @param failure class of the failure
+     * @param attempt number of the attempt that failed, starting at 1
+     */
+    public boolean shouldRetry(ParsingErrorType failure, int attempt) {
+        return failure.isRetryable() && attempt < maxAttempts;
+    }
+
+    /**
+     * Exponential backoff with jitter: the delay doubles with every attempt up to the maximum,
+     * and a random half of it is dropped so that retries of failures that happened at the
+     * same time do not hit the server together again.
+     * @param attempt number of the attempt that failed, starting at 1
+     * @return the delay in milliseconds
+     */
+    public long computeDelay(int attempt) {
+        int doublings = Math.min(Math.max(attempt - 1, 0), 30);
+        long backoff = Math.min(maxDelayMs, baseDelayMs << doublings);
+        long half = backoff / 2;
+        return backoff - half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
@@ -0,0 +1,288 @@
+package com.myprojects.kpok2.service.statistics;
+
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
+import com.myprojects.kpok2.config.executor.InstrumentedExecutor;
+import com.myprojects.kpok2.model.IterationRecord;
+import com.myprojects.kpok2.model.IterationRollup.Granularity;
+import com.myprojects.kpok2.model.dto.TrendPointDto;
+import com.myprojects.kpok2.repository.IterationRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes iteration records to the database in batches and keeps minute, hour and day
+ * rollups of them. Navigation threads only offer records to a bounded queue; a scheduler
+ * hands the flush to the persistence executor, which inserts the records and upserts the
+ * rollups in one transaction. When the queue is full, records are dropped and counted
+ * rather than making a navigation thread wait.
+ */
+@Slf4j
+@Component
+public class IterationStatisticsSink {
+
+    private static final String INSERT_RECORD_SQL =
+            "INSERT INTO iteration_records (account, started_at, duration_ms, pages, new_questions, " +
+            "success, failure_step, resumed) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_ROLLUP_SQL =
+            "INSERT INTO iteration_rollups (granularity, bucket_start, iterations, failed_iterations, pages, " +
+            "new_questions, total_duration_ms, max_duration_ms) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (granularity, bucket_start) DO UPDATE SET " +
+            "iterations = iteration_rollups.iterations + EXCLUDED.iterations, " +
+            "failed_iterations = iteration_rollups.failed_iterations + EXCLUDED.failed_iterations, " +
+            "pages = iteration_rollups.pages + EXCLUDED.pages, " +
+            "new_questions = iteration_rollups.new_questions + EXCLUDED.new_questions, " +
+            "total_duration_ms = iteration_rollups.total_duration_ms + EXCLUDED.total_duration_ms, " +
+            "max_duration_ms = GREATEST(iteration_rollups.max_duration_ms, EXCLUDED.max_duration_ms)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IterationRollupRepository rollupRepository;
+    private final InstrumentedExecutor persistenceExecutor;
+    private final BlockingQueue<IterationRecord> queue;
+    private final int batchSize;
+    private final long flushIntervalSeconds;
+    private final int minuteRetentionDays;
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final LongAdder droppedRecords = new LongAdder();
+    // Batch whose write failed, retried before newer records
+    private volatile List<IterationRecord> failedBatch = List.of();
+    private ScheduledExecutorService flushScheduler;
+
+    public IterationStatisticsSink(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   IterationRollupRepository rollupRepository,
+                                   @Qualifier(ExecutorConfig.PERSISTENCE_EXECUTOR) InstrumentedExecutor persistenceExecutor,
+                                   @Value("${app.statistics.sink.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${app.statistics.sink.batch-size:500}") int batchSize,
+                                   @Value("${app.statistics.sink.flush-interval-seconds:5}") long flushIntervalSeconds,
+                                   @Value("${app.statistics.sink.minute-retention-days:7}") int minuteRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rollupRepository = rollupRepository;
+        this.persistenceExecutor = persistenceExecutor;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalSeconds = Math.max(1, flushIntervalSeconds);
+        this.minuteRetentionDays = minuteRetentionDays;
+    }
+
+    @PostConstruct
+    public void start() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StatisticsFlush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::scheduleFlush,
+                flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+        if (minuteRetentionDays > 0) {
+            flushScheduler.scheduleWithFixedDelay(this::pruneMinuteRollups, 1, 60, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+        }
+        flushSafely();
+    }
+
+    /**
+     * Queue a record for writing; never blocks
+     * @return false if the queue was full and the record was dropped
+     */
+    public boolean submit(IterationRecord record) {
+        if (queue.offer(record)) {
+            return true;
+        }
+        droppedRecords.increment();
+        log.warn("Statistics queue is full, dropped iteration record of account {} ({} dropped so far)",
+                record.getAccount(), droppedRecords.sum());
+        return false;
+    }
+
+    /**
+     * Write all queued records and their rollups
+     * @return number of records written
+     */
+    public synchronized int flush() {
+        int written = 0;
+        if (!failedBatch.isEmpty()) {
+            writeBatch(failedBatch);
+            written += failedBatch.size();
+            failedBatch = List.of();
+        }
+        List<IterationRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                failedBatch = batch;
+                throw e;
+            }
+            written += batch.size();
+            batch = new ArrayList<>(batchSize);
+        }
+        if (written > 0) {
+            log.debug("Wrote {} iteration records", written);
+        }
+        return written;
+    }
+
+    /**
+     * Rollups of the last buckets of the given granularity, oldest first
+     * @param granularity size of a bucket
+     * @param buckets number of buckets to return, counting the current one
+     */
+    public List<TrendPointDto> getTrend(Granularity granularity, int buckets) {
+        LocalDateTime from = granularity.minus(granularity.bucketOf(LocalDateTime.now()), buckets - 1L);
+        return rollupRepository.findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStart(granularity, from)
+                .stream()
+                .map(rollup -> TrendPointDto.builder()
+                        .bucketStart(rollup.getBucketStart().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                        .iterations(rollup.getIterations())
+                        .failedIterations(rollup.getFailedIterations())
+                        .pages(rollup.getPages())
+                        .newQuestions(rollup.getNewQuestions())
+                        .averageDurationMs(rollup.getIterations() > 0
+                                ? (double) rollup.getTotalDurationMs() / rollup.getIterations() : 0.0)
+                        .maxDurationMs(rollup.getMaxDurationMs())
+                        .newQuestionsPerIteration(rollup.getIterations() > 0
+                                ? (double) rollup.getNewQuestions() / rollup.getIterations() : 0.0)
+                        .build())
+                .toList();
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    private void writeBatch(List<IterationRecord> batch) {
+        List<Object[]> recordRows = new ArrayList<>(batch.size());
+        for (IterationRecord record : batch) {
+            recordRows.add(new Object[]{
+                    record.getAccount(),
+                    Timestamp.valueOf(record.getStartedAt()),
+                    record.getDurationMs(),
+                    record.getPages(),
+                    record.getNewQuestions(),
+                    record.isSuccess(),
+                    record.getFailureStep(),
+                    record.isResumed()
+            });
+        }
+        List<Object[]> rollupRows = new ArrayList<>();
+        aggregate(batch).forEach((granularity, rollups) -> rollups.forEach((bucketStart, totals) ->
+                rollupRows.add(new Object[]{
+                        granularity.name(),
+                        Timestamp.valueOf(bucketStart),
+                        totals.iterations,
+                        totals.failedIterations,
+                        totals.pages,
+                        totals.newQuestions,
+                        totals.totalDurationMs,
+                        totals.maxDurationMs
+                })));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_RECORD_SQL, recordRows);
+            jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rollupRows);
+        });
+    }
+
+    /**
+     * Sum a batch per bucket, so each bucket is upserted once per flush
+     */
+    private static Map<Granularity, Map<LocalDateTime, Totals>> aggregate(List<IterationRecord> batch) {
+        Map<Granularity, Map<LocalDateTime, Totals>> rollups = new EnumMap<>(Granularity.class);
+        for (IterationRecord record : batch) {
+            for (Granularity granularity : Granularity.values()) {
+                rollups.computeIfAbsent(granularity, g -> new HashMap<>())
+                        .computeIfAbsent(granularity.bucketOf(record.getStartedAt()), b -> new Totals())
+                        .add(record);
+            }
+        }
+        return rollups;
+    }
+
+    private void scheduleFlush() {
+        if (queue.isEmpty() && failedBatch.isEmpty()) {
+            return;
+        }
+        // At most one flush waits in or runs on the persistence executor
+        if (flushScheduled.compareAndSet(false, true)) {
+            persistenceExecutor.execute(() -> {
+                try {
+                    flushSafely();
+                } finally {
+                    flushScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to write iteration statistics: {}", e.getMessage());
+        }
+    }
+
+    private void pruneMinuteRollups() {
+        try {
+            int deleted = rollupRepository.deleteOlderThan(Granularity.MINUTE,
+                    LocalDateTime.now().minusDays(minuteRetentionDays));
+            if (deleted > 0) {
+                log.debug("Deleted {} minute rollups older than {} days", deleted, minuteRetentionDays);
+            }
+        } catch (Exception e) {
+            log.error("Failed to prune minute rollups: {}", e.getMessage());
+        }
+    }
+
+    private static class Totals {
+        private long iterations;
+        private long failedIterations;
+        private long pages;
+        private long newQuestions;
+        private long totalDurationMs;
+        private long maxDurationMs;
+
+        private void add(IterationRecord record) {
+            iterations++;
+            if (!record.isSuccess()) {
+                failedIterations++;
+            }
+            pages += record.getPages();
+            newQuestions += record.getNewQuestions();
+            totalDurationMs += record.getDurationMs();
+            maxDurationMs = Math.max(maxDurationMs, record.getDurationMs());
+        }
+    }
+}
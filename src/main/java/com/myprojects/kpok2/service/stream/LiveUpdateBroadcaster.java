@@ -0,0 +1,267 @@
+package com.myprojects.kpok2.service.stream;
+
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
+import com.myprojects.kpok2.config.executor.InstrumentedExecutor;
+import com.myprojects.kpok2.model.TestQuestion;
+import com.myprojects.kpok2.model.dto.QuestionEventDto;
+import com.myprojects.kpok2.service.TestQuestionService;
+import com.myprojects.kpok2.service.parser.TestParsingStatistics;
+import com.myprojects.kpok2.service.parser.TestParsingStatistics.StatisticsData;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes live crawl statistics and newly saved questions to Server-Sent Events clients.
+ * Statistics are read once per tick for all clients and only changed values are sent;
+ * new questions arrive through {@link TestQuestionService.TestQuestionListener}. Writes to
+ * clients run on the streaming executor, one at a time per client, so neither parsing
+ * threads nor other clients wait for a slow connection.
+ */
+@Slf4j
+@Component
+public class LiveUpdateBroadcaster implements TestQuestionService.TestQuestionListener {
+
+    private final TestQuestionService questionService;
+    private final TestParsingStatistics parsingStatistics;
+    private final InstrumentedExecutor streamingExecutor;
+    private final long intervalMs;
+    private final int clientBufferSize;
+    private final int maxClients;
+    private final long timeoutMs;
+    private final long heartbeatMs;
+
+    private final Map<Long, StreamClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong clientIds = new AtomicLong();
+    // Statistics as last sent to the clients, null while nobody is connected
+    private Map<String, Object> lastSnapshot;
+    private ScheduledExecutorService ticker;
+
+    public LiveUpdateBroadcaster(TestQuestionService questionService,
+                                 TestParsingStatistics parsingStatistics,
+                                 @Qualifier(ExecutorConfig.STREAMING_EXECUTOR) InstrumentedExecutor streamingExecutor,
+                                 @Value("${app.stream.interval-ms:1000}") long intervalMs,
+                                 @Value("${app.stream.client-buffer-size:200}") int clientBufferSize,
+                                 @Value("${app.stream.max-clients:50}") int maxClients,
+                                 @Value("${app.stream.timeout-minutes:30}") long timeoutMinutes,
+                                 @Value("${app.stream.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.questionService = questionService;
+        this.parsingStatistics = parsingStatistics;
+        this.streamingExecutor = streamingExecutor;
+        this.intervalMs = Math.max(100, intervalMs);
+        this.clientBufferSize = Math.max(1, clientBufferSize);
+        this.maxClients = maxClients;
+        this.timeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.heartbeatMs = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        questionService.addListener(this);
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StreamTicker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tickSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        questionService.removeListener(this);
+        if (ticker != null) {
+            ticker.shutdown();
+        }
+        clients.values().forEach(client -> client.getEmitter().complete());
+        clients.clear();
+    }
+
+    /**
+     * Register a new client; it first receives the full statistics, then only changes
+     * @return the emitter, or empty if the maximum number of clients is connected
+     */
+    public Optional<SseEmitter> connect() {
+        if (clients.size() >= maxClients) {
+            log.warn("Rejected live stream client: {} clients already connected", clients.size());
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        StreamClient client = new StreamClient(clientIds.incrementAndGet(), emitter, clientBufferSize);
+        emitter.onCompletion(() -> disconnect(client));
+        emitter.onTimeout(() -> disconnect(client));
+        emitter.onError(e -> disconnect(client));
+
+        synchronized (this) {
+            if (lastSnapshot == null) {
+                lastSnapshot = buildSnapshot();
+            }
+            client.mergeStats(lastSnapshot);
+            clients.put(client.getId(), client);
+        }
+        log.info("Live stream client {} connected ({} clients)", client.getId(), clients.size());
+        dispatch(client);
+        return Optional.of(emitter);
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @Override
+    public void onNewQuestion(TestQuestion question, List<String> answers) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        QuestionEventDto event = QuestionEventDto.builder()
+                .id(question.getId())
+                .questionText(question.getQuestionText())
+                .answers(answers)
+                .correctAnswer(question.getCorrectAnswer())
+                .answerConflict(Boolean.TRUE.equals(question.getAnswerConflict()))
+                .build();
+        // Only buffered here; the next tick sends it, together with other questions saved meanwhile
+        for (StreamClient client : clients.values()) {
+            client.offerQuestion(event);
+        }
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.error("Live stream update failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void tick() {
+        Map<String, Object> delta;
+        synchronized (this) {
+            if (clients.isEmpty()) {
+                lastSnapshot = null;
+                return;
+            }
+            Map<String, Object> snapshot = buildSnapshot();
+            delta = diff(lastSnapshot, snapshot);
+            lastSnapshot = snapshot;
+        }
+
+        long now = System.currentTimeMillis();
+        for (StreamClient client : clients.values()) {
+            if (!delta.isEmpty()) {
+                client.mergeStats(delta);
+            }
+            if (client.hasPending() || now - client.lastSentMillis >= heartbeatMs) {
+                dispatch(client);
+            }
+        }
+    }
+
+    /**
+     * Send what the client has pending unless a sender is already busy with it;
+     * anything added meanwhile goes out with the next tick
+     */
+    private void dispatch(StreamClient client) {
+        if (!client.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamingExecutor.execute(() -> {
+                try {
+                    send(client);
+                } finally {
+                    client.sending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            client.sending.set(false);
+        }
+    }
+
+    private void send(StreamClient client) {
+        if (client.closed) {
+            return;
+        }
+        StreamClient.Pending pending = client.takePending();
+        SseEmitter emitter = client.getEmitter();
+        try {
+            if (!pending.stats().isEmpty()) {
+                emitter.send(SseEmitter.event().name("stats").data(pending.stats()));
+            }
+            if (pending.droppedQuestions() > 0) {
+                emitter.send(SseEmitter.event().name("dropped").data(Map.of("questions", pending.droppedQuestions())));
+            }
+            for (QuestionEventDto question : pending.questions()) {
+                emitter.send(SseEmitter.event().name("question").data(question));
+            }
+            if (pending.stats().isEmpty() && pending.questions().isEmpty() && pending.droppedQuestions() == 0) {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+            client.lastSentMillis = System.currentTimeMillis();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Live stream client {} went away: {}", client.getId(), e.getMessage());
+            // The container completes the emitter itself after a failed write
+            disconnect(client);
+        }
+    }
+
+    private void disconnect(StreamClient client) {
+        client.closed = true;
+        if (clients.remove(client.getId()) != null) {
+            log.info("Live stream client {} disconnected ({} clients)", client.getId(), clients.size());
+        }
+    }
+
+    private Map<String, Object> buildSnapshot() {
+        StatisticsData stats = parsingStatistics.getCurrentStats();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("completedIterations", stats.getCompletedIterations());
+        snapshot.put("totalIterationsNeeded", stats.getTotalIterationsNeeded());
+        snapshot.put("processed", stats.getProcessedCount());
+        snapshot.put("success", stats.getSuccessCount());
+        snapshot.put("failed", stats.getFailedCount());
+        snapshot.put("newQuestions", stats.getNewQuestionsCount());
+        // Rates are rounded so that jitter does not turn every tick into an update
+        snapshot.put("newQuestionsPerMinute", round(stats.getNewQuestionRate().getLastMinute()));
+        snapshot.put("pagesPerMinute", round(stats.getPageRate().getLastMinute()));
+        snapshot.put("iterationsPerMinute", round(stats.getIterationRate().getLastMinute()));
+        snapshot.put("discoveryRate", stats.getDiscoveryRate() != null ? round(stats.getDiscoveryRate()) : null);
+        snapshot.put("estimatedCoverage", stats.getEstimatedCoverage() != null
+                ? Math.round(stats.getEstimatedCoverage() * 1000) / 1000.0 : null);
+        snapshot.put("stopReason", stats.getStopReason() != null ? stats.getStopReason().name() : null);
+        return snapshot;
+    }
+
+    private static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        if (previous == null) {
+            return current;
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        current.forEach((key, value) -> {
+            if (!Objects.equals(previous.get(key), value)) {
+                delta.put(key, value);
+            }
+        });
+        return delta;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.myprojects.kpok2.service.stream;
+
+import com.myprojects.kpok2.model.dto.QuestionEventDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One connected Server-Sent Events client with its own bounded buffer. Statistics changes
+ * are merged into a single pending update, so a slow client receives the latest values once
+ * instead of every intermediate one; new questions are kept up to the buffer size, dropping
+ * the oldest.
+ */
+class StreamClient {
+
+    private final long id;
+    private final SseEmitter emitter;
+    private final int questionCapacity;
+    private final ArrayDeque<QuestionEventDto> questions;
+    private final Map<String, Object> pendingStats = new LinkedHashMap<>();
+    private long droppedQuestions;
+
+    // Whether a sender thread currently writes to this client
+    final AtomicBoolean sending = new AtomicBoolean();
+    volatile long lastSentMillis = System.currentTimeMillis();
+    volatile boolean closed;
+
+    StreamClient(long id, SseEmitter emitter, int questionCapacity) {
+        this.id = id;
+        this.emitter = emitter;
+        this.questionCapacity = questionCapacity;
+        this.questions = new ArrayDeque<>(Math.min(questionCapacity, 16));
+    }
+
+    long getId() {
+        return id;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    synchronized void offerQuestion(QuestionEventDto question) {
+        if (questions.size() >= questionCapacity) {
+            questions.pollFirst();
+            droppedQuestions++;
+        }
+        questions.addLast(question);
+    }
+
+    synchronized void mergeStats(Map<String, Object> delta) {
+        pendingStats.putAll(delta);
+    }
+
+    synchronized boolean hasPending() {
+        return !pendingStats.isEmpty() || !questions.isEmpty() || droppedQuestions > 0;
+    }
+
+    /**
+     * Take everything that is waiting to be sent
+     */
+    synchronized Pending takePending() {
+        Pending pending = new Pending(
+                pendingStats.isEmpty() ? Map.of() : new LinkedHashMap<>(pendingStats),
+                questions.isEmpty() ? List.of() : new ArrayList<>(questions),
+                droppedQuestions);
+        pendingStats.clear();
+        questions.clear();
+        droppedQuestions = 0;
+        return pending;
+    }
+
+    record Pending(Map<String, Object> stats, List<QuestionEventDto> questions, long droppedQuestions) {
+    }
+}
@@ -1,19 +1,26 @@
 package com.myprojects.kpok2.service.update;
 
+import com.myprojects.kpok2.config.executor.ExecutorConfig;
 import com.vdurmont.semver4j.Semver;
+import lombok.extern.slf4j.Slf4j;
 import org.kohsuke.github.GHRelease;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GitHub;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Service
 public class UpdateChecker {
     private static final String REPOSITORY = "Nanachi357/KPOK2";
     private final String currentVersion;
+    private final Executor fetchingExecutor;
 
     public record ReleaseInfo(
         String version,
@@ -22,11 +29,24 @@ public class UpdateChecker {
         String downloadUrl
     ) {}
 
-    public UpdateChecker(@Value("${application.version}") String currentVersion) {
+    public UpdateChecker(@Value("${application.version}") String currentVersion,
+                         @Qualifier(ExecutorConfig.FETCHING_EXECUTOR) Executor fetchingExecutor) {
         this.currentVersion = currentVersion;
+        this.fetchingExecutor = fetchingExecutor;
     }
 
-    public Optional<ReleaseInfo> checkForUpdates() {
+    /**
+     * Check for a newer release without blocking the caller, e.g. the JavaFX thread or startup.
+     * The GitHub call runs on the fetching executor.
+     */
+    public CompletableFuture<Optional<ReleaseInfo>> checkForUpdatesAsync() {
+        return CompletableFuture.supplyAsync(this::checkForUpdates, fetchingExecutor);
+    }
+
+    /**
+     * Check GitHub for a newer release; blocks on the network
+     */
+    private Optional<ReleaseInfo> checkForUpdates() {
         try {
             GitHub github = GitHub.connectAnonymously();
             GHRepository repository = github.getRepository(REPOSITORY);
@@ -53,7 +73,7 @@ public class UpdateChecker {
 
             return Optional.empty();
         } catch (IOException e) {
-            // Log error if needed
+            log.warn("Update check failed: {}", e.getMessage());
             return Optional.empty();
         }
     }
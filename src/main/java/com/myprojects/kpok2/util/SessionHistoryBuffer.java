@@ -0,0 +1,99 @@
+package com.myprojects.kpok2.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, lock-free history of the most recent records. A writer claims a sequence number
+ * and stores the record in the slot it maps to, overwriting the oldest record once the
+ * buffer is full. Each slot remembers the sequence of its record, so a reader racing with
+ * writers skips slots that were overwritten and stops at slots not yet filled instead of
+ * returning records out of order.
+ *
+ * @param <T> type of the immutable records
+ */
+public class SessionHistoryBuffer<T> {
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Sequence of the first record added after the last clear
+    private volatile long clearedBefore;
+
+    public SessionHistoryBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(T record) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq % slots.length()), new Entry<>(seq, record));
+    }
+
+    /**
+     * Read the records added from the given sequence on, oldest first. Reading stops at the first
+     * slot whose writer has claimed it but not stored its record yet, so that record is returned
+     * by the next read instead of being lost.
+     * @param fromSequence sequence returned by the previous read, or 0
+     * @param filter records to keep
+     * @param into list the matching records are appended to
+     * @return sequence to continue from with the next read
+     */
+    public long readSince(long fromSequence, Predicate<? super T> filter, List<? super T> into) {
+        long end = sequence.get();
+        long start = Math.max(Math.max(fromSequence, clearedBefore), end - slots.length());
+        for (long seq = start; seq < end; seq++) {
+            Entry<T> entry = slots.get((int) (seq % slots.length()));
+            if (entry == null || entry.seq < seq) {
+                return seq; // Claimed but not filled yet
+            }
+            // A newer sequence means the record was already overwritten
+            if (entry.seq == seq && filter.test(entry.record)) {
+                into.add(entry.record);
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Records currently held, oldest first
+     */
+    public List<T> snapshot() {
+        return snapshot(record -> true);
+    }
+
+    /**
+     * Records currently held that match the filter, oldest first
+     */
+    public List<T> snapshot(Predicate<? super T> filter) {
+        List<T> records = new ArrayList<>();
+        readSince(0, filter, records);
+        return records;
+    }
+
+    /**
+     * Number of records added since the last clear, including those already overwritten
+     */
+    public long getTotalAdded() {
+        return sequence.get() - clearedBefore;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Drop all records; slots are reused as new records arrive
+     */
+    public void clear() {
+        clearedBefore = sequence.get();
+    }
+
+    private record Entry<T>(long seq, T record) {
+    }
+}
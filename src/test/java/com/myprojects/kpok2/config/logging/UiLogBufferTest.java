@@ -0,0 +1,50 @@
+package com.myprojects.kpok2.config.logging;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UiLogBufferTest {
+
+    @Test
+    void readsOnlyLinesAddedSinceLastRead() {
+        UiLogBuffer buffer = new UiLogBuffer(4);
+        buffer.add(entry(Level.INFO, "a"));
+        buffer.add(entry(Level.INFO, "b"));
+
+        List<UiLogEntry> batch = new ArrayList<>();
+        long next = buffer.readSince(0, e -> true, batch);
+        assertEquals(List.of("a", "b"), messages(batch));
+
+        buffer.add(entry(Level.INFO, "c"));
+        batch.clear();
+        buffer.readSince(next, e -> true, batch);
+        assertEquals(List.of("c"), messages(batch));
+    }
+
+    @Test
+    void skipsOverwrittenAndClearedLines() {
+        UiLogBuffer buffer = new UiLogBuffer(3);
+        for (String message : List.of("a", "b", "c", "d", "e")) {
+            buffer.add(entry(Level.INFO, message));
+        }
+        assertEquals(List.of("c", "d", "e"), messages(buffer.snapshot(e -> true)));
+
+        buffer.clear();
+        buffer.add(entry(Level.WARN, "f"));
+        buffer.add(entry(Level.DEBUG, "g"));
+        assertEquals(List.of("f"), messages(buffer.snapshot(e -> e.level().isGreaterOrEqual(Level.INFO))));
+    }
+
+    private static UiLogEntry entry(Level level, String message) {
+        return new UiLogEntry(System.currentTimeMillis(), level, "com.myprojects.kpok2.Test", message);
+    }
+
+    private static List<String> messages(List<UiLogEntry> entries) {
+        return entries.stream().map(UiLogEntry::message).toList();
+    }
+}
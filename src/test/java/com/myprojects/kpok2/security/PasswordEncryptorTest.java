@@ -0,0 +1,100 @@
+package com.myprojects.kpok2.security;
+
+import com.myprojects.kpok2.service.AccountConfigurationService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class PasswordEncryptorTest {
+
+    private static final String SEED = "c2VlZC1mb3ItdGVzdHMtb25seS0xMjM0NTY3ODkwYWI=";
+
+    private final PasswordEncryptor encryptor = new PasswordEncryptor(SEED);
+
+    @Test
+    void encryptsInCurrentFormatAndRoundTrips() {
+        String encrypted = encryptor.encryptPassword("secret");
+
+        assertTrue(encryptor.isCurrentFormat(encrypted));
+        assertEquals("secret", encryptor.decryptPassword(encrypted));
+    }
+
+    @Test
+    void usesFreshIvPerRecord() {
+        assertNotEquals(encryptor.encryptPassword("secret"), encryptor.encryptPassword("secret"));
+    }
+
+    @Test
+    void decryptsLegacyValues() throws Exception {
+        String legacy = encryptor.encryptPasswordLegacy("old-secret");
+
+        assertFalse(encryptor.isCurrentFormat(legacy));
+        assertEquals("old-secret", encryptor.decryptPassword(legacy));
+    }
+
+    @Test
+    void rejectsValuesFromAnotherSeed() {
+        String encrypted = new PasswordEncryptor("b3RoZXItc2VlZA==").encryptPassword("secret");
+
+        assertThrows(RuntimeException.class, () -> encryptor.decryptPassword(encrypted));
+    }
+
+    /**
+     * Loading 1,000 stored accounts through {@link AccountConfigurationService}, once from a file
+     * in the legacy format (which is migrated while loading) and once from a file in the current format.
+     * Only logs the timings, since wall-clock comparisons are not stable. Run with -Dbenchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkLoadThousandAccounts(@TempDir Path legacyDir, @TempDir Path currentDir) throws Exception {
+        int accounts = 1000;
+        Properties legacy = new Properties();
+        Properties current = new Properties();
+        for (int i = 0; i < accounts; i++) {
+            String prefix = "testcenter.accounts[" + i + "]";
+            legacy.setProperty(prefix + ".username", "user-" + i);
+            legacy.setProperty(prefix + ".password", "ENC:" + encryptor.encryptPasswordLegacy("password-" + i));
+            legacy.setProperty(prefix + ".enabled", "true");
+            current.setProperty(prefix + ".username", "user-" + i);
+            current.setProperty(prefix + ".password", "ENC:" + encryptor.encryptPassword("password-" + i));
+            current.setProperty(prefix + ".enabled", "true");
+        }
+
+        long legacyMillis = timeAccountLoad(legacyDir, legacy, accounts);
+        long currentMillis = timeAccountLoad(currentDir, current, accounts);
+
+        log.info("Loading {} accounts: legacy format {} ms (including migration), current format {} ms",
+                accounts, legacyMillis, currentMillis);
+    }
+
+    private long timeAccountLoad(Path configDir, Properties stored, int expectedAccounts) throws Exception {
+        try (OutputStream out = Files.newOutputStream(configDir.resolve("application-local.properties"))) {
+            stored.store(out, null);
+        }
+
+        long start = System.nanoTime();
+        AccountConfigurationService service = new AccountConfigurationService(
+                new PasswordEncryptor(SEED), new StandardEnvironment(), event -> {
+                }, "file:" + configDir + "/");
+        try {
+            assertEquals(expectedAccounts, service.getAccounts().size());
+            return (System.nanoTime() - start) / 1_000_000;
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.myprojects.kpok2.service.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashLshIndexTest {
+
+    private final MinHashLshIndex index = new MinHashLshIndex(16, 8, 4, 0.8);
+
+    @Test
+    void findsTextWithTypoFix() {
+        index.add(1, index.signature("what is the maximum allowed speed in a residential area"), 1);
+        index.add(2, index.signature("which documents must the driver carry at all times"), 2);
+
+        List<MinHashLshIndex.Match> matches =
+                index.findSimilar(index.signature("what is the maximum alowed speed in a residential area"));
+
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).id());
+        assertTrue(matches.get(0).similarity() >= 0.8);
+    }
+
+    @Test
+    void ignoresUnrelatedText() {
+        index.add(1, index.signature("what is the maximum allowed speed in a residential area"), 1);
+
+        assertTrue(index.findSimilar(index.signature("which documents must the driver carry at all times")).isEmpty());
+    }
+
+    @Test
+    void reportsClusterOfMatch() {
+        int[] signature = index.signature("the stopping distance depends on speed and road surface");
+        index.add(5, signature, 5);
+        index.add(9, signature, 5);
+
+        List<MinHashLshIndex.Match> matches = index.findSimilar(signature);
+
+        assertEquals(List.of(5L, 9L), matches.stream().map(MinHashLshIndex.Match::id).toList());
+        assertTrue(matches.stream().allMatch(match -> match.clusterId() == 5 && match.similarity() == 1.0));
+    }
+
+    @Test
+    void signaturesAreStableAcrossInstances() {
+        MinHashLshIndex other = new MinHashLshIndex(16, 8, 4, 0.8);
+        String text = "short";
+
+        assertArrayEquals(index.signature(text), other.signature(text));
+        assertArrayEquals(index.signature("ab"), other.signature("ab"));
+        assertNull(index.signature("  "));
+    }
+}
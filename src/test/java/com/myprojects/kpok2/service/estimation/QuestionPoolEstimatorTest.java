@@ -0,0 +1,50 @@
+package com.myprojects.kpok2.service.estimation;
+
+import com.myprojects.kpok2.model.dto.PoolEstimateDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionPoolEstimatorTest {
+
+    @Test
+    void noSingletonsMeansPoolIsFullyObserved() {
+        PoolEstimateDto estimate = QuestionPoolEstimator.estimate(10, 300, 100, 0, 30, 0.95);
+
+        assertEquals(100, estimate.getEstimatedPoolSize(), 1e-9);
+        assertEquals(1.0, estimate.getPoolCoverage(), 1e-9);
+        assertEquals(1.0, estimate.getSampleCoverage(), 1e-9);
+        assertEquals(0L, estimate.getAdditionalIterationsToTarget());
+    }
+
+    @Test
+    void chao2AddsUnseenQuestionsAndExtrapolatesIterations() {
+        PoolEstimateDto estimate = QuestionPoolEstimator.estimate(10, 300, 100, 20, 10, 0.95);
+
+        // Q1^2 / (2 Q2) with the (T-1)/T correction for T attempts
+        assertEquals(100 + (9.0 / 10) * 20, estimate.getEstimatedPoolSize(), 1e-9);
+        assertTrue(estimate.getPoolCoverage() < 0.95);
+        assertTrue(estimate.getSampleCoverage() > 0.9 && estimate.getSampleCoverage() < 1.0);
+        assertNotNull(estimate.getAdditionalIterationsToTarget());
+        assertTrue(estimate.getAdditionalIterationsToTarget() > 0);
+    }
+
+    @Test
+    void noExtrapolationWithoutRecaptures() {
+        PoolEstimateDto estimate = QuestionPoolEstimator.estimate(2, 60, 60, 60, 0, 0.95);
+
+        assertTrue(estimate.getEstimatedPoolSize() > 60);
+        assertNull(estimate.getAdditionalIterationsToTarget());
+    }
+
+    @Test
+    void emptySightingsYieldEmptyEstimate() {
+        PoolEstimateDto estimate = QuestionPoolEstimator.estimate(0, 0, 0, 0, 0, 0.95);
+
+        assertEquals(0, estimate.getEstimatedPoolSize(), 1e-9);
+        assertNull(estimate.getAdditionalIterationsToTarget());
+    }
+}
@@ -0,0 +1,158 @@
+package com.myprojects.kpok2.service.migration;
+
+import com.myprojects.kpok2.model.TestQuestion;
+import com.myprojects.kpok2.repository.QuestionSightingRepository;
+import com.myprojects.kpok2.repository.TestQuestionRepository;
+import com.myprojects.kpok2.service.QuestionSightingCounter;
+import com.myprojects.kpok2.service.dedup.NearDuplicateService;
+import com.myprojects.kpok2.service.estimation.QuestionPoolEstimator;
+import com.myprojects.kpok2.service.mapper.TestQuestionMapperUtils;
+import com.myprojects.kpok2.service.navigation.NavigationService;
+import com.myprojects.kpok2.service.parser.TestNormalizer;
+import com.myprojects.kpok2.util.JsonConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionRehashMigrationTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2024, 2, 1, 10, 0);
+    private static final LocalDateTime T3 = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private final TestQuestionRepository questionRepository = mock(TestQuestionRepository.class);
+    private final QuestionSightingRepository sightingRepository = mock(QuestionSightingRepository.class);
+    private final QuestionRehashMigration migration = new QuestionRehashMigration(
+            questionRepository, sightingRepository, mock(TestNormalizer.class), mock(JsonConverter.class),
+            mock(NavigationService.class), mock(NearDuplicateService.class), mock(QuestionPoolEstimator.class),
+            mock(QuestionSightingCounter.class), mock(PlatformTransactionManager.class), 500, 1, 0, 0, false);
+
+    @Test
+    void movesQuestionAndSightingsToFreeHash() {
+        TestQuestion question = question(5L, "old", 2L, T1, T2, false);
+        when(questionRepository.findAllById(List.of(5L))).thenReturn(List.of(question));
+        when(questionRepository.findByQuestionHash("new")).thenReturn(Optional.empty());
+
+        QuestionRehashMigration.ChunkChanges changes = migration.apply(List.of(recomputed(5L, "new")));
+
+        assertEquals("new", question.getQuestionHash());
+        assertEquals(Map.of("old", "new"), changes.newHashes());
+        assertTrue(changes.mergedInto().isEmpty());
+        assertEquals(TestNormalizer.VERSION, question.getNormalizerVersion());
+        assertEquals(TestQuestionMapperUtils.HASH_VERSION, question.getHashVersion());
+        verify(sightingRepository).rehash("old", "new");
+        verify(questionRepository, never()).delete(any());
+        assertEquals(1, migration.getStatus().getRehashed());
+    }
+
+    @Test
+    void olderHolderAbsorbsRehashedQuestion() {
+        TestQuestion question = question(5L, "old", 2L, T1, T2, true);
+        TestQuestion holder = question(3L, "new", 3L, T2, T3, false);
+        when(questionRepository.findAllById(List.of(5L))).thenReturn(List.of(question));
+        when(questionRepository.findByQuestionHash("new")).thenReturn(Optional.of(holder));
+
+        QuestionRehashMigration.ChunkChanges changes = migration.apply(List.of(recomputed(5L, "new")));
+
+        assertEquals(5L, holder.getSeenCount());
+        assertEquals(T1, holder.getFirstSeen());
+        assertEquals(T3, holder.getLastSeen());
+        assertTrue(holder.getAnswerConflict());
+        verify(questionRepository).delete(question);
+        verify(questionRepository).repointNearDuplicateOf(5L, 3L);
+        verify(sightingRepository).rehash("old", "new");
+        assertEquals(Map.of(5L, 3L), changes.mergedInto());
+        assertEquals(1, migration.getStatus().getMerged());
+    }
+
+    @Test
+    void rehashedQuestionAbsorbsNewerHolder() {
+        TestQuestion question = question(3L, "old", 2L, T2, T2, false);
+        TestQuestion holder = question(7L, "new", 1L, T1, T3, false);
+        when(questionRepository.findAllById(List.of(3L))).thenReturn(List.of(question));
+        when(questionRepository.findByQuestionHash("new")).thenReturn(Optional.of(holder));
+
+        migration.apply(List.of(recomputed(3L, "new")));
+
+        assertEquals("new", question.getQuestionHash());
+        assertEquals(3L, question.getSeenCount());
+        assertEquals(T1, question.getFirstSeen());
+        assertEquals(T3, question.getLastSeen());
+        verify(questionRepository).delete(holder);
+        verify(sightingRepository).rehash("old", "new");
+        assertEquals(1, migration.getStatus().getMerged());
+    }
+
+    @Test
+    void mergedClusterHeadPassesItsMembersToTheSurvivor() {
+        TestQuestion question = question(3L, "old", 1L, T1, T1, false);
+        question.setNearDuplicateOf(7L);
+        TestQuestion member = question(9L, "other", 1L, T1, T1, false);
+        member.setNearDuplicateOf(7L);
+        TestQuestion holder = question(7L, "new", 1L, T2, T2, false);
+        when(questionRepository.findAllById(List.of(3L, 9L))).thenReturn(List.of(question, member));
+        when(questionRepository.findByQuestionHash("new")).thenReturn(Optional.of(holder));
+
+        migration.apply(List.of(recomputed(3L, "new"), recomputed(9L, "other")));
+
+        assertNull(question.getNearDuplicateOf());
+        assertEquals(3L, member.getNearDuplicateOf());
+        verify(questionRepository).repointNearDuplicateOf(7L, 3L);
+    }
+
+    @Test
+    void unchangedHashOnlyUpdatesVersions() {
+        TestQuestion question = question(5L, "same", 1L, T1, T1, false);
+        question.setHashVersion(0);
+        when(questionRepository.findAllById(List.of(5L))).thenReturn(List.of(question));
+
+        migration.apply(List.of(recomputed(5L, "same")));
+
+        assertEquals(TestQuestionMapperUtils.HASH_VERSION, question.getHashVersion());
+        verify(questionRepository, never()).findByQuestionHash(anyString());
+        verify(sightingRepository, never()).rehash(anyString(), anyString());
+    }
+
+    @Test
+    void mergeCountsMissingSeenCountAsOneSighting() {
+        TestQuestion survivor = question(1L, "a", null, null, T1, null);
+        TestQuestion duplicate = question(2L, "b", 4L, T2, null, true);
+
+        QuestionRehashMigration.mergeInto(survivor, duplicate);
+
+        assertEquals(5L, survivor.getSeenCount());
+        assertEquals(T2, survivor.getFirstSeen());
+        assertEquals(T1, survivor.getLastSeen());
+        assertTrue(survivor.getAnswerConflict());
+    }
+
+    private static QuestionRehashMigration.Recomputed recomputed(long id, String hash) {
+        return new QuestionRehashMigration.Recomputed(id, "text", "answer", hash);
+    }
+
+    private static TestQuestion question(Long id, String hash, Long seenCount,
+                                         LocalDateTime firstSeen, LocalDateTime lastSeen, Boolean answerConflict) {
+        return TestQuestion.builder()
+                .id(id)
+                .questionHash(hash)
+                .seenCount(seenCount)
+                .firstSeen(firstSeen)
+                .lastSeen(lastSeen)
+                .answerConflict(answerConflict)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.myprojects.kpok2.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RollingWindowCounterTest {
+
+    private final RollingWindowCounter counter = new RollingWindowCounter(Duration.ofMinutes(1), 60);
+
+    @Test
+    void sumsOnlyEventsWithinWindow() {
+        counter.add(5, 0);
+        counter.add(3, 30_000);
+        counter.add(2, 59_999);
+
+        assertEquals(10, counter.sum(59_999));
+        // The first second's bucket has left the window
+        assertEquals(5, counter.sum(60_000));
+        assertEquals(2, counter.sum(90_000));
+        assertEquals(0, counter.sum(119_000));
+    }
+
+    @Test
+    void reusesSlotsAfterWindowHasPassed() {
+        counter.add(4, 1_000);
+        counter.add(7, 61_000);
+
+        assertEquals(7, counter.sum(61_000));
+
+        // An event older than the bucket now holding its slot is dropped
+        counter.add(1, 1_500);
+        assertEquals(7, counter.sum(61_000));
+    }
+}
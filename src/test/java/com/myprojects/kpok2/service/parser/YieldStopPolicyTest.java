@@ -0,0 +1,73 @@
+package com.myprojects.kpok2.service.parser;
+
+import com.myprojects.kpok2.config.TestCenterProperties.AutoStopProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YieldStopPolicyTest {
+
+    @Test
+    void stopsWhenDiscoveryRateOverWindowDropsBelowThreshold() {
+        YieldStopPolicy policy = new YieldStopPolicy(properties(3, 1.0, 0.0));
+        policy.start(100, 50);
+
+        policy.onIterationCompleted(120, 60);
+        policy.onIterationCompleted(140, 62);
+        // The window is not full yet
+        assertEquals(Optional.empty(), policy.evaluate());
+
+        policy.onIterationCompleted(160, 64);
+        assertEquals(14.0 / 3, policy.getDiscoveryRate().orElseThrow(), 1e-9);
+        assertEquals(Optional.empty(), policy.evaluate());
+
+        // The first iteration's 10 new questions leave the window: 4 new in the last 3 iterations
+        policy.onIterationCompleted(180, 64);
+        assertEquals(4.0 / 3, policy.getDiscoveryRate().orElseThrow(), 1e-9);
+        assertEquals(Optional.empty(), policy.evaluate());
+
+        policy.onIterationCompleted(200, 64);
+        assertEquals(Optional.of(StopReason.LOW_DISCOVERY_RATE), policy.evaluate());
+    }
+
+    @Test
+    void stopsWhenEstimatedCoverageReachesTarget() {
+        YieldStopPolicy policy = new YieldStopPolicy(properties(2, 0.0, 0.9));
+        policy.start(0, 0);
+
+        policy.onIterationCompleted(20, 5);
+        policy.onIterationCompleted(40, 6);
+        // 6 of 40 sighted questions were new
+        assertEquals(0.85, policy.getEstimatedCoverage().orElseThrow(), 1e-9);
+        assertEquals(Optional.empty(), policy.evaluate());
+
+        policy.onIterationCompleted(60, 7);
+        assertEquals(0.95, policy.getEstimatedCoverage().orElseThrow(), 1e-9);
+        assertEquals(Optional.of(StopReason.COVERAGE_TARGET_REACHED), policy.evaluate());
+    }
+
+    @Test
+    void disabledPolicyNeverStops() {
+        YieldStopPolicy policy = YieldStopPolicy.disabled();
+        policy.start(0, 0);
+        for (int i = 1; i <= 50; i++) {
+            policy.onIterationCompleted(i * 10L, 0);
+        }
+
+        assertTrue(policy.getDiscoveryRate().isPresent());
+        assertEquals(Optional.empty(), policy.evaluate());
+    }
+
+    private static AutoStopProperties properties(int windowSize, double minNewQuestionsPerIteration,
+                                                 double targetCoverage) {
+        AutoStopProperties properties = new AutoStopProperties();
+        properties.setEnabled(true);
+        properties.setWindowSize(windowSize);
+        properties.setMinNewQuestionsPerIteration(minNewQuestionsPerIteration);
+        properties.setTargetCoverage(targetCoverage);
+        return properties;
+    }
+}
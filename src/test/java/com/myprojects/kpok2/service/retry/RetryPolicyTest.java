@@ -0,0 +1,52 @@
+package com.myprojects.kpok2.service.retry;
+
+import com.myprojects.kpok2.exception.parser.FailureClassifier;
+import com.myprojects.kpok2.exception.parser.ParsingErrorType;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(3, 1000, 5000);
+
+    @Test
+    void delayDoublesWithJitterUpToMaximum() {
+        for (int i = 0; i < 100; i++) {
+            long first = policy.computeDelay(1);
+            long second = policy.computeDelay(2);
+            long capped = policy.computeDelay(10);
+
+            assertTrue(first >= 500 && first <= 1000, "first delay " + first);
+            assertTrue(second >= 1000 && second <= 2000, "second delay " + second);
+            assertTrue(capped >= 2500 && capped <= 5000, "capped delay " + capped);
+        }
+    }
+
+    @Test
+    void retriesOnlyRetryableFailuresWithinAttemptLimit() {
+        assertTrue(policy.shouldRetry(ParsingErrorType.TIMEOUT_ERROR, 1));
+        assertTrue(policy.shouldRetry(ParsingErrorType.TIMEOUT_ERROR, 2));
+        assertFalse(policy.shouldRetry(ParsingErrorType.TIMEOUT_ERROR, 3));
+        assertFalse(policy.shouldRetry(ParsingErrorType.INVALID_CONTENT, 1));
+    }
+
+    @Test
+    void classifiesSeleniumFailuresAndErrorPages() {
+        assertEquals(ParsingErrorType.TIMEOUT_ERROR, FailureClassifier.classify(new TimeoutException("wait")));
+        assertEquals(ParsingErrorType.MISSING_ELEMENT, FailureClassifier.classify(new NoSuchElementException("button")));
+        assertEquals(ParsingErrorType.UNEXPECTED_ERROR, FailureClassifier.classify(new IllegalStateException()));
+        assertEquals(ParsingErrorType.ACCESS_DENIED, FailureClassifier.classifyPage(
+                "https://test.testcentr.org.ua/login/index.php", "Login", ParsingErrorType.NO_QUESTIONS));
+        assertEquals(ParsingErrorType.SERVER_ERROR, FailureClassifier.classifyPage(
+                "https://test.testcentr.org.ua/mod/quiz/review.php", "503 Service Unavailable", ParsingErrorType.NO_QUESTIONS));
+        assertEquals(ParsingErrorType.NO_QUESTIONS, FailureClassifier.classifyPage(
+                "https://test.testcentr.org.ua/mod/quiz/review.php", "Тест 1500 питань", ParsingErrorType.NO_QUESTIONS));
+        assertEquals(ParsingErrorType.NO_QUESTIONS, FailureClassifier.classifyPage(
+                "https://test.testcentr.org.ua/mod/quiz/review.php", "Review", ParsingErrorType.NO_QUESTIONS));
+    }
+}
@@ -0,0 +1,58 @@
+package com.myprojects.kpok2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionHistoryBufferTest {
+
+    @Test
+    void keepsMostRecentRecordsOldestFirst() {
+        SessionHistoryBuffer<Integer> buffer = new SessionHistoryBuffer<>(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.add(i);
+        }
+
+        assertEquals(List.of(3, 4, 5), buffer.snapshot());
+        assertEquals(5, buffer.getTotalAdded());
+
+        buffer.clear();
+        buffer.add(6);
+        assertEquals(List.of(6), buffer.snapshot());
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentWriters() throws InterruptedException {
+        SessionHistoryBuffer<Integer> buffer = new SessionHistoryBuffer<>(100);
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    buffer.add(i);
+                    assertTrue(buffer.snapshot().size() <= 100);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, buffer.getTotalAdded());
+        assertEquals(100, buffer.snapshot().size());
+    }
+}